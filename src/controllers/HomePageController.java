@@ -1,18 +1,13 @@
 package controllers;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
 
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
 
+import org.apache.commons.io.FilenameUtils;
+
+import data.HyperlinkRepository;
 import data.Link;
 import enums.EHypermediaTab;
 import javafx.fxml.FXML;
@@ -47,6 +42,9 @@ public class HomePageController extends AbstractController
    @FXML
    private MenuItem _saveMenuItem;
 
+   @FXML
+   private MenuItem _exportMenuItem;
+
    @FXML
    private MenuItem _createLinkMenuItem;
 
@@ -77,6 +75,9 @@ public class HomePageController extends AbstractController
    /** MP4 Converter Controller */
    private MP4ConverterController _mp4ConverterController;
 
+   /** Loads, Saves and Caches the Hyperlink Files of every Controller */
+   private HyperlinkRepository _hyperlinkRepository;
+
    /** FXML filename associated with this Controller */
    private static final String FXML_NAME = "HomePage.fxml";
 
@@ -122,6 +123,9 @@ public class HomePageController extends AbstractController
       // Initialize Stage
       _stage = primaryStage;
 
+      // Initialize Hyperlink Repository (Shared by the Controllers)
+      _hyperlinkRepository = new HyperlinkRepository();
+
       // Initialize Controllers
       _videoToolController = new VideoToolController(primaryStage, loader, this);
       _videoPlayerController = new VideoPlayerController(primaryStage, loader, this);
@@ -168,8 +172,16 @@ public class HomePageController extends AbstractController
       handleDeleteLinkSelection();
       handleOpenFileSelection();
       handleSaveSelection();
+      handleExportSelection();
       handleExitSelection();
 
+      // Exit through the Exit Path when the Window is Closed (so Saves are Finished)
+      _stage.setOnCloseRequest(event ->
+      {
+         event.consume();
+         exitApplication();
+      });
+
       // Set File Menu Accelerators
       _openFileMenuItem.setAccelerator(new KeyCodeCombination(KeyCode.O, KeyCombination.CONTROL_DOWN));
       _importPrimaryVideoItem.setAccelerator(new KeyCodeCombination(KeyCode.P, KeyCombination.CONTROL_DOWN));
@@ -374,6 +386,31 @@ public class HomePageController extends AbstractController
       }
    }
 
+   /**
+    * exportHyperlinkFile - Processes the Export Functionality, Writing the
+    *                       Links of the Video Tool as JSON or Binary
+    */
+   public void exportHyperlinkFile()
+   {
+      // Check a Hyperlink File is Open in the Video Tool
+      final File hyperlinkFile = _videoToolController.getHyperlinkFile();
+      if(!EHypermediaTab.VIDEO_TOOL.equals(_selectedTab) || hyperlinkFile.getName().isEmpty())
+      {
+         return;
+      }
+
+      // Name the Export after the Hyperlink File
+      _saveFileChooser.setInitialFileName(FilenameUtils.getBaseName(hyperlinkFile.getName()) + HyperlinkRepository.JSON_EXTENSION);
+
+      // Null Check Export File
+      final File exportFile = _saveFileChooser.showSaveDialog(_stage);
+      if(exportFile != null)
+      {
+         // Write out Hyperlink Information to the Export File
+         _videoToolController.exportDataToFile(exportFile);
+      }
+   }
+
    /**
     * setCurrentVideoToolFile - Sets the Current Video Tool File
     *
@@ -414,6 +451,16 @@ public class HomePageController extends AbstractController
       return _currentVideoPlayerFile;
    }
 
+   /**
+    * getHyperlinkRepository - Gets the Repository of Hyperlink Files
+    *
+    * @return HyperlinkRepository
+    */
+   public HyperlinkRepository getHyperlinkRepository()
+   {
+      return _hyperlinkRepository;
+   }
+
    /**
     * handleVideoToolButtonSelection - Handles the Selection of
     *                                  the Video Tool Toggle Button
@@ -554,6 +601,20 @@ public class HomePageController extends AbstractController
       });
    }
 
+   /**
+    * handleExportSelection - Handles the Selection of
+    *                         the Export Menu Item
+    */
+   private void handleExportSelection()
+   {
+      // Process Selection of the Export Menu Item
+      _exportMenuItem.setOnAction(event ->
+      {
+         // Export the Hyperlink File
+         exportHyperlinkFile();
+      });
+   }
+
    /**
     * handleExitSelection - Handles the Selection of the Exit
     *                       Menu Item
@@ -564,10 +625,31 @@ public class HomePageController extends AbstractController
       _exitMenuItem.setOnAction(event ->
       {
          // Exit Application
-         System.exit(0);
+         exitApplication();
       });
    }
 
+   /**
+    * exitApplication - Exits the Application once every Save
+    *                   of the Video Tool is Written to Disk
+    */
+   public void exitApplication()
+   {
+      // Report a Save still in Progress
+      if(_videoToolController.isSaving())
+      {
+         _videoToolController.showSavingState();
+      }
+
+      // Finish the Saves off the Display Thread (so it can Show the State), then Exit
+      Thread exitThread = new Thread(() ->
+      {
+         _videoToolController.flushSaves();
+         System.exit(0);
+      }, "hyperlink-exit");
+      exitThread.start();
+   }
+
    /**
     * importPrimaryVideoSelection - Handles the Selection of the
     *                               Import Primary Video Selection
@@ -623,8 +705,8 @@ public class HomePageController extends AbstractController
       _saveFileChooser = new FileChooser();
 
       // Determine the Type of Extension we want on our file
-      FileChooser.ExtensionFilter extFilter = new FileChooser.ExtensionFilter("JSON files (*.json)", "*.json");
-      _saveFileChooser.getExtensionFilters().add(extFilter);
+      _saveFileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("JSON files (*.json)", "*.json"));
+      _saveFileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Binary hyperlink files (*.hlb)", "*.hlb"));
 
       // Set Path to Hyperlink Save Files
       _saveFileChooser.setInitialDirectory(_desktopPath);
@@ -642,7 +724,7 @@ public class HomePageController extends AbstractController
       _hyperlinkFileChooser.setTitle("Import Hyperlink Video File");
 
       // Determine the Type of Extension we want on our file
-      FileChooser.ExtensionFilter extFilter = new FileChooser.ExtensionFilter("JSON files (*.json)", "*.json");
+      FileChooser.ExtensionFilter extFilter = new FileChooser.ExtensionFilter("Hyperlink files (*.hlb, *.json)", "*.hlb", "*.json");
       _hyperlinkFileChooser.getExtensionFilters().add(extFilter);
 
       // Set Path to Hyperlink Files
@@ -651,77 +733,33 @@ public class HomePageController extends AbstractController
 
    /**
     * uploadDataFromFile - Reads in Data from Hyperlink File
+    *
+    * @param file - The Hyperlink File
+    * @return ArrayList<Link> - Empty if the File could not be Read
     */
    private ArrayList<Link> uploadDataFromFile(final File file)
    {
       // Initialize List of links
       ArrayList<Link> linkData = new ArrayList<Link>();
 
-      // Initialize JSON Parser
-      JSONParser parser = new JSONParser();
-
-      try 
+      try
       {
-         Object obj = parser.parse(new FileReader(file));
-         JSONObject jsonObject = (JSONObject) obj;
-         Iterator<String> names = jsonObject.keySet().iterator();
+         // Load the Links (Parsed only if the File is not Cached or has Changed)
+         linkData = _hyperlinkRepository.load(file);
 
-         // Iterate over all the Links
-         while(names.hasNext())
+         // Let the Links Enable Saving once Edited
+         for(Link link : linkData)
          {
-            // Get all information about each link including toVideo, fromVideo, and frame numbers.
-            String name = names.next();
-            JSONObject linkInfo = (JSONObject) jsonObject.get(name);
-            String toVideo = (String) linkInfo.get("toVideo");
-            String fromVideo = (String) linkInfo.get("fromVideo");
-            int startFrame = ((Long) linkInfo.get("startFrame")).intValue();
-            int endFrame = ((Long) linkInfo.get("endFrame")).intValue();
-            int toFrame = ((Long) linkInfo.get("toFrame")).intValue();
-
-            // Get info about the bouding box coordinates for each frame in the link.
-            JSONObject frameInfo = (JSONObject) linkInfo.get("boxInfo");
-            Iterator<String> frames = frameInfo.keySet().iterator();
-            HashMap<Integer, ArrayList<Double>> framePoints = new HashMap<Integer, ArrayList<Double>>();
-            while (frames.hasNext())
-            {
-               String frame = (String) frames.next();
-               JSONArray pointInfo = (JSONArray) frameInfo.get(frame);
-               
-               Iterator points = pointInfo.iterator();
-               ArrayList<Double> pList = new ArrayList<Double>();
-
-               // Iterate over the Points
-               while (points.hasNext())
-               {
-                  pList.add((Double) points.next());
-               }
-
-               framePoints.put(Integer.parseInt(frame), pList);
-            }
-
-            // Reconstruct links given the information retrieved from the file and add them to the list data structure.
-            Link link = new Link(name, startFrame, endFrame, startFrame, fromVideo, toVideo, toFrame, framePoints);
             link.setVideoToolController(_videoToolController);
-            linkData.add(link);
          }
-      } 
-      catch (FileNotFoundException e)
-      {
-         // Log Error
-         e.printStackTrace();
       }
       catch (IOException e)
       {
          // Log Error
          e.printStackTrace();
       }
-      catch (ParseException e)
-      {
-         // Log Error
-         e.printStackTrace();
-      }
 
-      // Return a list of all the links that hve been constructed.
+      // Return a list of all the links that have been constructed.
       return linkData;
    }
 }
\ No newline at end of file
@@ -1,29 +1,69 @@
 package controllers;
 
-import java.awt.image.BufferedImage;
-import java.io.DataInputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
 import java.lang.ProcessBuilder.Redirect;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicReference;
-
-import javax.imageio.ImageIO;
-
-import javafx.application.Platform;
-import javafx.concurrent.Task;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import conversion.ConversionJob;
+import conversion.ConversionManifest;
+import conversion.ConversionPipeline;
+import conversion.ConversionProgress;
+import conversion.FfmpegProgressReader;
+import conversion.FramePool;
+import conversion.FrameStoreWriter;
+import conversion.ImageFrameConverter;
+import conversion.MjpegAviWriter;
+import conversion.RawFrameConverter;
+import conversion.RgbFrameReader;
+import conversion.ThumbnailSheetWriter;
+import conversion.VideoSegment;
+import conversion.interfaces.IFrameReadListener;
+import data.FrameGeometry;
+import data.FrameStore;
+import data.ThumbnailIndex;
+import enums.EConversionMode;
+import enums.EIntermediateCodec;
+import enums.EJobStatus;
+import enums.ERawPixelFormat;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressBar;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.DirectoryChooser;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 /**
  * Mp4ConversionController - Controls the User Interaction on the
@@ -34,12 +74,30 @@ public class MP4ConverterController extends AbstractController
    @FXML
    private Button _selectFolderButton;
 
+   @FXML
+   private CheckBox _frameStoreCheckBox;
+
    @FXML
    private ProgressBar _fileConversionProgressBar;
 
    @FXML
    private Label _conversionLabel;
 
+   @FXML
+   private Label _conversionRateLabel;
+
+   @FXML
+   private TableView<ConversionJob> _jobTableView;
+
+   @FXML
+   private TableColumn<ConversionJob, String> _jobFolderColumn;
+
+   @FXML
+   private TableColumn<ConversionJob, String> _jobStatusColumn;
+
+   @FXML
+   private TableColumn<ConversionJob, String> _jobProgressColumn;
+
    /** FXML filename associated with this Controller */
    private static final String FXML_NAME = "Mp4Converter.fxml";
 
@@ -52,28 +110,113 @@ public class MP4ConverterController extends AbstractController
    /** Path to the Desktop */
    private File _desktopPath;
 
-   /** Width/Height of Video */
-   private static int VIDEO_WIDTH = 352;
-   private static int VIDEO_HEIGHT = 288;
+   /** Frame Rate of the Generated Video */
+   private static final int FPS = 30;
+
+   /** Path to the ffmpeg Executable (null when ffmpeg is not Installed) */
+   private static final String FFMPEG = locateFfmpeg();
+
+   /** Option that Passes Frame Timestamps through (-fps_mode from ffmpeg 5.1, -vsync before) */
+   private static final String VFR_OPTION = locateVfrOption();
+
+   /** How Converted Frames are handed to ffmpeg (MJPEG_AVI is used whenever ffmpeg is Missing) */
+   private static final EConversionMode CONVERSION_MODE = EConversionMode.SEGMENTED_PIPE;
+
+   /** Pixel Format Frames are Streamed to ffmpeg's rawvideo Input in (yuv420p is Converted here, at half the Bytes of rgb24) */
+   private static final ERawPixelFormat RAW_PIXEL_FORMAT = ERawPixelFormat.YUV420P;
+
+   /** Image Format Frames are Written in for ffmpeg's Image Sequence Input */
+   private static final EIntermediateCodec INTERMEDIATE_CODEC = EIntermediateCodec.JPEG;
+
+   /** Quality of JPEG Frames, both Intermediates and Motion-JPEG AVI Frames (0 to 1) */
+   private static final float JPEG_QUALITY = 0.9f;
+
+   /** Whether JPEG Frames Subsample Chroma (4:2:0) rather than keep it at full Resolution (4:4:4) */
+   private static final boolean JPEG_CHROMA_SUBSAMPLING = true;
+
+   /** Compression Quality of PNG Frames (0.75 is Deflate Level 2, Fast with most of the Gain) */
+   private static final float PNG_QUALITY = 0.75f;
+
+   /** Number of Frames in a GOP (Segments start on GOP Boundaries) */
+   private static final int GOP_SIZE = FPS * 2;
+
+   /** Maximum Number of ffmpeg Processes Encoding Segments at once */
+   private static final int MAX_SEGMENTS = 4;
+
+   /** Minimum Number of Frames worth Encoding as a separate Segment */
+   private static final int MIN_SEGMENT_FRAMES = GOP_SIZE * 10;
 
-   /** Number of Frames */
-   private static int FRAMES = 9000;
+   /** Name of the List of Segments handed to ffmpeg's concat Demuxer */
+   private static final String SEGMENT_LIST_NAME = "segments.txt";
 
-   /** Current Conversion Frame Number  */
-   private AtomicReference<Double> _frameNum;
+   /** Suffix of the List of Images (with their Durations) handed to ffmpeg's concat Demuxer */
+   private static final String IMAGE_LIST_SUFFIX = ".images.txt";
 
-   /** Selected Folder for MP4 Conversion */
-   private File _selectedFolder;
+   /** Number of Frames between Scrub Thumbnails */
+   private static final int THUMBNAIL_INTERVAL = FPS / 3;
 
-   /** Executor Service for Creating jpegs */
-   ExecutorService _jpegService;
+   /** Number of Frames in a Chunk of the Frame Store */
+   private static final int FRAME_STORE_CHUNK_FRAMES = 8;
 
-   /** Task for Making MP4 Video */
-   Task _videoTask;
+   /** Whether Chunks of the Frame Store are Deflated */
+   private static final boolean FRAME_STORE_DEFLATE = true;
 
-   /** Create Threads for making JPEGS */
-   Runnable _t1, _t2, _t3, _t4, _t5, _t6, _t7, _t8;
-   Runnable _t9, _t10, _t11, _t12, _t13, _t14, _t15, _t16, _t17, _t18;
+   /** Whether Runs of Identical Frames are Converted once (Image Sequences and AVIs hold them as one longer Frame) */
+   private static final boolean COLLAPSE_DUPLICATE_FRAMES = true;
+
+   /** Suffix of the Folder the Segments of a Video are kept in (for Resuming) */
+   private static final String SEGMENT_FOLDER_SUFFIX = ".segments";
+
+   /** Suffix of the Manifest Recording which Segments are Done */
+   private static final String MANIFEST_SUFFIX = ".mp4.manifest";
+
+   /** Number of Frames in flight at once across every Pipeline (bounds Peak Memory) */
+   private static final int FRAMES_IN_FLIGHT = 64;
+
+   /** Whether Frames are Read ahead of each Pipeline, one Virtual Thread per Read (hides the Latency of Network Folders) */
+   private static final boolean VIRTUAL_THREAD_READS = true;
+
+   /** Maximum Number of Frame Reads Outstanding per Pipeline */
+   private static final int OUTSTANDING_READS = 16;
+
+   /** Number of Convert Workers shared by every Running Job */
+   private static final int CONVERT_WORKERS = Runtime.getRuntime().availableProcessors();
+
+   /** Maximum Number of Jobs Converting at once (the rest wait in the Queue) */
+   private static final int MAX_CONCURRENT_JOBS = 2;
+
+   /** How often the Progress Bar is Refreshed (ms) */
+   private static final double PROGRESS_REFRESH_MS = 250;
+
+   /** Jobs in the Conversion Queue */
+   private final ObservableList<ConversionJob> _jobData;
+
+   /** Refreshes the Displayed Progress while Jobs are Running */
+   private final Timeline _progressRefresh;
+
+   /** Work-Stealing Pool for Tiling large Frames (sized to the available cores) */
+   private final ForkJoinPool _conversionPool;
+
+   /** Threads that Drive each Job (Dispatching Frames and Running ffmpeg) */
+   private final ExecutorService _jobDrivers;
+
+   /** Threads that Drive the ffmpeg Process of each Segment */
+   private final ExecutorService _segmentDrivers;
+
+   /** Threads the Read and Convert Stages of the Pipelines run on */
+   private final ExecutorService _stageThreads;
+
+   /** Threads the Frames are Read on ahead of the Read Stages (null to Read on the Read Stages) */
+   private final ExecutorService _readThreads;
+
+   /** Frames shared by every Pipeline */
+   private final FramePool _framePool;
+
+   /** Convert Stage for Frames Streamed to ffmpeg */
+   private final RawFrameConverter _rawConverter;
+
+   /** Convert Stage for Frames Written as Images, one per Codec (JPEG also Compresses Motion-JPEG AVI Frames) */
+   private final Map<EIntermediateCodec, ImageFrameConverter> _imageConverters;
 
    /**
     * Constructor
@@ -99,444 +242,1121 @@ public class MP4ConverterController extends AbstractController
       _selectFolderChooser.setTitle("Select (.rgb) Folder");
       _selectFolderChooser.setInitialDirectory(_desktopPath);
 
-      // Initialize the Frame Number
-      _frameNum = new AtomicReference<Double>(0.0);
-
-      // Initialize Selected Folder
-      _selectedFolder = new File("");
+      // Initialize the Conversion Queue
+      _jobData = FXCollections.observableArrayList();
+      initializeJobTable();
 
-      // Hide conversion Label
+      // Hide conversion Labels
       _conversionLabel.setVisible(false);
+      _conversionRateLabel.setVisible(false);
+
+      // Initialize Work-Stealing Pool with one Worker per Core
+      _conversionPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+      // Initialize the Job Drivers (Daemon so they never hold the Application open)
+      _jobDrivers = Executors.newFixedThreadPool(MAX_CONCURRENT_JOBS, runnable ->
+      {
+         Thread thread = new Thread(runnable, "mp4-conversion");
+         thread.setDaemon(true);
+         return thread;
+      });
+
+      // Initialize the Segment Drivers
+      _segmentDrivers = Executors.newFixedThreadPool(MAX_SEGMENTS, runnable ->
+      {
+         Thread thread = new Thread(runnable, "mp4-segment");
+         thread.setDaemon(true);
+         return thread;
+      });
+
+      // Initialize the Pipeline Stage Threads
+      _stageThreads = Executors.newCachedThreadPool(runnable ->
+      {
+         Thread thread = new Thread(runnable, "mp4-stage");
+         thread.setDaemon(true);
+         return thread;
+      });
 
-      // Initialize Threads
-      initializeTheads();
+      // Initialize the Read Threads
+      _readThreads = VIRTUAL_THREAD_READS ? createReadThreads() : null;
 
-      // Initialize Java Executor Service
-      _jpegService = Executors.newCachedThreadPool();
+      // Allocate the Frames in flight up Front
+      _framePool = new FramePool(FRAMES_IN_FLIGHT, FrameGeometry.CIF.getFrameBytes());
+
+      // Initialize the Convert Stages (Large Frames are Tiled on the Work-Stealing Pool)
+      _rawConverter = new RawFrameConverter(_conversionPool, RAW_PIXEL_FORMAT);
+      _imageConverters = new EnumMap<EIntermediateCodec, ImageFrameConverter>(EIntermediateCodec.class);
+      _imageConverters.put(EIntermediateCodec.JPEG, new ImageFrameConverter(EIntermediateCodec.JPEG, JPEG_QUALITY, JPEG_CHROMA_SUBSAMPLING));
+      _imageConverters.put(EIntermediateCodec.PNG, new ImageFrameConverter(EIntermediateCodec.PNG, PNG_QUALITY, false));
+      _imageConverters.put(EIntermediateCodec.PPM, new ImageFrameConverter(EIntermediateCodec.PPM, 1.0f, false));
+
+      // Refresh the Progress at a Throttled Rate
+      _progressRefresh = new Timeline(new KeyFrame(Duration.millis(PROGRESS_REFRESH_MS), event ->
+      {
+         refreshJobs();
+      }));
+      _progressRefresh.setCycleCount(Animation.INDEFINITE);
    }
 
    /**
-    * initializeThreads - Initializes the Threads
-    *                     to create the JPEGS
+    * initializeJobTable - Binds the Conversion Queue to the Job Table
     */
-   private void initializeTheads()
+   private void initializeJobTable()
    {
-      // Initialize new Runnable
-      _t1 = new Runnable()
+      // Set up Table
+      _jobTableView.setItems(_jobData);
+      _jobTableView.getSelectionModel().setSelectionMode(SelectionMode.SINGLE);
+      _jobTableView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+
+      // Set up Columns
+      _jobFolderColumn.setCellValueFactory(new PropertyValueFactory<ConversionJob, String>("folderName"));
+      _jobStatusColumn.setCellValueFactory(new PropertyValueFactory<ConversionJob, String>("statusText"));
+      _jobProgressColumn.setCellValueFactory(new PropertyValueFactory<ConversionJob, String>("percentComplete"));
+
+      // Show the Progress of the Selected Job
+      _jobTableView.getSelectionModel().selectedItemProperty().addListener((observable, oldJob, newJob) ->
       {
-         @Override
-         public void run() 
-         {
-            convertImages(1, 500);
-         }
-      };
+         displayProgress();
+      });
+   }
 
-      _t2 = new Runnable()
+   /**
+    * handleSelectFolderButton - Handles The Button Selection
+    *                            of the Select Folder Button
+    */
+   private void handleSelectFolderButton()
+   {
+      // Select Folder Button
+      _selectFolderButton.setOnAction(event ->
       {
-         @Override
-         public void run() 
+         // Display the Select Folder Chooser Dialog
+         final File rgbFolder = _selectFolderChooser.showDialog(_primaryStage);
+
+         // Null Check Folder Selection
+         if(rgbFolder != null)
          {
-            convertImages(501, 1000);
+            // Queue the Folder, or every Folder of Frames inside it
+            if(!queueFolder(rgbFolder) && !queueSubFolders(rgbFolder))
+            {
+               // Update Conversion Label
+               StringBuilder builder = new StringBuilder();
+               builder.append("No (.rgb) Frames found in ");
+               builder.append(rgbFolder.getName());
+               _conversionLabel.setText(builder.toString());
+               _conversionLabel.setVisible(true);
+            }
          }
-      };
+      });
+   }
 
-      _t3 = new Runnable()
+   /**
+    * queueSubFolders - Queues every Sub-Folder which holds (.rgb) Frames
+    *
+    * @param parentFolder - Folder holding the (.rgb) Folders
+    * @return boolean - True if any Folder was Queued
+    */
+   private boolean queueSubFolders(final File parentFolder)
+   {
+      // Get the Sub-Folders
+      final File[] folders = parentFolder.listFiles(File::isDirectory);
+
+      // Null Check Sub-Folders
+      if(folders == null)
       {
-         @Override
-         public void run() 
-         {
-            convertImages(1001, 1500);
-         }
-      };
+         return false;
+      }
 
-      _t4 = new Runnable()
+      // Queue the Folders in Name Order
+      Arrays.sort(folders);
+      boolean queued = false;
+      for(File folder : folders)
       {
-         @Override
-         public void run() 
-         {
-            convertImages(1501, 2000);
-         }
-      };
+         queued |= queueFolder(folder);
+      }
+
+      return queued;
+   }
+
+   /**
+    * queueFolder - Adds a Folder of (.rgb) Frames to the Conversion Queue
+    *
+    * @param rgbFolder - The Folder of (.rgb) Files
+    * @return boolean - True if the Folder holds Frames and was Queued
+    */
+   private boolean queueFolder(final File rgbFolder)
+   {
+      // Determine the Number of Frames in the Folder
+      final int frameCount = countFrames(rgbFolder);
 
-      _t5 = new Runnable()
+      // Skip Folders without Frames
+      if(frameCount <= 0)
       {
-         @Override
-         public void run() 
-         {
-            convertImages(2001, 2500);
-         }
-      };
+         return false;
+      }
 
-      _t6 = new Runnable()
+      // Determine the Geometry of the Frames
+      final FrameGeometry geometry;
+      try
       {
-         @Override
-         public void run() 
-         {
-            convertImages(2501, 3000);
-         }
-      };
+         geometry = RgbFrameReader.detectGeometry(rgbFolder, frameCount);
+      }
+      catch (IOException e)
+      {
+         // Update Conversion Label
+         _conversionLabel.setText(e.getMessage());
+         _conversionLabel.setVisible(true);
+         return true;
+      }
 
-      _t7 = new Runnable()
+      // Add the Job to the Queue
+      final ConversionJob job = new ConversionJob(rgbFolder, frameCount, geometry, _frameStoreCheckBox.isSelected());
+      _jobData.add(job);
+
+      // Show the Job if nothing else is Shown
+      if(_jobTableView.getSelectionModel().isEmpty())
       {
-         @Override
-         public void run() 
-         {
-            convertImages(3001, 3500);
-         }
-      };
+         _jobTableView.getSelectionModel().select(job);
+      }
 
-      _t8 = new Runnable()
+      // Run the Job once a Driver is Free
+      CompletableFuture.runAsync(() -> runJob(job), _jobDrivers).whenComplete((result, error) ->
       {
-         @Override
-         public void run() 
+         // Check if Conversion Failed
+         if(error != null)
          {
-            convertImages(3501, 4000);
+            // Log Error
+            error.printStackTrace();
          }
-      };
 
-      _t9 = new Runnable()
+         // Record the Result
+         job.setStatus((error == null) ? EJobStatus.DONE : EJobStatus.FAILED);
+      });
+
+      // Start Refreshing the Progress
+      _progressRefresh.play();
+
+      return true;
+   }
+
+   /**
+    * runJob - Converts the Folder of a Job to MP4
+    *
+    * @param job - The Job
+    */
+   private void runJob(final ConversionJob job)
+   {
+      // Get Folder, Frame Count, Geometry and Progress of the Job
+      final File rgbFolder = job.getRgbFolder();
+      final int frameCount = job.getFrameCount();
+      final FrameGeometry geometry = job.getGeometry();
+      final ConversionProgress progress = job.getProgress();
+
+      // Start the Job
+      job.setStatus(EJobStatus.CONVERTING);
+      progress.start();
+
+      // Each Job gets its Share of the Convert Workers
+      final int convertWorkers = Math.max(1, CONVERT_WORKERS / MAX_CONCURRENT_JOBS);
+
+      // Fall back to the In-Process Writer without ffmpeg
+      final EConversionMode mode = (FFMPEG == null) ? EConversionMode.MJPEG_AVI : CONVERSION_MODE;
+
+      // Scrub Thumbnails and the Frame Store are kept beside the Video (named after the Folder whatever the Container)
+      final File video = new File(rgbFolder, rgbFolder.getName() + ".mp4");
+      final File thumbnailFolder = ThumbnailIndex.folderFor(video);
+      FrameStoreWriter frameStore = null;
+
+      try(ThumbnailSheetWriter thumbnails = new ThumbnailSheetWriter(thumbnailFolder, frameCount, geometry, THUMBNAIL_INTERVAL))
       {
-         @Override
-         public void run() 
+         // Every Pipeline hands the Frames it Reads to the Thumbnails and the Frame Store
+         final List<IFrameReadListener> readListeners = new ArrayList<IFrameReadListener>();
+         readListeners.add(thumbnails);
+         if(job.isWritingFrameStore())
          {
-            convertImages(4001, 4500);
+            frameStore = new FrameStoreWriter(FrameStore.fileFor(video), rgbFolder, frameCount, geometry,
+                                              FRAME_STORE_CHUNK_FRAMES, FRAME_STORE_DEFLATE);
+            readListeners.add(frameStore);
          }
-      };
 
-      _t10 = new Runnable()
-      {
-         @Override
-         public void run() 
+         if(mode == EConversionMode.MJPEG_AVI)
          {
-            convertImages(4501, 5000);
+            // Compress the Frames in Parallel and Write them into an AVI
+            writeAvi(rgbFolder, frameCount, geometry, convertWorkers, readListeners, progress);
          }
-      };
-
-      _t11 = new Runnable()
-      {
-         @Override
-         public void run() 
+         else if(mode == EConversionMode.SEGMENTED_PIPE)
          {
-            convertImages(5001, 5500);
+            // Convert the Frames and Stream them into Parallel ffmpeg Segments
+            segmentVideo(rgbFolder, frameCount, geometry, convertWorkers, readListeners, progress);
          }
-      };
-
-      _t12 = new Runnable()
-      {
-         @Override
-         public void run() 
+         else if(mode == EConversionMode.RAW_PIPE)
          {
-            convertImages(5501, 6000);
+            // Convert the Frames and Stream them into ffmpeg
+            streamVideo(rgbFolder, frameCount, geometry, convertWorkers, readListeners, progress);
          }
-      };
-
-      _t13 = new Runnable()
-      {
-         @Override
-         public void run() 
+         else
          {
-            convertImages(6001, 6500);
+            // Write every Frame as an Image and Encode the Image Sequence
+            generateVideo(rgbFolder, frameCount, geometry, convertWorkers, INTERMEDIATE_CODEC, readListeners, progress);
          }
-      };
 
-      _t14 = new Runnable()
+         // Complete the Frame Store (Segments Reused from an earlier Conversion were not Read)
+         if(frameStore != null)
+         {
+            frameStore.finish();
+         }
+      }
+      catch (IOException e)
       {
-         @Override
-         public void run() 
+         throw new UncheckedIOException(e);
+      }
+      catch (InterruptedException e)
+      {
+         throw new CompletionException(e);
+      }
+      finally
+      {
+         // Leave the earlier Frame Store in place if the Conversion Failed
+         if(frameStore != null)
          {
-            convertImages(6501, 7000);
+            frameStore.discard();
          }
-      };
+      }
+   }
+
+   /**
+    * refreshJobs - Updates the Job Table and the Displayed Progress,
+    *               Stopping the Refresh once every Job has Finished
+    */
+   private void refreshJobs()
+   {
+      // Update the Status/Progress Columns
+      _jobTableView.refresh();
+      displayProgress();
 
-      _t15 = new Runnable()
+      // Check for a Running Job
+      for(ConversionJob job : _jobData)
       {
-         @Override
-         public void run() 
+         if(!job.getStatus().isFinished())
          {
-            convertImages(7001, 7500);
+            return;
          }
-      };
+      }
+
+      // Nothing left to Refresh
+      _progressRefresh.stop();
+   }
 
-      _t16 = new Runnable()
+   /**
+    * displayProgress - Updates the Conversion Label, Progress Bar and
+    *                   Frame Rate Label for the Selected Job
+    */
+   private void displayProgress()
+   {
+      // Get Selected Job
+      final ConversionJob job = _jobTableView.getSelectionModel().getSelectedItem();
+
+      // Null Check Job
+      if(job == null)
       {
-         @Override
-         public void run() 
+         return;
+      }
+
+      // Get Progress of the Job
+      final ConversionProgress progress = job.getProgress();
+
+      // Update Conversion Label
+      StringBuilder builder = new StringBuilder();
+      switch(job.getStatus())
+      {
+         case QUEUED:
+            builder.append(job.getFolderName());
+            builder.append(" is Queued");
+            break;
+         case CONVERTING:
+            builder.append("Converting ");
+            builder.append(job.getFolderName());
+            builder.append(" to MP4");
+            break;
+         case DONE:
+            builder.append("Successful Conversion of ");
+            builder.append(job.getFolderName());
+            builder.append(" to MP4");
+            break;
+         case FAILED:
+            builder.append("Conversion of ");
+            builder.append(job.getFolderName());
+            builder.append(" Failed");
+            break;
+      }
+      _conversionLabel.setText(builder.toString());
+      _conversionLabel.setVisible(true);
+
+      // Update Progress Bar (ffmpeg may Drop Frames past the End of the Audio)
+      _fileConversionProgressBar.setProgress((job.getStatus() == EJobStatus.DONE) ? 1.0 : progress.getProgress());
+
+      // Get Estimated Time Remaining
+      final long remaining = Math.round(progress.getRemainingSeconds());
+
+      // Update Frame Rate Label
+      builder = new StringBuilder();
+      builder.append(progress.getConvertedFrames());
+      builder.append(" / ");
+      builder.append(progress.getTotalFrames());
+      builder.append(" frames   ");
+      builder.append(job.getGeometry());
+
+      // Only show Rates while the Job is Converting
+      if(job.getStatus() == EJobStatus.CONVERTING)
+      {
+         builder.append("   ");
+         builder.append(String.format("%.1f", progress.getFramesPerSecond()));
+         builder.append(" fps");
+
+         // Only show ETA once there is an Estimate
+         if(remaining >= 0)
          {
-            convertImages(7501, 8000);
+            builder.append("   ETA ");
+            builder.append(String.format("%d:%02d", remaining / 60, remaining % 60));
          }
-      };
 
-      _t17 = new Runnable()
+         // Show where Frames are Waiting in the Pipelines
+         builder.append("   read queue ");
+         builder.append(progress.getReadQueueDepth());
+         builder.append("   encode queue ");
+         builder.append(progress.getEncodeQueueDepth());
+      }
+
+      // Show how many Frames were Collapsed
+      if(progress.getDuplicateFrames() > 0)
+      {
+         builder.append("   duplicates ");
+         builder.append(progress.getDuplicateFrames());
+      }
+
+      // Frames in flight are shared by every Job
+      builder.append("   in flight ");
+      builder.append(_framePool.getFramesInFlight());
+      builder.append(" / ");
+      builder.append(_framePool.getCapacity());
+
+      // Show the Throughput of every Image Codec used so far
+      for(ImageFrameConverter converter : _imageConverters.values())
       {
-         @Override
-         public void run() 
+         if(converter.getThroughput().getFrames() > 0)
          {
-            convertImages(8001, 8500);
+            builder.append("   ");
+            builder.append(converter.getCodec().getExtension());
+            builder.append(String.format(" %.0f fps/worker %d KB", converter.getThroughput().getFramesPerSecond(),
+                                         converter.getThroughput().getAverageFrameBytes() / 1024));
          }
-      };
+      }
+
+      _conversionRateLabel.setText(builder.toString());
+      _conversionRateLabel.setVisible(true);
+   }
 
-      _t18 = new Runnable()
+   /**
+    * countFrames - Determines the Number of Frames in the Folder
+    *               from the highest numbered (.rgb) File
+    *
+    * @param rgbFolder - The Folder of (.rgb) Files
+    * @return int
+    */
+   private int countFrames(final File rgbFolder)
+   {
+      // Initialize Frame Count
+      int frameCount = 0;
+
+      // Frame Files are named <Folder Name><Frame Number>.rgb
+      final Pattern framePattern = Pattern.compile(Pattern.quote(rgbFolder.getName()) + "(\\d+)\\.rgb");
+
+      // Get the Files in the Folder
+      final String[] fileNames = rgbFolder.list();
+
+      // Null Check File Names
+      if(fileNames != null)
       {
-         @Override
-         public void run() 
+         // Iterate over the Files in the Folder
+         for(String fileName : fileNames)
          {
-            convertImages(8501, 9000);
+            // Check if File is a Frame
+            Matcher matcher = framePattern.matcher(fileName);
+            if(matcher.matches())
+            {
+               // Keep the Highest Frame Number
+               frameCount = Math.max(frameCount, Integer.parseInt(matcher.group(1)));
+            }
          }
-      };
+      }
+
+      return frameCount;
    }
 
    /**
-    * handleSelectFolderButton - Handles The Button Selection
-    *                            of the Select Folder Button
+    * writeImages - Converts the (.rgb) Frames to Images through the Pipeline.
+    *               Frames are Encoded in Parallel by the Convert Stage (each
+    *               Worker reusing its own Writer) and Written to Disk in Order.
+    *               Only Distinct Frames are Written; the Image List gives each
+    *               one the Duration of the Run of Frames it stands for
+    *
+    * @param rgbFolder - The Folder of (.rgb) Files
+    * @param frameCount - The Number of Frames in the Folder
+    * @param geometry - Geometry of the Frames
+    * @param convertWorkers - Number of Convert Stage Workers
+    * @param codec - Image Format of the Frames
+    * @param imageList - File to write the List of Images to
+    * @param readListeners - Receive the Frames Read (Scrub Thumbnails and Frame Store)
+    * @param progress - Progress of the Conversion
     */
-   private void handleSelectFolderButton()
+   private void writeImages(final File rgbFolder, final int frameCount, final FrameGeometry geometry, final int convertWorkers,
+                            final EIntermediateCodec codec, final File imageList, final List<IFrameReadListener> readListeners, final ConversionProgress progress) throws IOException, InterruptedException
    {
-      // Select Folder Button
-      _selectFolderButton.setOnAction(event ->
+      // Build the Pipeline
+      final ConversionPipeline pipeline = new ConversionPipeline(rgbFolder, 1, frameCount, geometry,
+                                                                 _framePool, convertWorkers, _stageThreads,
+                                                                 _imageConverters.get(codec), progress);
+      pipeline.setCollapseDuplicates(COLLAPSE_DUPLICATE_FRAMES);
+      pipeline.setReadExecutor(_readThreads, OUTSTANDING_READS);
+      pipeline.addReadListeners(readListeners);
+
+      try(PrintWriter writer = new PrintWriter(imageList, StandardCharsets.UTF_8.name()))
       {
-         // Display the Select Folder Chooser Dialog
-         final File rgbFolder = _selectFolderChooser.showDialog(_primaryStage);
+         // Last Image Written
+         final File[] lastImage = new File[1];
 
-         // Null Check Folder Selection
-         if(rgbFolder != null)
+         // Write out every Distinct Frame (Missing Frames are Black, so the Sequence has no Gaps)
+         pipeline.run(frame ->
          {
-            // Update Selected Folder
-            _selectedFolder = rgbFolder;
-
-            // Update Conversion Label
-            StringBuilder builder = new StringBuilder();
-            builder.append("Converting ");
-            builder.append(rgbFolder.getName());
-            builder.append(" to MP4");
-            _conversionLabel.setText(builder.toString());
-            _conversionLabel.setVisible(true);
+            final File image = imageFile(rgbFolder, frame.getFrameNum(), codec);
+            try(OutputStream output = Files.newOutputStream(image.toPath()))
+            {
+               frame.getEncoded().writeTo(output);
+            }
 
-            // Restart Executor Service
-            _jpegService = Executors.newCachedThreadPool();
+            // List the Image for as long as its Run of Frames lasts
+            writer.println(concatEntry(image));
+            writer.println(String.format(Locale.ROOT, "duration %.6f", (double) frame.getRepeatCount() / FPS));
+            lastImage[0] = image;
+         });
 
-            // Initialize the Generate Video Task
-            Task t = new Task<Void>()
-            {
-               @Override
-               protected Void call() throws Exception
-               {
-                  // Null Check RGB Folder
-                  if(_selectedFolder != null)
-                  {
-                     // Kick off Image Creating Threads
-                     _jpegService.execute(_t1); _jpegService.execute(_t2);
-                     _jpegService.execute(_t3); _jpegService.execute(_t4);
-                     _jpegService.execute(_t5); _jpegService.execute(_t6);
-                     _jpegService.execute(_t7); _jpegService.execute(_t8);
-                     _jpegService.execute(_t9); _jpegService.execute(_t10);
-                     _jpegService.execute(_t11); _jpegService.execute(_t12);
-                     _jpegService.execute(_t13); _jpegService.execute(_t14);
-                     _jpegService.execute(_t15); _jpegService.execute(_t16);
-                     _jpegService.execute(_t17); _jpegService.execute(_t18);
-
-                     // Shutdown Executor
-                     _jpegService.shutdown();
-
-                     // Await Termination of Image Generating Threads
-                     while(!_jpegService.isTerminated()){}
-
-                     // Update Progress
-                     updateProgress(7200, 9000);
-
-                     // Generate the Video
-                     generateVideo();
-
-                     // Update Progress
-                     updateProgress(9000, 9000);
-                  }
-                  return null;
-               }
-            };
-
-            // Update the Progress Bar (up to 80%)
-            _fileConversionProgressBar.progressProperty().bind(t.progressProperty());
-
-            // Start Video Task
-            Thread thread = new Thread(t);
-            thread.start();
+         // The concat Demuxer only keeps the Duration of the Last Image if it is Listed again
+         if(lastImage[0] != null)
+         {
+            writer.println(concatEntry(lastImage[0]));
          }
-      });
+      }
    }
 
    /**
-    * convertImages
+    * streamVideo - Converts the Folder of ".rgb" Frames straight into ffmpeg's
+    *               stdin as rawvideo, which Encodes them together with the
+    *               ".wav" Audio
+    *
+    * @param rgbFolder - The Folder of (.rgb) Files
+    * @param frameCount - The Number of Frames in the Folder
+    * @param geometry - Geometry of the Frames
+    * @param convertWorkers - Number of Convert Stage Workers
+    * @param readListeners - Receive the Frames Read (Scrub Thumbnails and Frame Store)
+    * @param progress - Progress of the Conversion
     */
-   private void convertImages(final int startFrame, final int endFrame)
+   private void streamVideo(final File rgbFolder, final int frameCount, final FrameGeometry geometry, final int convertWorkers,
+                            final List<IFrameReadListener> readListeners, final ConversionProgress progress) throws IOException, InterruptedException
    {
-      // Create BufferedImage
-      BufferedImage img;
-
-      // Get Name of Folder
-      final File rgbFolder = _selectedFolder;
+      // Format Command
+      List<String> params = new ArrayList<String>(rawVideoInput(geometry));
+      params.addAll(audioInput(rgbFolder));
+      params.add(new File(rgbFolder, rgbFolder.getName() + ".mp4").getAbsolutePath());
 
-      // Get Folder Path
-      StringBuilder path = new StringBuilder();
-      path.append(rgbFolder.getAbsolutePath());
-      String folderPath = path.toString();
+      // Start ffmpeg reading Raw Frames from stdin (Frames leave Encoded and Muxed at once)
+      Process p = startFfmpeg(rgbFolder, params, frames ->
+      {
+         progress.framesEncoded(frames);
+         progress.framesMuxed(frames);
+      });
 
-      // Iterate over specified frames
-      for (int i = startFrame; i <= endFrame; i++)
+      // Write out every Frame in Order
+      try(OutputStream ffmpegInput = p.getOutputStream())
       {
-         // Set the File Number
-         double num = _frameNum.get() + 1.0;
-         _frameNum.set(num);
+         streamFrames(rgbFolder, 1, frameCount, geometry, convertWorkers, null, ffmpegInput, readListeners, progress);
+      }
 
-         // Get RGB File Name String
-         String fileName = folderPath + "/" + rgbFolder.getName() + String.format("%04d", i) + ".rgb";
+      // Wait for ffmpeg to finish Encoding
+      finishEncoder(rgbFolder, p);
+   }
 
-         // Create RGB File Object
-         File file = new File(fileName);
+   /**
+    * segmentVideo - Splits the Frames into GOP Aligned Segments, Encodes the
+    *                Segments in concurrent ffmpeg Processes fed from the
+    *                Conversion Pool, then Joins them with the ".wav" Audio
+    *                using the concat Demuxer (the Video is not Re-Encoded).
+    *                Segments are kept with a Manifest of their Source Frames,
+    *                so a Rerun only Re-Encodes Segments whose Frames Changed
+    *
+    * @param rgbFolder - The Folder of (.rgb) Files
+    * @param frameCount - The Number of Frames in the Folder
+    * @param geometry - Geometry of the Frames
+    * @param convertWorkers - Number of Convert Stage Workers given to the Job
+    * @param readListeners - Receive the Frames Read (Scrub Thumbnails and Frame Store)
+    * @param progress - Progress of the Conversion
+    */
+   private void segmentVideo(final File rgbFolder, final int frameCount, final FrameGeometry geometry, final int convertWorkers,
+                             final List<IFrameReadListener> readListeners, final ConversionProgress progress) throws IOException, InterruptedException
+   {
+      // Get Output, Manifest and Audio Files
+      final File outputFile = new File(rgbFolder, rgbFolder.getName() + ".mp4");
+      final File manifestFile = new File(rgbFolder, rgbFolder.getName() + MANIFEST_SUFFIX);
+      final File audioFile = new File(rgbFolder, rgbFolder.getName() + ".wav");
+
+      // Get Folder the Segments are kept in
+      final File segmentFolder = new File(rgbFolder, rgbFolder.getName() + SEGMENT_FOLDER_SUFFIX);
+      if(!segmentFolder.isDirectory() && !segmentFolder.mkdirs())
+      {
+         throw new IOException("Could not create " + segmentFolder.getName());
+      }
 
-         // Create Byte Array for (.rgb) Image Data
-         int length = (int) file.length();
-         byte[] imageData = new byte[length];
+      // Split the Frames into Segments
+      final List<VideoSegment> segments = VideoSegment.plan(segmentFolder, frameCount, GOP_SIZE, MAX_SEGMENTS, MIN_SEGMENT_FRAMES);
 
-         try 
-         {
-            DataInputStream dstream = new DataInputStream(new FileInputStream(file));
+      // Load the Manifest of any earlier Conversion
+      final ConversionManifest manifest = ConversionManifest.load(manifestFile, encoderSettings(geometry), frameCount, segments.size());
 
-            dstream.readFully(imageData);
-            dstream.close();
-         }
-         catch (FileNotFoundException e)
+      // Find the Segments that must be Encoded
+      final List<VideoSegment> dirtySegments = new ArrayList<VideoSegment>();
+      final ByteBuffer scratch = ByteBuffer.allocateDirect(geometry.getFrameBytes());
+      for(VideoSegment segment : segments)
+      {
+         // Check if the Segment can be Reused
+         if(manifest.isSegmentClean(rgbFolder, segment, scratch))
          {
-            return;
-         } 
-         catch (IOException e)
+            // Count the Frames of the Reused Segment
+            progress.framesConverted(segment.getFrameCount());
+            progress.framesEncoded(segment.getFrameCount());
+         }
+         else
          {
-            e.printStackTrace();
+            manifest.setSegmentDone(segment.getIndex(), false);
+            dirtySegments.add(segment);
          }
+      }
 
-         int [][][] rgb_vals = new int[VIDEO_HEIGHT][VIDEO_WIDTH][3];
+      // Check if the Video is already Up to Date
+      if(dirtySegments.isEmpty() && manifest.isComplete() && outputFile.isFile() && manifest.isAudioClean(audioFile))
+      {
+         progress.framesMuxed(frameCount);
+         return;
+      }
 
-         img = new BufferedImage(VIDEO_WIDTH, VIDEO_HEIGHT, BufferedImage.TYPE_INT_RGB);
+      // Checkpoint the Dirty Segments before Encoding
+      manifest.setComplete(false);
+      manifest.save(manifestFile);
 
-         // Iterate over Y Pixels
-         for(int y = 0; y < VIDEO_HEIGHT; y++)
+      // Share the Job's Convert Workers between the Dirty Segments
+      final int segmentWorkers = Math.max(1, convertWorkers / Math.max(1, dirtySegments.size()));
+
+      // Encode every Dirty Segment at once
+      List<CompletableFuture<Void>> encodes = new ArrayList<CompletableFuture<Void>>();
+      for(VideoSegment segment : dirtySegments)
+      {
+         encodes.add(CompletableFuture.runAsync(() ->
          {
-            // Iterate over X Pixels
-            for(int x = 0; x < VIDEO_WIDTH; x++)
+            // Encode the Segment
+            encodeSegment(rgbFolder, segment, geometry, segmentWorkers, manifest, readListeners, progress);
+
+            try
+            {
+               // Checkpoint the Segment
+               manifest.setSegmentDone(segment.getIndex(), true);
+               manifest.save(manifestFile);
+            }
+            catch (IOException e)
             {
-               // Read in Red Pixel Value
-               byte r = imageData[y * VIDEO_WIDTH + x];
-               rgb_vals[y][x][0] = r & 0xff;
+               throw new UncheckedIOException(e);
+            }
+         }, _segmentDrivers));
+      }
 
-               // Read in Green Pixel Value
-               byte g = imageData[y * VIDEO_WIDTH + x + VIDEO_WIDTH*VIDEO_HEIGHT];
-               rgb_vals[y][x][1] = g & 0xff;
+      // Wait for all Segments to be Encoded
+      CompletableFuture.allOf(encodes.toArray(new CompletableFuture<?>[0])).join();
 
-               // Read in Blue Pixel Value
-               byte b = imageData[y * VIDEO_WIDTH + x + 2*VIDEO_WIDTH*VIDEO_HEIGHT];
-               rgb_vals[y][x][2] = b & 0xff;
+      // List of Segments for the concat Demuxer
+      final File segmentList = new File(segmentFolder, SEGMENT_LIST_NAME);
 
-               // Create Pixel Value
-               int pix = 0xff000000 | ((r & 0xff) << 16) | ((g & 0xff) << 8) | (b & 0xff);
+      try
+      {
+         // Join the Segments
+         concatSegments(rgbFolder, segments, segmentList, progress);
+      }
+      finally
+      {
+         segmentList.delete();
+      }
 
-               // Set Pixel Value in Buffered Image
-               img.setRGB(x,y,pix);
-            }
-         }
+      // Checkpoint the Finished Video
+      manifest.recordAudio(audioFile);
+      manifest.setComplete(true);
+      manifest.save(manifestFile);
+   }
+
+   /**
+    * encoderSettings - Describes the Settings Segments are Encoded with.
+    *                   Segments Encoded with other Settings are not Reused
+    *
+    * @param geometry - Geometry of the Frames
+    * @return String
+    */
+   private String encoderSettings(final FrameGeometry geometry)
+   {
+      return geometry + " " + FPS + "fps gop " + GOP_SIZE
+           + " segments " + MAX_SEGMENTS + "/" + MIN_SEGMENT_FRAMES;
+   }
+
+   /**
+    * encodeSegment - Streams the Frames of one Segment into its own ffmpeg Process
+    *
+    * @param rgbFolder - The Folder of (.rgb) Files
+    * @param segment - The Segment to Encode
+    * @param geometry - Geometry of the Frames
+    * @param convertWorkers - Number of Convert Stage Workers
+    * @param manifest - Manifest the Source Frames are Recorded in
+    * @param readListeners - Receive the Frames Read (Scrub Thumbnails and Frame Store)
+    * @param progress - Progress of the Conversion
+    */
+   private void encodeSegment(final File rgbFolder, final VideoSegment segment, final FrameGeometry geometry, final int convertWorkers,
+                              final ConversionManifest manifest, final List<IFrameReadListener> readListeners, final ConversionProgress progress)
+   {
+      // Format Command (Video Only, fixed GOP so Segments Join on GOP Boundaries)
+      List<String> params = new ArrayList<String>(rawVideoInput(geometry));
+      params.addAll(Arrays.asList("-an", "-g", String.valueOf(GOP_SIZE), "-keyint_min", String.valueOf(GOP_SIZE)));
+      params.add(segment.getFile().getAbsolutePath());
 
-         // Generate output JPEG File
-         String s = file.getName();
-         int position = s.lastIndexOf(".");
-         s = s.substring(0, position);
-         File outputfile = new File(rgbFolder + "/" + s + ".jpg");
+      try
+      {
+         // Start ffmpeg for the Segment
+         Process p = startFfmpeg(rgbFolder, params, progress::framesEncoded);
 
-         try 
+         // Write out the Frames of the Segment in Order
+         try(OutputStream ffmpegInput = p.getOutputStream())
          {
-            // Write out JPEG File
-            ImageIO.write(img, "jpg", outputfile);
-         } 
-         catch (IOException e) 
+            streamFrames(rgbFolder, segment.getFirstFrame(), segment.getLastFrame(), geometry, convertWorkers, manifest, ffmpegInput, readListeners, progress);
+         }
+
+         // Check that the Segment was Encoded
+         if(p.waitFor() != 0)
          {
-            e.printStackTrace();
+            throw new IOException("ffmpeg failed to encode " + segment.getFile().getName());
          }
       }
+      catch (IOException e)
+      {
+         throw new UncheckedIOException(e);
+      }
+      catch (InterruptedException e)
+      {
+         throw new CompletionException(e);
+      }
+   }
+
+   /**
+    * concatSegments - Joins the Encoded Segments and the ".wav" Audio
+    *                  into the final ".mp4" File
+    *
+    * @param rgbFolder - The Folder of (.rgb) Files
+    * @param segments - The Encoded Segments
+    * @param segmentList - File to write the List of Segments to
+    * @param progress - Progress of the Conversion
+    */
+   private void concatSegments(final File rgbFolder, final List<VideoSegment> segments, final File segmentList, final ConversionProgress progress) throws IOException, InterruptedException
+   {
+      // Write the List of Segments
+      try(PrintWriter writer = new PrintWriter(segmentList, StandardCharsets.UTF_8.name()))
+      {
+         for(VideoSegment segment : segments)
+         {
+            writer.println(concatEntry(segment.getFile()));
+         }
+      }
+
+      // Format Command (Copy the Video, Encode the Audio)
+      List<String> params = new ArrayList<String>(Arrays.asList("-f", "concat", "-safe", "0", "-i", segmentList.getAbsolutePath()));
+      params.addAll(audioInput(rgbFolder));
+      params.addAll(Arrays.asList("-c:v", "copy"));
+      params.add(new File(rgbFolder, rgbFolder.getName() + ".mp4").getAbsolutePath());
+
+      // Join the Segments
+      Process p = startFfmpeg(rgbFolder, params, progress::framesMuxed);
+      finishEncoder(rgbFolder, p);
+   }
+
+   /**
+    * concatEntry - Gets the Line of a concat Demuxer List naming a File
+    *
+    * @param file - The File
+    * @return String
+    */
+   private String concatEntry(final File file)
+   {
+      // Quote the Path for the concat Demuxer
+      return "file '" + file.getAbsolutePath().replace("'", "'\\''") + "'";
+   }
+
+   /**
+    * streamFrames - Streams a Range of Frames through a Read, Convert and
+    *                Encode Pipeline and Writes them to the Output in Frame
+    *                Order. Every Frame in flight comes from the shared Frame
+    *                Pool, which keeps Memory bounded
+    *
+    * @param rgbFolder - The Folder of (.rgb) Files
+    * @param firstFrame - The First Frame to Write
+    * @param lastFrame - The Last Frame to Write
+    * @param geometry - Geometry of the Frames
+    * @param convertWorkers - Number of Convert Stage Workers
+    * @param manifest - Manifest the Source Frames are Recorded in (null to Record nothing)
+    * @param output - Stream the Frames are Written to
+    * @param readListeners - Receive the Frames Read (Scrub Thumbnails and Frame Store)
+    * @param progress - Progress of the Conversion
+    */
+   private void streamFrames(final File rgbFolder, final int firstFrame, final int lastFrame, final FrameGeometry geometry,
+                             final int convertWorkers, final ConversionManifest manifest, final OutputStream output,
+                             final List<IFrameReadListener> readListeners, final ConversionProgress progress) throws IOException, InterruptedException
+   {
+      // Build the Pipeline
+      final ConversionPipeline pipeline = new ConversionPipeline(rgbFolder, firstFrame, lastFrame, geometry,
+                                                                 _framePool, convertWorkers, _stageThreads,
+                                                                 _rawConverter, progress);
+      pipeline.setManifest(manifest);
+      pipeline.setCollapseDuplicates(COLLAPSE_DUPLICATE_FRAMES);
+      pipeline.setReadExecutor(_readThreads, OUTSTANDING_READS);
+      pipeline.addReadListeners(readListeners);
+
+      // Write out every Frame in Order
+      pipeline.run(output);
+   }
+
+   /**
+    * writeAvi - Converts the Folder of ".rgb" Frames and the ".wav" Audio
+    *            into a Motion-JPEG ".avi" File without ffmpeg. Frames are
+    *            Compressed in Parallel by the Convert Stage and Written in
+    *            Order, with the Audio Interleaved, by this Thread
+    *
+    * @param rgbFolder - The Folder of (.rgb) Files
+    * @param frameCount - The Number of Frames in the Folder
+    * @param geometry - Geometry of the Frames
+    * @param convertWorkers - Number of Convert Stage Workers
+    * @param readListeners - Receive the Frames Read (Scrub Thumbnails and Frame Store)
+    * @param progress - Progress of the Conversion
+    */
+   private void writeAvi(final File rgbFolder, final int frameCount, final FrameGeometry geometry, final int convertWorkers,
+                         final List<IFrameReadListener> readListeners, final ConversionProgress progress) throws IOException, InterruptedException
+   {
+      // Get Output and Audio Files
+      final File outputFile = new File(rgbFolder, rgbFolder.getName() + ".avi");
+      final File audioFile = new File(rgbFolder, rgbFolder.getName() + ".wav");
+
+      // Open the AVI (with the Audio if the Folder has any)
+      try(MjpegAviWriter writer = new MjpegAviWriter(outputFile, geometry, FPS, audioFile.isFile() ? audioFile : null))
+      {
+         // Build the Pipeline
+         final ConversionPipeline pipeline = new ConversionPipeline(rgbFolder, 1, frameCount, geometry,
+                                                                    _framePool, convertWorkers, _stageThreads,
+                                                                    _imageConverters.get(EIntermediateCodec.JPEG), progress);
+         pipeline.setCollapseDuplicates(COLLAPSE_DUPLICATE_FRAMES);
+         pipeline.setReadExecutor(_readThreads, OUTSTANDING_READS);
+         pipeline.addReadListeners(readListeners);
+
+         // Write out every Frame in Order, Repeats as empty Chunks (Frames leave Encoded and Muxed at once)
+         pipeline.run(frame ->
+         {
+            writer.writeFrame(frame.getEncoded(), frame.getRepeatCount());
+            progress.framesEncoded(frame.getRepeatCount());
+            progress.framesMuxed(frame.getRepeatCount());
+         });
+      }
    }
 
    /**
-    * generateVideo - Converts the Folder of ".jpg" images and a ".wav"
-    *                 image into a usable ".mp4" file
+    * generateVideo - Converts the Folder of ".rgb" Frames to Images, then
+    *                 Encodes the Images and the ".wav" Audio into a usable
+    *                 ".mp4" file
+    *
+    * @param rgbFolder - The Folder of (.rgb) Files
+    * @param frameCount - The Number of Frames in the Folder
+    * @param geometry - Geometry of the Frames
+    * @param convertWorkers - Number of Convert Stage Workers
+    * @param codec - Image Format of the Intermediate Frames
+    * @param readListeners - Receive the Frames Read (Scrub Thumbnails and Frame Store)
+    * @param progress - Progress of the Conversion
     */
-   private void generateVideo()
+   private void generateVideo(final File rgbFolder, final int frameCount, final FrameGeometry geometry, final int convertWorkers,
+                              final EIntermediateCodec codec, final List<IFrameReadListener> readListeners, final ConversionProgress progress) throws IOException, InterruptedException
    {
       // Get Folder Name
-      final File rgbFolder = _selectedFolder;
-      final String folderName = _selectedFolder.getName();
-
-      // Command Strings
-      String ffmpeg = "C:\\Program Files\\ffmpeg\\bin\\ffmpeg";
-      String filePath = rgbFolder.getAbsolutePath() + "\\" + folderName + "%04d.jpg ";
-      String audioPath = rgbFolder.getAbsolutePath() + "\\" + folderName + ".wav";
-      String tempVideoPath = rgbFolder.getAbsolutePath() + "\\" + "tempVideo.mp4";
-      String videoPath = rgbFolder.getAbsolutePath() + "\\" + folderName + ".mp4";
-
-      // Format Commands
-      List<String> videoParams = Arrays.asList(ffmpeg, "-f", "image2", "-r", "30", "-i", filePath, tempVideoPath);
-      List<String> audioParams = Arrays.asList(ffmpeg, "-i", tempVideoPath, "-i", audioPath, "-vcodec",  "copy", "-shortest", videoPath);
-
-      try 
-      {
-         // Output the Video File (Images Only)
-         ProcessBuilder pb = new ProcessBuilder(videoParams);
-         pb.directory(rgbFolder);
-         pb.redirectOutput(Redirect.INHERIT);
-         pb.redirectError(Redirect.INHERIT);
-         Process p = pb.start();
-         p.waitFor();
+      final String folderName = rgbFolder.getName();
 
-         // Output the Video File with Audio (Audio Added)
-         ProcessBuilder pb2 = new ProcessBuilder(audioParams);
-         pb2.directory(rgbFolder);
-         pb2.redirectOutput(Redirect.INHERIT);
-         pb2.redirectError(Redirect.INHERIT);
-         Process p2 = pb2.start();
-         p2.waitFor();
+      // List of Images for the concat Demuxer
+      final File imageList = new File(rgbFolder, folderName + IMAGE_LIST_SUFFIX);
 
-         // Delete the JPEG Files
-         deleteJpeg(rgbFolder);
+      try
+      {
+         // Write every Distinct Frame as an Image
+         writeImages(rgbFolder, frameCount, geometry, convertWorkers, codec, imageList, readListeners, progress);
+
+         // Format Command (Image List and Audio, one Output Frame per Image so Static Runs cost nothing)
+         List<String> params = new ArrayList<String>(Arrays.asList("-f", "concat", "-safe", "0", "-i", imageList.getAbsolutePath()));
+         params.addAll(audioInput(rgbFolder));
+         params.addAll(Arrays.asList(VFR_OPTION, "vfr"));
+         params.add(new File(rgbFolder, folderName + ".mp4").getAbsolutePath());
 
-         // OffLoad to Display Thread
-         Platform.runLater(() ->
+         // Output the Video File (Frames leave Encoded and Muxed at once)
+         Process p = startFfmpeg(rgbFolder, params, frames ->
          {
-            // Update Conversion Label
-            StringBuilder builder = new StringBuilder();
-            builder.append("Successful Conversion of ");
-            builder.append(rgbFolder.getName());
-            builder.append(" to MP4");
-            _conversionLabel.setText(builder.toString());
+            progress.framesEncoded(frames);
+            progress.framesMuxed(frames);
          });
-      } 
-      catch (IOException e) 
+         finishEncoder(rgbFolder, p);
+      }
+      finally
+      {
+         // Delete the Image Files
+         deleteImages(rgbFolder, frameCount, codec);
+         imageList.delete();
+      }
+   }
+
+   /**
+    * rawVideoInput - Gets the ffmpeg Arguments for reading
+    *                 Raw Frames from stdin
+    *
+    * @param geometry - Geometry of the Frames
+    * @return List<String>
+    */
+   private List<String> rawVideoInput(final FrameGeometry geometry)
+   {
+      return Arrays.asList("-f", "rawvideo", "-pix_fmt", RAW_PIXEL_FORMAT.getFfmpegName(),
+                           "-s", geometry.toString(), "-r", String.valueOf(FPS),
+                           "-i", "-");
+   }
+
+   /**
+    * audioInput - Gets the ffmpeg Arguments for adding the Folder's
+    *              ".wav" Audio, if the Folder has any
+    *
+    * @param rgbFolder - The Folder of (.rgb) Files
+    * @return List<String>
+    */
+   private List<String> audioInput(final File rgbFolder)
+   {
+      // Get Audio File
+      final File audioFile = new File(rgbFolder, rgbFolder.getName() + ".wav");
+
+      // Check if the Folder has Audio
+      if(audioFile.exists())
+      {
+         // Add the Audio Input (Stop at the Shorter of the Two)
+         return Arrays.asList("-i", audioFile.getAbsolutePath(), "-shortest");
+      }
+
+      return new ArrayList<String>();
+   }
+
+   /**
+    * startFfmpeg - Starts an ffmpeg Process which Reports its
+    *               Progress on stdout
+    *
+    * @param rgbFolder - The Folder of (.rgb) Files
+    * @param params - ffmpeg Inputs, Options and Output
+    * @param frameListener - Receives the Number of newly Written Frames
+    * @return Process
+    */
+   private Process startFfmpeg(final File rgbFolder, final List<String> params, final LongConsumer frameListener) throws IOException
+   {
+      // Check that ffmpeg is Installed
+      if(FFMPEG == null)
+      {
+         throw new IOException("ffmpeg was not found");
+      }
+
+      // Format Command
+      List<String> command = new ArrayList<String>(Arrays.asList(FFMPEG, "-y", "-nostats", "-progress", "pipe:1"));
+      command.addAll(params);
+
+      // Start ffmpeg (Progress Report on stdout)
+      ProcessBuilder pb = new ProcessBuilder(command);
+      pb.directory(rgbFolder);
+      pb.redirectError(Redirect.INHERIT);
+      Process p = pb.start();
+
+      // Read the Progress Report
+      new FfmpegProgressReader(p.getInputStream(), frameListener).start();
+
+      return p;
+   }
+
+   /**
+    * createReadThreads - Creates the Threads Frames are Read on: a Virtual
+    *                     Thread per Read where the JDK has them (21+), else
+    *                     enough Daemon Threads for every Outstanding Read
+    *
+    * @return ExecutorService
+    */
+   private static ExecutorService createReadThreads()
+   {
+      try
       {
+         // Look up Virtual Threads (so the Tool still runs on older JDKs)
+         return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      }
+      catch (ReflectiveOperationException e)
+      {
+         // Outstanding Reads are bounded by the Frames in flight
+         return Executors.newFixedThreadPool(Math.min(FRAMES_IN_FLIGHT, OUTSTANDING_READS * MAX_CONCURRENT_JOBS), runnable ->
+         {
+            Thread thread = new Thread(runnable, "mp4-read");
+            thread.setDaemon(true);
+            return thread;
+         });
+      }
+   }
+
+   /**
+    * locateFfmpeg - Finds the ffmpeg Executable. The ffmpeg.path Property
+    *                (or FFMPEG_PATH Variable) wins, then the default Windows
+    *                Install, then every Directory on the PATH
+    *
+    * @return String - Path to ffmpeg, or null if it is not Installed
+    */
+   private static String locateFfmpeg()
+   {
+      // Initialize Candidate Locations
+      final List<String> candidates = new ArrayList<String>();
+
+      // Check for an explicit Location
+      final String configured = System.getProperty("ffmpeg.path", System.getenv("FFMPEG_PATH"));
+      if(configured != null)
+      {
+         candidates.add(configured);
+      }
+
+      // Add the default Windows Install
+      candidates.add("C:\\Program Files\\ffmpeg\\bin\\ffmpeg.exe");
+
+      // Add every Directory on the PATH
+      final String path = System.getenv("PATH");
+      if(path != null)
+      {
+         for(String directory : path.split(Pattern.quote(File.pathSeparator)))
+         {
+            candidates.add(new File(directory, "ffmpeg").getPath());
+            candidates.add(new File(directory, "ffmpeg.exe").getPath());
+         }
+      }
+
+      // Use the first Executable found
+      for(String candidate : candidates)
+      {
+         final File file = new File(candidate);
+         if(file.isFile() && file.canExecute())
+         {
+            return file.getAbsolutePath();
+         }
+      }
+
+      return null;
+   }
+
+   /**
+    * locateVfrOption - Finds the Option the Installed ffmpeg takes to Pass
+    *                   Frame Timestamps through: -fps_mode from ffmpeg 5.1
+    *                   (and Git Builds), -vsync for older Releases
+    *
+    * @return String
+    */
+   private static String locateVfrOption()
+   {
+      // Nothing to Probe without ffmpeg
+      if(FFMPEG == null)
+      {
+         return "-fps_mode";
+      }
+
+      try
+      {
+         // Read the Version Line (ffmpeg version 4.4.2-... or ffmpeg version N-109421-g...)
+         final Process p = new ProcessBuilder(FFMPEG, "-version").redirectErrorStream(true).start();
+         final String output;
+         try(InputStream in = p.getInputStream())
+         {
+            output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+         }
+         p.waitFor();
+
+         // Releases older than 5.1 only know -vsync
+         final Matcher release = Pattern.compile("ffmpeg version n?(\\d+)\\.(\\d+)").matcher(output);
+         if(release.find())
+         {
+            final int major = Integer.parseInt(release.group(1));
+            final int minor = Integer.parseInt(release.group(2));
+            return (major > 5 || (major == 5 && minor >= 1)) ? "-fps_mode" : "-vsync";
+         }
+      }
+      catch (IOException e)
+      {
+         // Log Error
          e.printStackTrace();
-      } 
+      }
       catch (InterruptedException e)
       {
-         e.printStackTrace();
+         Thread.currentThread().interrupt();
       }
+
+      // Git Builds (and Unknown Versions) are Current
+      return "-fps_mode";
    }
 
    /**
-    * deleteJpeg - Deletes the JPEG Files
-    *              in the Specified Folder
+    * finishEncoder - Waits for ffmpeg to Exit and Checks the Result
+    *
+    * @param rgbFolder - The Folder of (.rgb) Files
+    * @param p - The ffmpeg Process
+    * @throws IOException - If ffmpeg did not Write the Video
+    * @throws InterruptedException
     */
-   private void deleteJpeg(final File folder)
+   private void finishEncoder(final File rgbFolder, final Process p) throws IOException, InterruptedException
    {
-      // Iterate over all the JPEG Files
-      for(int i =1; i <= FRAMES; i++)
+      // Check that the Video was Written Successfully
+      if(p.waitFor() != 0)
       {
-         // Get JPEG Filename
-         String filename = folder + "\\" + folder.getName() + String.format("%04d", i) + ".jpg";
+         throw new IOException("ffmpeg failed to convert " + rgbFolder.getName());
+      }
+   }
+
+   /**
+    * imageFile - Gets the Image File a Frame is Written to
+    *
+    * @param folder - The Folder of (.rgb) Files
+    * @param frameNum - The Frame Number
+    * @param codec - Image Format of the Frame
+    * @return File
+    */
+   private File imageFile(final File folder, final int frameNum, final EIntermediateCodec codec)
+   {
+      return new File(folder, folder.getName() + String.format("%04d", frameNum) + "." + codec.getExtension());
+   }
 
-         // Get JPEG File
-         File file = new File(filename);
+   /**
+    * deleteImages - Deletes the Image Files
+    *                in the Specified Folder
+    *
+    * @param folder - The Folder containing the Image Files
+    * @param frameCount - The Number of Frames in the Folder
+    * @param codec - Image Format of the Files
+    */
+   private void deleteImages(final File folder, final int frameCount, final EIntermediateCodec codec)
+   {
+      // Iterate over all the Image Files
+      for(int i =1; i <= frameCount; i++)
+      {
+         // Get Image Filename
+         File file = imageFile(folder, i, codec);
 
          // Check that file exists
          if(file.exists())
@@ -14,6 +14,7 @@ import javafx.stage.Stage;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import data.HyperlinkRepository;
 import data.Link;
 import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
@@ -24,6 +25,7 @@ import javafx.scene.media.MediaPlayer;
 import javafx.scene.media.MediaView;
 import javafx.util.Duration;
 import util.PolygonUtil;
+import util.SliderThumbnailPreview;
 import javafx.event.EventHandler;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.MouseEvent;
@@ -31,15 +33,7 @@ import data.Point;
 import java.util.List;
 
 import org.apache.commons.io.FilenameUtils;
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
 import java.io.IOException;
-import java.io.FileNotFoundException;
-import java.util.Iterator;
-import java.util.HashMap;
-import java.io.FileReader;
 
 /**
  * VideoPlayerController - Controls the User Interaction on the
@@ -110,6 +104,9 @@ public class VideoPlayerController extends AbstractController
    /** Primary Video File */
    private File _video;
 
+   /** Scrub Thumbnail Preview of the Video Slider */
+   private SliderThumbnailPreview _thumbnailPreview;
+
    /** Primary Video Media Player */
    private MediaPlayer _mediaPlayer;
 
@@ -169,6 +166,9 @@ public class VideoPlayerController extends AbstractController
       handleOpenVideoButton();
       handleSlider();
       handleProgress();
+
+      // Initialize Scrub Thumbnail Preview
+      _thumbnailPreview = new SliderThumbnailPreview(_videoSlider);
       _linkData = FXCollections.observableArrayList();
 
       // Initialize Slider States
@@ -262,6 +262,7 @@ public class VideoPlayerController extends AbstractController
       // Update the Primary Video
       _video = primaryVideo;
       _videoView.setVisible(true);
+      _thumbnailPreview.setVideo(primaryVideo);
 
       // Update Button States
       _playButton.setDisable(false);
@@ -724,11 +725,8 @@ public class VideoPlayerController extends AbstractController
                // Get the Video Name of the To Video
                String videoName = FilenameUtils.getBaseName(_video.getName());
 
-               // Format File Path to Video's Metadata File
-               String filePath = _hyperlinkFilePath + "/" + videoName + ".json";
-
-               // Create new Hyperlink File
-               final File hyperlinkFile = new File(filePath);
+               // Get the Video's Hyperlink File (Binary unless it only has a JSON File)
+               final File hyperlinkFile = HyperlinkRepository.fileFor(_hyperlinkFilePath, videoName);
 
                // Clear Previous Link DAta
                _linkData.clear();
@@ -755,74 +753,27 @@ public class VideoPlayerController extends AbstractController
 
    /**
     * uploadDataFromFile - Reads in Data from Hyperlink File
+    *
+    * @param file - The Hyperlink File
+    * @return ArrayList<Link> - Empty if the File could not be Read
     */
    private ArrayList<Link> uploadDataFromFile(final File file)
    {
       // Initialize List of links
       ArrayList<Link> linkData = new ArrayList<Link>();
 
-      // Initialize JSON Parser
-      JSONParser parser = new JSONParser();
-
-      try 
-      {
-         Object obj = parser.parse(new FileReader(file));
-         JSONObject jsonObject = (JSONObject) obj;
-         Iterator<String> names = jsonObject.keySet().iterator();
-
-         // Iterate over all the Links
-         while(names.hasNext())
-         {
-            // Get all information about each link including toVideo, fromVideo, and frame numbers.
-            String name = names.next();
-            JSONObject linkInfo = (JSONObject) jsonObject.get(name);
-            String toVideo = (String) linkInfo.get("toVideo");
-            String fromVideo = (String) linkInfo.get("fromVideo");
-            int startFrame = ((Long) linkInfo.get("startFrame")).intValue();
-            int endFrame = ((Long) linkInfo.get("endFrame")).intValue();
-            int toFrame = ((Long) linkInfo.get("toFrame")).intValue();
-
-            // Get info about the bouding box coordinates for each frame in the link.
-            JSONObject frameInfo = (JSONObject) linkInfo.get("boxInfo");
-            Iterator<String> frames = frameInfo.keySet().iterator();
-            HashMap<Integer, ArrayList<Double>> framePoints = new HashMap<Integer, ArrayList<Double>>();
-            while (frames.hasNext())
-            {
-               String frame = (String) frames.next();
-               JSONArray pointInfo = (JSONArray) frameInfo.get(frame);
-
-               Iterator points = pointInfo.iterator();
-               ArrayList<Double> pList = new ArrayList<Double>();
-
-               // Iterate over the Points
-               while (points.hasNext())
-               {
-                  pList.add((Double) points.next());
-               }
-
-               framePoints.put(Integer.parseInt(frame), pList);
-            }
-            // Reconstruct links given the information retrieved from the file and add them to the list data structure.
-            Link now = new Link(name, startFrame, endFrame, startFrame, fromVideo, toVideo, toFrame, framePoints);
-            linkData.add(now);
-         }
-      } 
-      catch (FileNotFoundException e)
+      try
       {
-         // Log Error
-         e.printStackTrace();
+         // Load the Links (Parsed only if the File is not Cached or has Changed)
+         linkData = _homePageController.getHyperlinkRepository().load(file);
       }
       catch (IOException e)
       {
          // Log Error
          e.printStackTrace();
       }
-      catch (ParseException e)
-      {
-         // Log Error
-         e.printStackTrace();
-      }
-      // Return a list of all the links that hve been constructed.
+
+      // Return a list of all the links that have been constructed.
       return linkData;
    }
 }
\ No newline at end of file
@@ -2,15 +2,23 @@ package controllers;
 
 import java.io.File;
 import java.util.ArrayList;
-
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import data.HyperlinkRepository;
 import data.Link;
-import data.Point;
+import data.LinkRecord;
 import dialogs.ErrorDialog;
 import dialogs.ImportVideoDialog;
 import dialogs.LinkCreationDialog;
 import dialogs.SaveDialog;
 import dialogs.interfaces.IDialog;
 import enums.EFontAwesome;
+import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.ObjectBinding;
 import javafx.beans.value.ChangeListener;
@@ -41,16 +49,11 @@ import javafx.stage.Stage;
 import javafx.util.Duration;
 import javafx.util.converter.IntegerStringConverter;
 import util.PolygonUtil;
+import util.FrameStoreView;
+import util.SliderThumbnailPreview;
 
 import org.apache.commons.io.FilenameUtils;
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import java.io.FileWriter;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonParser;
 import java.io.IOException;
-import com.google.gson.JsonElement;
 
 /**
  * VideoToolController - Controls the User Interaction on the
@@ -64,6 +67,9 @@ public class VideoToolController extends AbstractController
    @FXML
    private MediaView _primaryVideoView;
 
+   @FXML
+   private Pane _secondaryVideoPane;
+
    @FXML
    private MediaView _secondaryVideoView;
 
@@ -130,6 +136,12 @@ public class VideoToolController extends AbstractController
    /** The Start Frame of the Videos */
    private static final int MIN_FRAME = 1;
 
+   /** Whether Hyperlink Files are Indented for Reading (Compact Files Save Faster) */
+   private static final boolean PRETTY_PRINT_HYPERLINK_FILES = false;
+
+   /** ToolTip of the Save Button (while no Save is being Written) */
+   private static final String SAVE_TOOLTIP = "Save Button";
+
    /** Home Page Controller */
    private HomePageController _homePageController;
 
@@ -148,6 +160,14 @@ public class VideoToolController extends AbstractController
    /** Secondary Video Media Player */
    private MediaPlayer _secondaryMediaPlayer;
 
+   /** Scrub Thumbnail Previews of the Primary/Secondary Slider */
+   private SliderThumbnailPreview _primaryThumbnailPreview;
+   private SliderThumbnailPreview _secondaryThumbnailPreview;
+
+   /** Exact Frames of the Primary/Secondary Video (over the Media Views) */
+   private FrameStoreView _primaryFrameView;
+   private FrameStoreView _secondaryFrameView;
+
    /** Dialog Window for Link Creation */
    private LinkCreationDialog _linkCreationDialog;
 
@@ -181,6 +201,15 @@ public class VideoToolController extends AbstractController
    /** Path to Hyperlink Files on a System's Computer */
    private File _hyperlinkFilePath;
 
+   /** Thread Hyperlink Files are Written on (off the Display Thread) */
+   private final ExecutorService _saveThread;
+
+   /** Latest Save waiting for the Save Thread (null if there is none) */
+   private final AtomicReference<PendingSave> _pendingSave;
+
+   /** Whether the Save Thread is Writing a Save */
+   private volatile boolean _isWriting;
+
    /**
     * Constructor
     *
@@ -208,6 +237,15 @@ public class VideoToolController extends AbstractController
       _saveDialog = new SaveDialog(primaryStage, homePageController, loader);
       _errorDialog = new ErrorDialog(primaryStage, loader);
 
+      // Initialize the Save Thread
+      _saveThread = Executors.newSingleThreadExecutor(runnable ->
+      {
+         Thread thread = new Thread(runnable, "hyperlink-save");
+         thread.setDaemon(true);
+         return thread;
+      });
+      _pendingSave = new AtomicReference<PendingSave>();
+
       // Initialize Video Files to be null
       _primaryVideo = new File("");
       _secondaryVideo = new File("");
@@ -225,7 +263,7 @@ public class VideoToolController extends AbstractController
 
       // Create ToolTips for Buttons
       Tooltip importVideoTooltip = new Tooltip("Import Video Button");
-      Tooltip saveToolTip = new Tooltip("Save Button");
+      Tooltip saveToolTip = new Tooltip(SAVE_TOOLTIP);
       Tooltip createLinkToolTip = new Tooltip("Create Link Button");
       Tooltip deleteLinkToolTip = new Tooltip("Delete Link Button");
       Tooltip importFileTooltip = new Tooltip("Import Hyperlink File Button");
@@ -268,6 +306,16 @@ public class VideoToolController extends AbstractController
       handlePrimarySlider();
       handleSecondarySlider();
 
+      // Initialize Scrub Thumbnail Previews
+      _primaryThumbnailPreview = new SliderThumbnailPreview(_primaryVideoSlider);
+      _secondaryThumbnailPreview = new SliderThumbnailPreview(_secondaryVideoSlider);
+
+      // Initialize Exact Frame Views over the Media Views
+      _primaryFrameView = new FrameStoreView();
+      _primaryVideoPane.getChildren().add(_primaryFrameView);
+      _secondaryFrameView = new FrameStoreView();
+      _secondaryVideoPane.getChildren().add(_secondaryFrameView);
+
       // Initialize List of Link Data */
       _linkData = FXCollections.observableArrayList();
 
@@ -307,6 +355,8 @@ public class VideoToolController extends AbstractController
       // Update the Primary Video
       _primaryVideo = primaryVideo;
       _primaryVideoView.setVisible(true);
+      _primaryThumbnailPreview.setVideo(primaryVideo);
+      _primaryFrameView.setVideo(primaryVideo);
 
       // Disable Save Button
       _saveButton.setDisable(true);
@@ -389,11 +439,8 @@ public class VideoToolController extends AbstractController
       // Get Hyperlink File
       String videoName = FilenameUtils.getBaseName(_primaryVideo.getName());
  
-      // Initialize File Path
-      String filePath = _hyperlinkFilePath + "/" + videoName + ".json";
-
-      // Create new Hyperlink File
-      final File hyperlinkFile = new File(filePath);
+      // Get the Hyperlink File (Binary unless the Video only has a JSON File)
+      final File hyperlinkFile = HyperlinkRepository.fileFor(_hyperlinkFilePath, videoName);
 
       // Update Filename Label
       _hyperlinkFilename.setVisible(true);
@@ -415,6 +462,7 @@ public class VideoToolController extends AbstractController
       {
          // Clear Secondary Video View
          _secondaryVideoView.setVisible(false);
+         _secondaryFrameView.setVideo(null);
       }
    }
 
@@ -429,6 +477,8 @@ public class VideoToolController extends AbstractController
       // Update the Secondary Video
       _secondaryVideo = secondaryVideo;
       _secondaryVideoView.setVisible(true);
+      _secondaryThumbnailPreview.setVideo(secondaryVideo);
+      _secondaryFrameView.setVideo(secondaryVideo);
 
       try 
       {
@@ -511,16 +561,8 @@ public class VideoToolController extends AbstractController
       // Null Check Selected Link
       if(selectedLink != null)
       {
-         // Get Start/End Frames for Link
-         final int startFrame = selectedLink.getStartFrame();
-         final int endFrame = selectedLink.getEndFrame();
-
-         // Iterate over all the Frames the Link is in
-         for(int i = startFrame; i <= endFrame; ++i)
-         {
-            // Remove Link from Primary Video Pane
-            _primaryVideoPane.getChildren().remove(selectedLink.getBoundingGroup(i));
-         }
+         // Remove Link from Primary Video Pane (only the Current Frame's Bounding Box is Shown)
+         _primaryVideoPane.getChildren().remove(selectedLink.getBoundingGroup(_currentPrimaryFrame));
 
          // Remove Link from Table
          _linkTableView.getItems().remove(selectedLink);
@@ -601,20 +643,99 @@ public class VideoToolController extends AbstractController
 
    /**
     * saveDataToFile - Saves the Hyperlinks/Video Information
-    *                  to the Data File
+    *                  to the Data File on the Save Thread
     *
     * @param file - file to save data to
     */
    public void saveDataToFile(final File file)
    {
-      // Disable Save Button
+      // Show the Save on the Save Button until it is Written
+      showSavingState();
+
+      // Queue a Snapshot of the Links (Replacing any Save not yet Started, so only the Latest is Written)
+      final PendingSave save = new PendingSave(file, HyperlinkRepository.snapshot(_linkData));
+      if(_pendingSave.getAndSet(save) == null)
+      {
+         try
+         {
+            _saveThread.execute(this::writeDataToFile);
+         }
+         catch (RejectedExecutionException e)
+         {
+            // Exiting; flushSaves Writes the Queued Save
+         }
+      }
+   }
+
+   /**
+    * isSaving - Checks if a Save is Queued or being Written
+    *
+    * @return boolean
+    */
+   public boolean isSaving()
+   {
+      return _isWriting || _pendingSave.get() != null;
+   }
+
+   /**
+    * showSavingState - Shows on the Save Button that a Save is
+    *                   Queued or being Written (Disabling it)
+    */
+   public void showSavingState()
+   {
+      // Update Save Button State
+      _saveButton.setText(EFontAwesome.SPINNER.getCode());
+      _saveButton.getTooltip().setText("Saving...");
       _saveButton.setDisable(true);
       _homePageController.setSaveState(false);
+   }
+
+   /**
+    * flushSaves - Stops the Save Thread, Waits for the Save it is Writing,
+    *              then Writes any Save still Queued. Blocks, so is Called
+    *              off the Display Thread before the Application Exits
+    */
+   public void flushSaves()
+   {
+      // Stop taking Saves and Wait for the Save Thread to Finish
+      _saveThread.shutdown();
+      try
+      {
+         while(!_saveThread.awaitTermination(1, TimeUnit.SECONDS))
+         {
+            // Keep Waiting; the Save is Durable only once Written
+         }
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+      }
 
-      // Write Data to Hyperlink File
+      // Write the Save Queued after the Save Thread Stopped
       writeDataToFile();
    }
 
+   /**
+    * exportDataToFile - Writes the Links to another Hyperlink File
+    *                    (JSON or Binary by its Extension), leaving
+    *                    the Current Hyperlink File as it is
+    *
+    * @param file - The Export File
+    */
+   public void exportDataToFile(final File file)
+   {
+      try
+      {
+         // Write the Links to the Export File
+         _homePageController.getHyperlinkRepository().export(file, _linkData, PRETTY_PRINT_HYPERLINK_FILES);
+      }
+      catch (IOException e)
+      {
+         // Log Error
+         e.printStackTrace();
+      }
+   }
+
    /**
     * displayErrorDialog - Displays the Error Dialog
     */
@@ -686,8 +807,9 @@ public class VideoToolController extends AbstractController
       // Clear existing Links
       _primaryVideoPane.getChildren().clear();
 
-      // Re-Add the Primary Video View
+      // Re-Add the Primary Video View and the Exact Frame over it
       _primaryVideoPane.getChildren().add(_primaryVideoView);
+      _primaryVideoPane.getChildren().add(_primaryFrameView);
 
       // Null Check Link List
       if(_linkData != null)
@@ -903,8 +1025,8 @@ public class VideoToolController extends AbstractController
                final double maxVal = _primaryVideoSlider.getMax();
                _primaryVideoProgressBar.setProgress(newVal.doubleValue()/maxVal);
 
-               // Null Check Primary Media Player
-               if(_primaryMediaPlayer != null)
+               // Show the Exact Frame from the Frame Store, else Seek the Media Player (to the nearest Keyframe)
+               if(!_primaryFrameView.showFrame(_currentPrimaryFrame) && _primaryMediaPlayer != null)
                {
                   // Update the Primary Video Media Player
                   _primaryMediaPlayer.seek(new Duration(frameTime));
@@ -943,8 +1065,8 @@ public class VideoToolController extends AbstractController
                final double maxVal = _secondaryVideoSlider.getMax();
                _secondaryVideoProgressBar.setProgress(newVal.doubleValue()/maxVal);
 
-               // Null Check Secondary Media Player
-               if(_secondaryMediaPlayer != null)
+               // Show the Exact Frame from the Frame Store, else Seek the Media Player (to the nearest Keyframe)
+               if(!_secondaryFrameView.showFrame(_currentSecondaryFrame) && _secondaryMediaPlayer != null)
                {
                   // Update the Primary Video Media Player
                   _secondaryMediaPlayer.seek(new Duration(frameTime));
@@ -1218,77 +1340,93 @@ public class VideoToolController extends AbstractController
    }
 
    /**
-    * writeDataToFile
-    * 
-    * @param file - File to write data to
+    * writeDataToFile - Writes the Latest Queued Snapshot of the
+    *                   Links to its Hyperlink File (on the Save Thread)
     */
    private void writeDataToFile()
    {
-      JSONObject links = new JSONObject();
-      // Iterate through all the links.
-      for (Link link : _linkData) 
+      // Mark the Write before the Snapshot leaves the Queue, so isSaving never Misses it
+      _isWriting = true;
+
+      // Take the Latest Snapshot (an earlier Run may have Written it)
+      final PendingSave save = _pendingSave.getAndSet(null);
+      if(save == null)
       {
-         // Create a JSONObject for the file. And add all the necessary data to reconstruct a link.
-         JSONObject linkInfo = new JSONObject();
-         try 
-         {
-            linkInfo.put("fromVideo", link.getFromVideo().getAbsolutePath());
-            linkInfo.put("toVideo", link.getToVideo().getAbsolutePath());
-         }
-         catch (final Exception e)
-         {
-           // Log Error
-           e.printStackTrace();
-         }
-         linkInfo.put("toFrame", link.getToFrame());
-         linkInfo.put("startFrame", link.getStartFrame());
-         linkInfo.put("endFrame", link.getEndFrame());
-         // Create another JSONObject to store all the bounding box vertices for each frame.
-         JSONObject boxInfo = new JSONObject();
-         for (int i = link.getStartFrame(); i <= link.getEndFrame(); i++) {
-            JSONArray points = new JSONArray();
-            ArrayList<Point> pointArray = (ArrayList<Point>) link.getVertices(i);
-            for (int j = 0; j < pointArray.size(); j++)
-            {
-               // Add the X/Y Vertex Location to the JsonArray
-               points.add(pointArray.get(j).getX());
-               points.add(pointArray.get(j).getY());
-            }
-            boxInfo.put(i, points);
-         }
-         linkInfo.put("boxInfo", boxInfo);
-         links.put(link.getLinkName(), linkInfo);
+         _isWriting = false;
+         return;
+      }
 
+      boolean failed = false;
+      try
+      {
+         // Write the Links to the File (Cached as Written)
+         _homePageController.getHyperlinkRepository().saveEdits(save.file, save.records, PRETTY_PRINT_HYPERLINK_FILES);
       }
-      try 
+      catch (IOException | RuntimeException e)
       {
-         // Create new File
-         _currentHyperlinkFile.createNewFile();
-
-         // Initialize File Writer
-         FileWriter f = new FileWriter(_currentHyperlinkFile);
-
-         // Create new Gson Object
-         Gson gson = new GsonBuilder().setPrettyPrinting().create();
+         // Log Error
+         e.printStackTrace();
+         failed = true;
+      }
+      finally
+      {
+         _isWriting = false;
+      }
 
-         // Parse Json Object
-         JsonParser jp = new JsonParser();
-         JsonElement je = jp.parse(links.toJSONString());
+      // Report the Result on the Display Thread
+      final boolean saveFailed = failed;
+      Platform.runLater(() -> showSaveResult(save, saveFailed));
+   }
 
-         // Convert to Formatted Json String
-         String prettyJsonString = gson.toJson(je);
+   /**
+    * showSaveResult - Clears the Saving State of the Save Button once the
+    *                  last Queued Save is Written, Enabling it again (and
+    *                  Reporting the Error) if the Save Failed
+    *
+    * @param save - The Save that was Written
+    * @param failed - Whether the Save Failed
+    */
+   private void showSaveResult(final PendingSave save, final boolean failed)
+   {
+      // A later Save keeps the Saving State until it is Written
+      if(isSaving())
+      {
+         return;
+      }
 
-         // Write out Data to File
-         f.write(prettyJsonString);
+      // Restore the Save Button (Edits made meanwhile have Enabled it already)
+      _saveButton.setText(EFontAwesome.SAVE.getCode());
+      _saveButton.getTooltip().setText(SAVE_TOOLTIP);
 
-         // Cleanup File Writer
-         f.flush();
-         f.close();
+      // The Links are still Unsaved after a Failure
+      if(failed)
+      {
+         updateSaveButton(true);
+         displayErrorDialog("Unable to save " + save.file.getName());
       }
-      catch (IOException e)
-      {      
-         // Log Error
-         e.printStackTrace();
+   }
+
+   /**
+    * PendingSave - Snapshot of the Links Queued to be Written to a Hyperlink File
+    */
+   private static class PendingSave
+   {
+      /** The Hyperlink File */
+      private final File file;
+
+      /** Snapshot of the Links */
+      private final List<LinkRecord> records;
+
+      /**
+       * Constructor
+       *
+       * @param file - The Hyperlink File
+       * @param records - Snapshot of the Links
+       */
+      private PendingSave(final File file, final List<LinkRecord> records)
+      {
+         this.file = file;
+         this.records = records;
       }
    }
    
@@ -0,0 +1,75 @@
+package conversion;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CodecThroughput - Lock-free Record of how fast a Codec Encodes Frames.
+ *                   Time is summed over every Worker, so the Rates are
+ *                   per Thread rather than per Conversion
+ */
+public class CodecThroughput
+{
+   /** Frames Encoded */
+   private final LongAdder _frames;
+
+   /** Bytes the Encoded Frames take */
+   private final LongAdder _bytes;
+
+   /** Time spent Encoding (ns, summed over Workers) */
+   private final LongAdder _nanos;
+
+   /**
+    * Constructor
+    */
+   public CodecThroughput()
+   {
+      _frames = new LongAdder();
+      _bytes = new LongAdder();
+      _nanos = new LongAdder();
+   }
+
+   /**
+    * record - Records an Encoded Frame
+    *
+    * @param bytes - Size of the Encoded Frame
+    * @param nanos - Time spent Encoding it (ns)
+    */
+   public void record(final long bytes, final long nanos)
+   {
+      _frames.increment();
+      _bytes.add(bytes);
+      _nanos.add(nanos);
+   }
+
+   /**
+    * getFrames - Gets the Number of Frames Encoded
+    *
+    * @return long
+    */
+   public long getFrames()
+   {
+      return _frames.sum();
+   }
+
+   /**
+    * getFramesPerSecond - Gets the Frames Encoded per Second of one Worker
+    *
+    * @return double
+    */
+   public double getFramesPerSecond()
+   {
+      final long nanos = _nanos.sum();
+      return (nanos > 0) ? _frames.sum() * 1e9 / nanos : 0.0;
+   }
+
+   /**
+    * getAverageFrameBytes - Gets the Average Size of an Encoded Frame
+    *
+    * @return long
+    */
+   public long getAverageFrameBytes()
+   {
+      final long frames = _frames.sum();
+      return (frames > 0) ? _bytes.sum() / frames : 0;
+   }
+}
\ No newline at end of file
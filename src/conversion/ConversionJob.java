@@ -0,0 +1,158 @@
+package conversion;
+
+import java.io.File;
+
+import data.FrameGeometry;
+import enums.EJobStatus;
+
+/**
+ * ConversionJob - One (.rgb) Folder in the MP4 Converter Queue. Everything
+ *                 a Conversion needs is held by its Job, so Jobs can run
+ *                 side by side without sharing Controller State
+ */
+public class ConversionJob
+{
+   /** The Folder of (.rgb) Files */
+   private final File _rgbFolder;
+
+   /** Number of Frames in the Folder */
+   private final int _frameCount;
+
+   /** Geometry of the Frames */
+   private final FrameGeometry _geometry;
+
+   /** Whether a Frame Store is Written beside the Video */
+   private final boolean _writeFrameStore;
+
+   /** Progress of the Conversion */
+   private final ConversionProgress _progress;
+
+   /** Status of the Job (Written by the Conversion, Read by the Display Thread) */
+   private volatile EJobStatus _status;
+
+   /**
+    * Constructor
+    *
+    * @param rgbFolder - The Folder of (.rgb) Files
+    * @param frameCount - Number of Frames in the Folder
+    * @param geometry - Geometry of the Frames
+    * @param writeFrameStore - Whether a Frame Store is Written beside the Video
+    */
+   public ConversionJob(final File rgbFolder, final int frameCount, final FrameGeometry geometry, final boolean writeFrameStore)
+   {
+      _rgbFolder = rgbFolder;
+      _frameCount = frameCount;
+      _geometry = geometry;
+      _writeFrameStore = writeFrameStore;
+
+      // Initialize Progress
+      _progress = new ConversionProgress(frameCount);
+
+      // Initialize Status
+      _status = EJobStatus.QUEUED;
+   }
+
+   /**
+    * getRgbFolder - Gets the Folder of (.rgb) Files
+    *
+    * @return File
+    */
+   public File getRgbFolder()
+   {
+      return _rgbFolder;
+   }
+
+   /**
+    * getFolderName - Gets the Name of the Folder
+    *
+    * @return String
+    */
+   public String getFolderName()
+   {
+      return _rgbFolder.getName();
+   }
+
+   /**
+    * getFrameCount - Gets the Number of Frames in the Folder
+    *
+    * @return int
+    */
+   public int getFrameCount()
+   {
+      return _frameCount;
+   }
+
+   /**
+    * getGeometry - Gets the Geometry of the Frames
+    *
+    * @return FrameGeometry
+    */
+   public FrameGeometry getGeometry()
+   {
+      return _geometry;
+   }
+
+   /**
+    * isWritingFrameStore - Checks if a Frame Store (Frame-Exact rgb24
+    *                       Frames for Editing) is Written beside the Video
+    *
+    * @return boolean
+    */
+   public boolean isWritingFrameStore()
+   {
+      return _writeFrameStore;
+   }
+
+   /**
+    * getProgress - Gets the Progress of the Conversion
+    *
+    * @return ConversionProgress
+    */
+   public ConversionProgress getProgress()
+   {
+      return _progress;
+   }
+
+   /**
+    * getStatus - Gets the Status of the Job
+    *
+    * @return EJobStatus
+    */
+   public EJobStatus getStatus()
+   {
+      return _status;
+   }
+
+   /**
+    * setStatus - Sets the Status of the Job
+    *
+    * @param status - The Status
+    */
+   public void setStatus(final EJobStatus status)
+   {
+      _status = status;
+   }
+
+   /**
+    * getStatusText - Gets the Status Displayed in the Queue
+    *
+    * @return String
+    */
+   public String getStatusText()
+   {
+      return _status.getText();
+   }
+
+   /**
+    * getPercentComplete - Gets the Progress Displayed in the Queue
+    *
+    * @return String
+    */
+   public String getPercentComplete()
+   {
+      // Finished Jobs are Complete (ffmpeg may Drop Frames past the End of the Audio)
+      final double progress = (_status == EJobStatus.DONE) ? 1.0 : _progress.getProgress();
+
+      return String.format("%.0f%%", progress * 100);
+   }
+}
\ No newline at end of file
@@ -0,0 +1,339 @@
+package conversion;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32C;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * ConversionManifest - Checkpoint written beside a Converted Video. Records
+ *                      the Size, Modified Time and Hash of every Source Frame
+ *                      and which Segments have been Encoded, so a Rerun only
+ *                      Re-Encodes the Segments whose Frames have Changed
+ */
+public class ConversionManifest
+{
+   /** Version of the Manifest Format */
+   private static final int VERSION = 1;
+
+   /** Version of the Manifest Format */
+   @SerializedName("version")
+   private int _version;
+
+   /** Encoder Settings the Segments were Encoded with */
+   @SerializedName("settings")
+   private String _settings;
+
+   /** Number of Frames in the Video */
+   @SerializedName("frameCount")
+   private int _frameCount;
+
+   /** Size of each Source Frame (-1 for a Missing Frame, indexed by Frame Number - 1) */
+   @SerializedName("frameSizes")
+   private long[] _frameSizes;
+
+   /** Modified Time of each Source Frame */
+   @SerializedName("frameModified")
+   private long[] _frameModified;
+
+   /** CRC32C Hash of each Source Frame */
+   @SerializedName("frameHashes")
+   private long[] _frameHashes;
+
+   /** Whether each Segment has been Encoded from the Recorded Frames */
+   @SerializedName("segmentsDone")
+   private boolean[] _segmentsDone;
+
+   /** Size/Modified Time of the Audio the Video was Joined with (-1 for None) */
+   @SerializedName("audioSize")
+   private long _audioSize;
+   @SerializedName("audioModified")
+   private long _audioModified;
+
+   /** Whether the Segments have been Joined into the Video */
+   @SerializedName("complete")
+   private boolean _complete;
+
+   /**
+    * Constructor
+    *
+    * @param settings - Encoder Settings the Segments are Encoded with
+    * @param frameCount - Number of Frames in the Video
+    * @param segmentCount - Number of Segments in the Video
+    */
+   public ConversionManifest(final String settings, final int frameCount, final int segmentCount)
+   {
+      _version = VERSION;
+      _settings = settings;
+      _frameCount = frameCount;
+
+      // Initialize Frames (nothing Recorded yet)
+      _frameSizes = new long[frameCount];
+      _frameModified = new long[frameCount];
+      _frameHashes = new long[frameCount];
+
+      // Initialize Segments (nothing Encoded yet)
+      _segmentsDone = new boolean[segmentCount];
+
+      // Initialize Audio
+      _audioSize = -1;
+   }
+
+   /**
+    * load - Loads the Manifest of an earlier Conversion. A Manifest which is
+    *        Missing, Unreadable or was Written for different Settings is
+    *        replaced by an Empty one, so every Segment is Encoded
+    *
+    * @param manifestFile - The Manifest File
+    * @param settings - Encoder Settings the Segments are Encoded with
+    * @param frameCount - Number of Frames in the Video
+    * @param segmentCount - Number of Segments in the Video
+    * @return ConversionManifest
+    */
+   public static ConversionManifest load(final File manifestFile, final String settings, final int frameCount, final int segmentCount)
+   {
+      // Check for an earlier Conversion
+      if(manifestFile.isFile())
+      {
+         try(Reader reader = Files.newBufferedReader(manifestFile.toPath(), StandardCharsets.UTF_8))
+         {
+            // Read the Manifest
+            final ConversionManifest manifest = new Gson().fromJson(reader, ConversionManifest.class);
+
+            // Only Reuse a Manifest which describes the same Segments
+            if(manifest != null && manifest.matches(settings, frameCount, segmentCount))
+            {
+               return manifest;
+            }
+         }
+         catch (IOException | JsonParseException e)
+         {
+            e.printStackTrace();
+         }
+      }
+
+      return new ConversionManifest(settings, frameCount, segmentCount);
+   }
+
+   /**
+    * save - Writes the Manifest. The Manifest is Written to a Temporary
+    *        File first, so a Crash never leaves a Partial Manifest behind
+    *
+    * @param manifestFile - The Manifest File
+    * @throws IOException
+    */
+   public synchronized void save(final File manifestFile) throws IOException
+   {
+      // Write a Temporary Copy
+      final File tempFile = new File(manifestFile.getParentFile(), manifestFile.getName() + ".tmp");
+      try(Writer writer = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8))
+      {
+         new Gson().toJson(this, writer);
+      }
+
+      // Replace the Manifest
+      Files.move(tempFile.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+   }
+
+   /**
+    * recordFrame - Records the Source of a Frame as it is Read for Encoding
+    *
+    * @param frameNum - The Frame Number
+    * @param file - The (.rgb) File
+    * @param hash - Hash of the Frame Data (Ignored for Missing Frames)
+    */
+   public void recordFrame(final int frameNum, final File file, final long hash)
+   {
+      // Get Index of the Frame
+      final int index = frameNum - 1;
+
+      // Stat the File outside the Lock (Missing Files are Recorded as Size -1)
+      final boolean exists = file.exists();
+      final long size = exists ? file.length() : -1;
+      final long modified = exists ? file.lastModified() : 0;
+
+      // Record the Frame under the Lock save Holds, so a Checkpoint never sees Half a Record
+      synchronized(this)
+      {
+         _frameSizes[index] = size;
+         _frameModified[index] = modified;
+         _frameHashes[index] = exists ? hash : 0;
+      }
+   }
+
+   /**
+    * isSegmentClean - Checks if a Segment was Encoded and none of its Frames
+    *                  have Changed since. Frames whose Size and Modified Time
+    *                  match are Unchanged; a Frame that was only Touched is
+    *                  Read and Compared by Hash
+    *
+    * @param rgbFolder - The Folder of (.rgb) Files
+    * @param segment - The Segment
+    * @param scratch - Buffer with room for exactly one Frame
+    * @return boolean
+    */
+   public synchronized boolean isSegmentClean(final File rgbFolder, final VideoSegment segment, final ByteBuffer scratch)
+   {
+      // Check that the Segment was Encoded and still Exists
+      if(!_segmentsDone[segment.getIndex()] || !segment.getFile().isFile())
+      {
+         return false;
+      }
+
+      // Check every Frame of the Segment
+      for(int frameNum = segment.getFirstFrame(); frameNum <= segment.getLastFrame(); frameNum++)
+      {
+         if(!isFrameClean(RgbFrameReader.frameFile(rgbFolder, frameNum), frameNum - 1, scratch))
+         {
+            return false;
+         }
+      }
+
+      return true;
+   }
+
+   /**
+    * setSegmentDone - Records whether a Segment has been Encoded
+    *
+    * @param index - Index of the Segment
+    * @param done - Whether the Segment has been Encoded
+    */
+   public synchronized void setSegmentDone(final int index, final boolean done)
+   {
+      _segmentsDone[index] = done;
+   }
+
+   /**
+    * isAudioClean - Checks if the Audio is the one the Video was Joined with
+    *
+    * @param audioFile - The (.wav) File
+    * @return boolean
+    */
+   public synchronized boolean isAudioClean(final File audioFile)
+   {
+      // Missing Audio is Recorded as -1
+      if(!audioFile.exists())
+      {
+         return _audioSize == -1;
+      }
+
+      return audioFile.length() == _audioSize && audioFile.lastModified() == _audioModified;
+   }
+
+   /**
+    * recordAudio - Records the Audio the Video was Joined with
+    *
+    * @param audioFile - The (.wav) File
+    */
+   public synchronized void recordAudio(final File audioFile)
+   {
+      _audioSize = audioFile.exists() ? audioFile.length() : -1;
+      _audioModified = audioFile.exists() ? audioFile.lastModified() : 0;
+   }
+
+   /**
+    * isComplete - Checks if the Segments have been Joined into the Video
+    *
+    * @return boolean
+    */
+   public synchronized boolean isComplete()
+   {
+      return _complete;
+   }
+
+   /**
+    * setComplete - Records whether the Segments have been Joined into the Video
+    *
+    * @param complete - Whether the Video is Complete
+    */
+   public synchronized void setComplete(final boolean complete)
+   {
+      _complete = complete;
+   }
+
+   /**
+    * matches - Checks if the Manifest describes the same Segments
+    *
+    * @param settings - Encoder Settings the Segments are Encoded with
+    * @param frameCount - Number of Frames in the Video
+    * @param segmentCount - Number of Segments in the Video
+    * @return boolean
+    */
+   private boolean matches(final String settings, final int frameCount, final int segmentCount)
+   {
+      return _version == VERSION
+          && settings.equals(_settings)
+          && _frameCount == frameCount
+          && _frameSizes != null && _frameSizes.length == frameCount
+          && _frameModified != null && _frameModified.length == frameCount
+          && _frameHashes != null && _frameHashes.length == frameCount
+          && _segmentsDone != null && _segmentsDone.length == segmentCount;
+   }
+
+   /**
+    * isFrameClean - Checks if a Frame is the one that was Recorded
+    *
+    * @param file - The (.rgb) File
+    * @param index - Index of the Frame
+    * @param scratch - Buffer with room for exactly one Frame
+    * @return boolean
+    */
+   private boolean isFrameClean(final File file, final int index, final ByteBuffer scratch)
+   {
+      // Get Size of the Frame (-1 when Missing)
+      final long size = file.exists() ? file.length() : -1;
+
+      // A Frame of a different Size has Changed
+      if(size != _frameSizes[index])
+      {
+         return false;
+      }
+
+      // A Frame which is still Missing, or was not Touched, is Unchanged
+      if(size < 0 || file.lastModified() == _frameModified[index])
+      {
+         return true;
+      }
+
+      try
+      {
+         // Compare the Contents of a Touched Frame
+         if(hash(RgbFrameReader.read(file, scratch)) == _frameHashes[index])
+         {
+            // Remember the new Modified Time so the Frame is not Read again
+            _frameModified[index] = file.lastModified();
+            return true;
+         }
+      }
+      catch (IOException e)
+      {
+         e.printStackTrace();
+      }
+
+      return false;
+   }
+
+   /**
+    * hash - Hashes a Frame, leaving its Position unchanged
+    *
+    * @param frame - The Frame Data
+    * @return long
+    */
+   static long hash(final ByteBuffer frame)
+   {
+      // Hash the Frame
+      final CRC32C crc = new CRC32C();
+      crc.update(frame.duplicate());
+
+      return crc.getValue();
+   }
+}
\ No newline at end of file
@@ -0,0 +1,699 @@
+package conversion;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import conversion.interfaces.IFrameConverter;
+import conversion.interfaces.IFrameReadListener;
+import conversion.interfaces.IFrameSink;
+import data.FrameGeometry;
+
+/**
+ * ConversionPipeline - Streams a Range of (.rgb) Frames through explicit
+ *                      Read, Convert and Encode Stages. The Stages are joined
+ *                      by bounded Queues of Pooled Frames, so a Stage that gets
+ *                      ahead blocks until the Stage after it catches up
+ *
+ *                      Read    - one Thread Reads the Files in Frame Order
+ *                                (optionally Collapsing Runs of Identical Frames),
+ *                                or Issues the Reads ahead to a Read Executor
+ *                                to hide the Latency of slow (Network) Storage
+ *                      Convert - Worker Threads Convert the Planar Frames
+ *                                (to Raw Pixels, or Encode an Image)
+ *                      Encode  - the Caller Writes the Frames in Frame Order
+ */
+public class ConversionPipeline
+{
+   /** Marks the End of the Frames on the Read and Encode Queues */
+   private static final PooledFrame END_OF_FRAMES = new PooledFrame(0);
+
+   /** The Folder of (.rgb) Files */
+   private final File _rgbFolder;
+
+   /** First/Last Frame Streamed (inclusive) */
+   private final int _firstFrame;
+   private final int _lastFrame;
+
+   /** Geometry of the Frames */
+   private final FrameGeometry _geometry;
+
+   /** Converts each Read Frame for the Encode Stage */
+   private final IFrameConverter _converter;
+
+   /** Pool every Frame in flight is taken from */
+   private final FramePool _framePool;
+
+   /** Number of Convert Stage Workers */
+   private final int _convertWorkers;
+
+   /** Threads the Read and Convert Stages run on */
+   private final Executor _stageExecutor;
+
+   /** Progress of the Conversion */
+   private final ConversionProgress _progress;
+
+   /** Frames Read and waiting to be Converted */
+   private final BlockingQueue<PooledFrame> _readQueue;
+
+   /** Frames Converted and waiting to be Encoded (Released in Sequence Order) */
+   private final FrameReorderBuffer<PooledFrame> _encodeQueue;
+
+   /** Threads currently Running a Read or Convert Stage Worker */
+   private final Set<Thread> _stageThreads;
+
+   /** Set once the Encode Stage has Returned */
+   private volatile boolean _stopped;
+
+   /** Manifest the Source of each Read Frame is Recorded in (null to Record nothing) */
+   private ConversionManifest _manifest;
+
+   /** Whether Frames Identical to the Frame before them are Collapsed into it */
+   private boolean _collapseDuplicates;
+
+   /** Outputs fed straight from the Read Stage (Scrub Thumbnails, Frame Store) */
+   private final List<IFrameReadListener> _readListeners;
+
+   /** Threads the Files are Read on ahead of the Read Stage (null to Read on the Read Stage) */
+   private ExecutorService _readExecutor;
+
+   /** Maximum Number of Reads Issued ahead at once */
+   private int _outstandingReads;
+
+   /**
+    * Constructor
+    *
+    * @param rgbFolder - The Folder of (.rgb) Files
+    * @param firstFrame - The First Frame to Stream
+    * @param lastFrame - The Last Frame to Stream
+    * @param geometry - Geometry of the Frames
+    * @param framePool - Pool every Frame in flight is taken from
+    * @param convertWorkers - Number of Convert Stage Workers
+    * @param stageExecutor - Threads the Read and Convert Stages run on
+    * @param converter - Converts each Read Frame for the Encode Stage
+    * @param progress - Progress of the Conversion
+    */
+   public ConversionPipeline(final File rgbFolder, final int firstFrame, final int lastFrame, final FrameGeometry geometry,
+                             final FramePool framePool, final int convertWorkers, final Executor stageExecutor,
+                             final IFrameConverter converter, final ConversionProgress progress)
+   {
+      _rgbFolder = rgbFolder;
+      _firstFrame = firstFrame;
+      _lastFrame = lastFrame;
+      _geometry = geometry;
+      _converter = converter;
+      _framePool = framePool;
+      _convertWorkers = Math.max(1, convertWorkers);
+      _stageExecutor = stageExecutor;
+      _progress = progress;
+
+      // Size the Queues to the Pool (no Stage can hold more Frames than exist, plus the End Marker)
+      _readQueue = new ArrayBlockingQueue<PooledFrame>(framePool.getCapacity() + _convertWorkers);
+      _encodeQueue = new FrameReorderBuffer<PooledFrame>(firstFrame, framePool.getCapacity() + 1);
+
+      // Initialize Stage Threads
+      _stageThreads = ConcurrentHashMap.newKeySet();
+
+      // Initialize Read Listeners
+      _readListeners = new ArrayList<IFrameReadListener>();
+   }
+
+   /**
+    * run - Streams every Raw Frame to the Output in Frame Order,
+    *       Returning once the Last Frame has been Written. Collapsed
+    *       Frames are Written again, so the Output keeps every Frame
+    *
+    * @param output - Stream the Raw Frames are Written to
+    * @throws IOException
+    * @throws InterruptedException
+    */
+   public void run(final OutputStream output) throws IOException, InterruptedException
+   {
+      run(frame ->
+      {
+         for(int i = 0; i < frame.getRepeatCount(); i++)
+         {
+            output.write(frame.getRaw(), 0, frame.getRawBytes());
+         }
+      });
+   }
+
+   /**
+    * run - Hands every Converted Frame to the Sink in Frame Order,
+    *       Returning once the Last Frame has been Written. With
+    *       Duplicates Collapsed the Sink only gets Distinct Frames,
+    *       each with the Number of Source Frames it stands for
+    *
+    * @param sink - Sink the Converted Frames are Written to
+    * @throws IOException
+    * @throws InterruptedException
+    */
+   public void run(final IFrameSink sink) throws IOException, InterruptedException
+   {
+      // Make the Queue Depths Observable
+      _progress.addPipeline(this);
+
+      // Counts down as each Read/Convert Stage Worker Exits
+      final CountDownLatch stagesDone = new CountDownLatch(1 + _convertWorkers);
+
+      try
+      {
+         // Start the Read Stage
+         _stageExecutor.execute(() -> runStage(this::readFrames, stagesDone));
+
+         // Start the Convert Stage
+         for(int i = 0; i < _convertWorkers; i++)
+         {
+            _stageExecutor.execute(() -> runStage(this::convertFrames, stagesDone));
+         }
+
+         // Run the Encode Stage on this Thread
+         encodeFrames(sink);
+      }
+      finally
+      {
+         // Stop any Stage still Running (only after a Failure)
+         _stopped = true;
+         for(Thread stageThread : _stageThreads)
+         {
+            stageThread.interrupt();
+         }
+         stagesDone.await();
+
+         // Return Frames left in the Queues to the Pool
+         for(PooledFrame frame : _readQueue)
+         {
+            if(frame != END_OF_FRAMES)
+            {
+               _framePool.release(frame);
+            }
+         }
+         _readQueue.clear();
+         for(PooledFrame frame : _encodeQueue.clear())
+         {
+            if(frame != END_OF_FRAMES)
+            {
+               _framePool.release(frame);
+            }
+         }
+
+         // Stop Observing the Queues
+         _progress.removePipeline(this);
+      }
+   }
+
+   /**
+    * setManifest - Records the Source of every Frame Read into a Manifest
+    *
+    * @param manifest - The Manifest
+    */
+   public void setManifest(final ConversionManifest manifest)
+   {
+      _manifest = manifest;
+   }
+
+   /**
+    * setCollapseDuplicates - Sets whether Frames Identical to the Frame before
+    *                         them are Collapsed into it, so they are neither
+    *                         Converted nor handed to the Sink again
+    *
+    * @param collapseDuplicates - Whether Duplicates are Collapsed
+    */
+   public void setCollapseDuplicates(final boolean collapseDuplicates)
+   {
+      _collapseDuplicates = collapseDuplicates;
+   }
+
+   /**
+    * addReadListeners - Hands every Frame the Listeners want to them as
+    *                    it is Read (Duplicates included)
+    *
+    * @param readListeners - The Listeners
+    */
+   public void addReadListeners(final List<IFrameReadListener> readListeners)
+   {
+      _readListeners.addAll(readListeners);
+   }
+
+   /**
+    * setReadExecutor - Issues up to outstandingReads File Reads ahead of the
+    *                   Read Stage, each on a Thread of the Executor (one
+    *                   Virtual Thread per Read for Storage where Latency
+    *                   rather than Bandwidth bounds the Reads). Frames are
+    *                   still Handed on in Frame Order by the Read Stage
+    *
+    * @param readExecutor - Threads the Files are Read on (null to Read on the Read Stage)
+    * @param outstandingReads - Maximum Number of Reads Issued ahead at once
+    */
+   public void setReadExecutor(final ExecutorService readExecutor, final int outstandingReads)
+   {
+      _readExecutor = readExecutor;
+      _outstandingReads = Math.max(1, outstandingReads);
+   }
+
+   /**
+    * getReadQueueDepth - Gets the Number of Frames waiting to be Converted
+    *
+    * @return int
+    */
+   public int getReadQueueDepth()
+   {
+      return _readQueue.size();
+   }
+
+   /**
+    * getEncodeQueueDepth - Gets the Number of Frames waiting to be Encoded
+    *
+    * @return int
+    */
+   public int getEncodeQueueDepth()
+   {
+      return _encodeQueue.size();
+   }
+
+   /**
+    * runStage - Runs a Stage Worker, Passing any Failure on to the Encode Stage
+    *
+    * @param stage - The Stage Worker
+    * @param stagesDone - Counted down once the Worker Exits
+    */
+   private void runStage(final Stage stage, final CountDownLatch stagesDone)
+   {
+      // Register the Thread so the Encode Stage can Stop it
+      _stageThreads.add(Thread.currentThread());
+
+      try
+      {
+         // Skip Workers which Start after the Pipeline Stopped
+         if(!_stopped)
+         {
+            stage.run();
+         }
+      }
+      catch (InterruptedException e)
+      {
+         // Stage was Stopped by the Encode Stage
+      }
+      catch (Throwable e)
+      {
+         // Wake the Encode Stage (it can no longer get every Frame)
+         _encodeQueue.fail(e);
+      }
+      finally
+      {
+         _stageThreads.remove(Thread.currentThread());
+         stagesDone.countDown();
+      }
+   }
+
+   /**
+    * readFrames - Read Stage. Reads every Frame in Order into Pooled Frames,
+    *              Waiting for a Free Frame whenever the Pool is Empty. Each
+    *              Frame is held back until the next Distinct Frame is Read,
+    *              so Identical Frames can be Collapsed into it on the way
+    *
+    * @throws IOException
+    * @throws InterruptedException
+    */
+   private void readFrames() throws IOException, InterruptedException
+   {
+      // Distinct Frame waiting for the End of its Run, and its Hash
+      PooledFrame pending = null;
+      long pendingHash = 0;
+
+      // Position of the next Distinct Frame
+      int sequence = _firstFrame;
+
+      // Reads Issued ahead (in Frame Order) and the next Frame to Issue
+      final Deque<Future<PooledFrame>> readsAhead = new ArrayDeque<Future<PooledFrame>>();
+      int nextRead = _firstFrame;
+
+      try
+      {
+         // Iterate over the Frames in Order
+         for(int frameNum = _firstFrame; frameNum <= _lastFrame; frameNum++)
+         {
+            PooledFrame frame;
+
+            if(_readExecutor == null)
+            {
+               // Wait for a Free Frame (Back-Pressure from the later Stages) and Read it here
+               frame = _framePool.acquire(_geometry.getFrameBytes());
+               try
+               {
+                  readFrame(frameNum, frame);
+               }
+               catch (IOException | RuntimeException e)
+               {
+                  // Return the Frame before Failing
+                  _framePool.release(frame);
+                  throw e;
+               }
+            }
+            else
+            {
+               // Issue Reads ahead, only Waiting for a Free Frame when no Read is Outstanding
+               // (Frames held by Outstanding Reads can only be Freed by this Thread)
+               while(nextRead <= _lastFrame && readsAhead.size() < _outstandingReads)
+               {
+                  final PooledFrame aheadFrame = readsAhead.isEmpty() ? _framePool.acquire(_geometry.getFrameBytes())
+                                                                      : _framePool.tryAcquire(_geometry.getFrameBytes());
+                  if(aheadFrame == null)
+                  {
+                     break;
+                  }
+                  readsAhead.add(issueRead(nextRead++, aheadFrame));
+               }
+
+               // Wait for the Read of this Frame
+               frame = awaitRead(readsAhead.poll());
+            }
+
+            try
+            {
+               // Get RGB File
+               final File file = RgbFrameReader.frameFile(_rgbFolder, frameNum);
+
+               // Hand the Frame to the Outputs that want it
+               for(IFrameReadListener listener : _readListeners)
+               {
+                  if(listener.wantsFrame(frameNum))
+                  {
+                     listener.frameRead(frameNum, frame.getPlanar());
+                  }
+               }
+
+               // Hash the Frame once for both the Manifest and the Duplicate Check
+               final long hash = (_manifest != null || _collapseDuplicates) ? ConversionManifest.hash(frame.getPlanar()) : 0;
+
+               // Record the Source of the Frame
+               if(_manifest != null)
+               {
+                  _manifest.recordFrame(frameNum, file, hash);
+               }
+
+               // Collapse a Frame Identical to the Pending Frame (the Hash rules out most Frames before Comparing)
+               if(_collapseDuplicates && pending != null && hash == pendingHash && frame.getPlanar().equals(pending.getPlanar()))
+               {
+                  pending.setRepeatCount(pending.getRepeatCount() + 1);
+                  _progress.frameDuplicated();
+                  continue;
+               }
+
+               // Hand the Pending Frame to the Convert Stage
+               if(pending != null)
+               {
+                  pending.setSequence(sequence++);
+                  _readQueue.put(pending);
+                  pending = null;
+               }
+
+               // Hold the Frame back until its Run Ends
+               frame.setFrameNum(frameNum);
+               frame.setRepeatCount(1);
+               pending = frame;
+               pendingHash = hash;
+               frame = null;
+            }
+            finally
+            {
+               // Return a Frame which never reached the Queue (including Collapsed Frames)
+               if(frame != null)
+               {
+                  _framePool.release(frame);
+               }
+            }
+         }
+
+         // Hand the Last Distinct Frame to the Convert Stage
+         if(pending != null)
+         {
+            pending.setSequence(sequence++);
+            _readQueue.put(pending);
+            pending = null;
+         }
+      }
+      finally
+      {
+         // Return a Pending Frame which never reached the Queue
+         if(pending != null)
+         {
+            _framePool.release(pending);
+         }
+
+         // Return the Frames of Reads still Outstanding (only after a Failure)
+         for(Future<PooledFrame> read : readsAhead)
+         {
+            releaseRead(read);
+         }
+      }
+
+      // Tell the Encode Stage where the Distinct Frames End
+      _encodeQueue.put(sequence, END_OF_FRAMES);
+
+      // Tell every Convert Worker there are no more Frames
+      for(int i = 0; i < _convertWorkers; i++)
+      {
+         _readQueue.put(END_OF_FRAMES);
+      }
+   }
+
+   /**
+    * readFrame - Reads a Frame from its File (Missing Frames are Black)
+    *
+    * @param frameNum - The Frame Number
+    * @param frame - Frame to Read into
+    * @throws IOException
+    */
+   private void readFrame(final int frameNum, final PooledFrame frame) throws IOException
+   {
+      // Get RGB File
+      final File file = RgbFrameReader.frameFile(_rgbFolder, frameNum);
+
+      // Check that File Exists (Missing Frames stay Black)
+      if(file.exists())
+      {
+         RgbFrameReader.read(file, frame.getPlanar());
+      }
+      else
+      {
+         clear(frame.getPlanar());
+      }
+   }
+
+   /**
+    * issueRead - Reads a Frame on the Read Executor
+    *
+    * @param frameNum - The Frame Number
+    * @param frame - Frame to Read into
+    * @return Future - The Frame once it has been Read
+    */
+   private Future<PooledFrame> issueRead(final int frameNum, final PooledFrame frame)
+   {
+      try
+      {
+         return _readExecutor.submit(() ->
+         {
+            try
+            {
+               readFrame(frameNum, frame);
+               return frame;
+            }
+            catch (IOException | RuntimeException e)
+            {
+               // Return the Frame before Failing
+               _framePool.release(frame);
+               throw e;
+            }
+         });
+      }
+      catch (RuntimeException e)
+      {
+         // Return the Frame if the Read was never Issued
+         _framePool.release(frame);
+         throw e;
+      }
+   }
+
+   /**
+    * awaitRead - Waits for a Read Issued ahead
+    *
+    * @param read - The Read
+    * @return PooledFrame - The Frame
+    * @throws IOException - If the Read Failed
+    * @throws InterruptedException
+    */
+   private PooledFrame awaitRead(final Future<PooledFrame> read) throws IOException, InterruptedException
+   {
+      try
+      {
+         return read.get();
+      }
+      catch (ExecutionException e)
+      {
+         // Pass the Failure of the Read on
+         if(e.getCause() instanceof IOException)
+         {
+            throw (IOException) e.getCause();
+         }
+         throw new IOException("Frame read failed", e.getCause());
+      }
+      catch (InterruptedException e)
+      {
+         // Return the Frame once the Read Completes
+         releaseRead(read);
+         throw e;
+      }
+   }
+
+   /**
+    * releaseRead - Waits for a Read Issued ahead and Returns its Frame to the
+    *               Pool (Reads are short, so this Waits even when Interrupted)
+    *
+    * @param read - The Read
+    */
+   private void releaseRead(final Future<PooledFrame> read)
+   {
+      boolean interrupted = false;
+
+      while(true)
+      {
+         try
+         {
+            _framePool.release(read.get());
+            break;
+         }
+         catch (InterruptedException e)
+         {
+            interrupted = true;
+         }
+         catch (ExecutionException e)
+         {
+            // A Failed Read has already Returned its Frame
+            break;
+         }
+      }
+
+      // Keep the Interrupt for the Caller
+      if(interrupted)
+      {
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   /**
+    * convertFrames - Convert Stage. Converts each Read Frame
+    *
+    * @throws IOException
+    * @throws InterruptedException
+    */
+   private void convertFrames() throws IOException, InterruptedException
+   {
+      while(true)
+      {
+         // Wait for a Read Frame
+         final PooledFrame frame = _readQueue.take();
+
+         // Check for the End of the Frames
+         if(frame == END_OF_FRAMES)
+         {
+            return;
+         }
+
+         try
+         {
+            // Convert the Frame
+            _converter.convert(frame, _geometry);
+         }
+         catch (IOException | RuntimeException e)
+         {
+            // Return the Frame before Failing
+            _framePool.release(frame);
+            throw e;
+         }
+
+         // Hand the Frame to the Encode Stage (Collapsed Frames are done with it)
+         _encodeQueue.put(frame.getSequence(), frame);
+         _progress.framesConverted(frame.getRepeatCount());
+      }
+   }
+
+   /**
+    * encodeFrames - Encode Stage. Writes the Converted Frames in Frame
+    *                Order and Returns each one to the Pool
+    *
+    * @param sink - Sink the Converted Frames are Written to
+    * @throws IOException
+    * @throws InterruptedException
+    */
+   private void encodeFrames(final IFrameSink sink) throws IOException, InterruptedException
+   {
+      while(true)
+      {
+         // Wait for the Next Frame
+         final PooledFrame frame = _encodeQueue.take();
+
+         // Check for the End of the Frames
+         if(frame == END_OF_FRAMES)
+         {
+            return;
+         }
+
+         try
+         {
+            // Write the Frame
+            sink.write(frame);
+         }
+         finally
+         {
+            // Free the Frame for the Read Stage
+            _framePool.release(frame);
+         }
+      }
+   }
+
+   /**
+    * clear - Fills a Frame Buffer with Black
+    *
+    * @param buffer - The Frame Buffer
+    */
+   private static void clear(final ByteBuffer buffer)
+   {
+      // Zero the Buffer a Word at a Time
+      buffer.rewind();
+      while(buffer.remaining() >= Long.BYTES)
+      {
+         buffer.putLong(0L);
+      }
+      while(buffer.hasRemaining())
+      {
+         buffer.put((byte) 0);
+      }
+
+      // Prepare the Buffer for Reading
+      buffer.flip();
+   }
+
+   /**
+    * Stage - Body of a Read or Convert Stage Worker
+    */
+   @FunctionalInterface
+   private interface Stage
+   {
+      void run() throws Exception;
+   }
+}
\ No newline at end of file
@@ -0,0 +1,255 @@
+package conversion;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConversionProgress - Lock-free Per-Frame Progress of a Conversion across
+ *                      its Convert, Encode and Mux Stages. Workers only
+ *                      increment Counters; the UI samples them at its own rate
+ */
+public class ConversionProgress
+{
+   /** Share of the Overall Progress given to each Stage */
+   private static final double CONVERT_WEIGHT = 0.6;
+   private static final double ENCODE_WEIGHT = 0.3;
+   private static final double MUX_WEIGHT = 0.1;
+
+   /** Number of Frames in the Conversion */
+   private final long _totalFrames;
+
+   /** Frames completed by each Stage */
+   private final LongAdder _convertedFrames;
+   private final LongAdder _encodedFrames;
+   private final LongAdder _muxedFrames;
+
+   /** Frames Collapsed into an Identical Frame before them */
+   private final LongAdder _duplicateFrames;
+
+   /** Time the Conversion Started (ns) */
+   private volatile long _startTime;
+
+   /** Pipelines currently Streaming Frames (sampled for their Queue Depths) */
+   private final List<ConversionPipeline> _pipelines;
+
+   /**
+    * Constructor
+    *
+    * @param totalFrames - Number of Frames in the Conversion
+    */
+   public ConversionProgress(final long totalFrames)
+   {
+      // Initialize Total Frames
+      _totalFrames = totalFrames;
+
+      // Initialize Stage Counters
+      _convertedFrames = new LongAdder();
+      _encodedFrames = new LongAdder();
+      _muxedFrames = new LongAdder();
+      _duplicateFrames = new LongAdder();
+
+      // Initialize Start Time
+      _startTime = System.nanoTime();
+
+      // Initialize Pipelines
+      _pipelines = new CopyOnWriteArrayList<ConversionPipeline>();
+   }
+
+   /**
+    * start - Restarts the Clock (for Conversions which waited in a Queue)
+    */
+   public void start()
+   {
+      _startTime = System.nanoTime();
+   }
+
+   /**
+    * framesConverted - Records Frames leaving the Convert Stage at once
+    *                   (such as Frames an earlier Conversion already did)
+    *
+    * @param frames - Number of Frames
+    */
+   public void framesConverted(final long frames)
+   {
+      _convertedFrames.add(frames);
+   }
+
+   /**
+    * framesEncoded - Records Frames leaving the Encode Stage
+    *
+    * @param frames - Number of Frames
+    */
+   public void framesEncoded(final long frames)
+   {
+      _encodedFrames.add(frames);
+   }
+
+   /**
+    * framesMuxed - Records Frames leaving the Mux Stage
+    *
+    * @param frames - Number of Frames
+    */
+   public void framesMuxed(final long frames)
+   {
+      _muxedFrames.add(frames);
+   }
+
+   /**
+    * frameDuplicated - Records a Frame Collapsed into an Identical Frame
+    *                   (it is Counted as Converted along with that Frame)
+    */
+   public void frameDuplicated()
+   {
+      _duplicateFrames.increment();
+   }
+
+   /**
+    * addPipeline - Starts Observing the Queues of a Pipeline
+    *
+    * @param pipeline - The Pipeline
+    */
+   public void addPipeline(final ConversionPipeline pipeline)
+   {
+      _pipelines.add(pipeline);
+   }
+
+   /**
+    * removePipeline - Stops Observing the Queues of a Pipeline
+    *
+    * @param pipeline - The Pipeline
+    */
+   public void removePipeline(final ConversionPipeline pipeline)
+   {
+      _pipelines.remove(pipeline);
+   }
+
+   /**
+    * getReadQueueDepth - Gets the Number of Frames waiting
+    *                     to be Converted across all Pipelines
+    *
+    * @return int
+    */
+   public int getReadQueueDepth()
+   {
+      int depth = 0;
+      for(ConversionPipeline pipeline : _pipelines)
+      {
+         depth += pipeline.getReadQueueDepth();
+      }
+      return depth;
+   }
+
+   /**
+    * getEncodeQueueDepth - Gets the Number of Frames waiting
+    *                       to be Encoded across all Pipelines
+    *
+    * @return int
+    */
+   public int getEncodeQueueDepth()
+   {
+      int depth = 0;
+      for(ConversionPipeline pipeline : _pipelines)
+      {
+         depth += pipeline.getEncodeQueueDepth();
+      }
+      return depth;
+   }
+
+   /**
+    * getTotalFrames - Gets the Number of Frames in the Conversion
+    *
+    * @return long
+    */
+   public long getTotalFrames()
+   {
+      return _totalFrames;
+   }
+
+   /**
+    * getConvertedFrames - Gets the Number of Converted Frames
+    *
+    * @return long
+    */
+   public long getConvertedFrames()
+   {
+      return _convertedFrames.sum();
+   }
+
+   /**
+    * getDuplicateFrames - Gets the Number of Frames Collapsed
+    *                      into an Identical Frame
+    *
+    * @return long
+    */
+   public long getDuplicateFrames()
+   {
+      return _duplicateFrames.sum();
+   }
+
+   /**
+    * getProgress - Gets the Weighted Progress of all Stages
+    *
+    * @return double - Between 0 and 1
+    */
+   public double getProgress()
+   {
+      // Nothing to do for an Empty Conversion
+      if(_totalFrames <= 0)
+      {
+         return 1.0;
+      }
+
+      // Combine the Progress of each Stage
+      final double progress = (CONVERT_WEIGHT * Math.min(_convertedFrames.sum(), _totalFrames)
+                             + ENCODE_WEIGHT * Math.min(_encodedFrames.sum(), _totalFrames)
+                             + MUX_WEIGHT * Math.min(_muxedFrames.sum(), _totalFrames)) / _totalFrames;
+
+      return progress;
+   }
+
+   /**
+    * getFramesPerSecond - Gets the Overall Throughput in Frames per Second
+    *
+    * @return double
+    */
+   public double getFramesPerSecond()
+   {
+      // Get Elapsed Time (seconds)
+      final double elapsed = getElapsedSeconds();
+
+      // Frames Fully Processed so far
+      final double frames = getProgress() * _totalFrames;
+
+      return (elapsed > 0) ? frames / elapsed : 0.0;
+   }
+
+   /**
+    * getRemainingSeconds - Estimates the Time left in the Conversion
+    *
+    * @return double - Seconds, or -1 if no Estimate is available yet
+    */
+   public double getRemainingSeconds()
+   {
+      // Get Current Progress
+      final double progress = getProgress();
+
+      // No Estimate until Work has been Done
+      if(progress <= 0)
+      {
+         return -1;
+      }
+
+      return getElapsedSeconds() * (1.0 - progress) / progress;
+   }
+
+   /**
+    * getElapsedSeconds - Gets the Time since the Conversion Started
+    *
+    * @return double
+    */
+   private double getElapsedSeconds()
+   {
+      return (System.nanoTime() - _startTime) / 1e9;
+   }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package conversion;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * EncodedFrameBuffer - Reusable Buffer for a compressed Frame. Unlike a plain
+ *                      ByteArrayOutputStream its Contents can be handed to a
+ *                      Channel without being Copied
+ */
+public class EncodedFrameBuffer extends ByteArrayOutputStream
+{
+   /**
+    * Constructor
+    *
+    * @param initialSize - Initial Size of the Buffer in Bytes
+    */
+   public EncodedFrameBuffer(final int initialSize)
+   {
+      super(initialSize);
+   }
+
+   /**
+    * toByteBuffer - Wraps the Contents of the Buffer. The Wrapper is
+    *                only valid until the Buffer is next Reset or Written
+    *
+    * @return ByteBuffer
+    */
+   public synchronized ByteBuffer toByteBuffer()
+   {
+      return ByteBuffer.wrap(buf, 0, count);
+   }
+}
\ No newline at end of file
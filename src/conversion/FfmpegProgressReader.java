@@ -0,0 +1,90 @@
+package conversion;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.LongConsumer;
+
+/**
+ * FfmpegProgressReader - Reads the key=value Report that ffmpeg writes
+ *                        with "-progress pipe:1" and passes on how many
+ *                        new Frames have been Written since the last Report
+ */
+public class FfmpegProgressReader implements Runnable
+{
+   /** Key of the Output Frame Count in the Report */
+   private static final String FRAME_KEY = "frame=";
+
+   /** ffmpeg's Progress Output */
+   private final InputStream _progressStream;
+
+   /** Listener for newly Written Frames */
+   private final LongConsumer _frameListener;
+
+   /**
+    * Constructor
+    *
+    * @param progressStream - ffmpeg's Progress Output
+    * @param frameListener - Receives the Number of newly Written Frames
+    */
+   public FfmpegProgressReader(final InputStream progressStream, final LongConsumer frameListener)
+   {
+      _progressStream = progressStream;
+      _frameListener = frameListener;
+   }
+
+   /**
+    * start - Reads the Progress Report on a Daemon Thread
+    *
+    * @return Thread
+    */
+   public Thread start()
+   {
+      // Initialize Reader Thread
+      Thread thread = new Thread(this, "ffmpeg-progress");
+      thread.setDaemon(true);
+      thread.start();
+
+      return thread;
+   }
+
+   @Override
+   public void run()
+   {
+      // Frames Reported so far
+      long reportedFrames = 0;
+
+      try(BufferedReader reader = new BufferedReader(new InputStreamReader(_progressStream, StandardCharsets.US_ASCII)))
+      {
+         // Iterate over the Report Lines
+         String line;
+         while((line = reader.readLine()) != null)
+         {
+            // Check for the Frame Count
+            if(line.startsWith(FRAME_KEY))
+            {
+               try
+               {
+                  // Pass on the newly Written Frames
+                  final long frames = Long.parseLong(line.substring(FRAME_KEY.length()).trim());
+                  if(frames > reportedFrames)
+                  {
+                     _frameListener.accept(frames - reportedFrames);
+                     reportedFrames = frames;
+                  }
+               }
+               catch(NumberFormatException e)
+               {
+                  // Ignore Malformed Report Line
+               }
+            }
+         }
+      }
+      catch(IOException e)
+      {
+         // ffmpeg Exited; nothing more to Report
+      }
+   }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package conversion;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * FramePool - Fixed Set of Frames shared by the Conversion Pipelines.
+ *             Every Frame in flight comes from the Pool, so a Reader that
+ *             gets ahead of the Encoder blocks until a Frame is returned.
+ *             Peak Memory is capacity Frames (of the largest Geometry seen)
+ *             whatever the Length of the Video
+ */
+public class FramePool
+{
+   /** Frames not currently in flight */
+   private final BlockingQueue<PooledFrame> _freeFrames;
+
+   /** Number of Frames owned by the Pool */
+   private final int _capacity;
+
+   /**
+    * Constructor
+    *
+    * @param capacity - Number of Frames owned by the Pool
+    * @param frameBytes - Initial Size of a Frame in Bytes
+    */
+   public FramePool(final int capacity, final int frameBytes)
+   {
+      // Initialize Capacity
+      _capacity = capacity;
+
+      // Allocate every Frame up Front
+      _freeFrames = new ArrayBlockingQueue<PooledFrame>(capacity);
+      for(int i = 0; i < capacity; i++)
+      {
+         _freeFrames.add(new PooledFrame(frameBytes));
+      }
+   }
+
+   /**
+    * acquire - Waits for a Free Frame and takes it out of the Pool
+    *
+    * @param frameBytes - Size of the Frame it will hold in Bytes
+    * @return PooledFrame
+    * @throws InterruptedException
+    */
+   public PooledFrame acquire(final int frameBytes) throws InterruptedException
+   {
+      // Wait for a Free Frame
+      final PooledFrame frame = _freeFrames.take();
+
+      // Fit the Frame to the Video
+      frame.resize(frameBytes);
+
+      return frame;
+   }
+
+   /**
+    * tryAcquire - Takes a Free Frame out of the Pool without Waiting
+    *
+    * @param frameBytes - Size of the Frame it will hold in Bytes
+    * @return PooledFrame - Null if every Frame is in flight
+    */
+   public PooledFrame tryAcquire(final int frameBytes)
+   {
+      // Take a Free Frame if there is one
+      final PooledFrame frame = _freeFrames.poll();
+
+      // Fit the Frame to the Video
+      if(frame != null)
+      {
+         frame.resize(frameBytes);
+      }
+
+      return frame;
+   }
+
+   /**
+    * release - Returns a Frame to the Pool
+    *
+    * @param frame - The Frame
+    */
+   public void release(final PooledFrame frame)
+   {
+      // Clear Frame Number
+      frame.setFrameNum(0);
+
+      // Make the Frame available again
+      _freeFrames.add(frame);
+   }
+
+   /**
+    * getCapacity - Gets the Number of Frames owned by the Pool
+    *
+    * @return int
+    */
+   public int getCapacity()
+   {
+      return _capacity;
+   }
+
+   /**
+    * getFramesInFlight - Gets the Number of Frames taken out of the Pool
+    *
+    * @return int
+    */
+   public int getFramesInFlight()
+   {
+      return _capacity - _freeFrames.size();
+   }
+}
\ No newline at end of file
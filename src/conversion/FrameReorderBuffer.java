@@ -0,0 +1,165 @@
+package conversion;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FrameReorderBuffer - Bounded Buffer which accepts Frames from parallel
+ *                      Workers in any order and releases them strictly
+ *                      in Frame order
+ *
+ * @param <T> - Type of the Frames
+ */
+public class FrameReorderBuffer<T>
+{
+   /** Slots for Frames waiting to be Released (indexed by Frame modulo Capacity) */
+   private final Object[] _slots;
+
+   /** Next Frame to be Released */
+   private int _nextFrame;
+
+   /** Number of Frames currently held */
+   private int _size;
+
+   /** Error which stopped a Worker (Released Frames can no longer all arrive) */
+   private Throwable _failure;
+
+   /**
+    * Constructor
+    *
+    * @param firstFrame - The First Frame to be Released
+    * @param capacity - Maximum Number of Frames held at once
+    */
+   public FrameReorderBuffer(final int firstFrame, final int capacity)
+   {
+      // Initialize Slots
+      _slots = new Object[capacity];
+
+      // Initialize Next Frame
+      _nextFrame = firstFrame;
+   }
+
+   /**
+    * getCapacity - Gets the Maximum Number of Frames
+    *               the Buffer can hold
+    *
+    * @return int
+    */
+   public int getCapacity()
+   {
+      return _slots.length;
+   }
+
+   /**
+    * size - Gets the Number of Frames waiting in the Buffer
+    *
+    * @return int
+    */
+   public synchronized int size()
+   {
+      return _size;
+   }
+
+   /**
+    * put - Adds a Converted Frame to the Buffer. Callers must not
+    *       run more than getCapacity() Frames ahead of the Next Frame
+    *
+    * @param frameNum - The Frame Number
+    * @param frameData - The Converted Frame
+    */
+   public synchronized void put(final int frameNum, final T frameData)
+   {
+      // Verify Frame is inside the Window
+      if(frameNum < _nextFrame || frameNum >= _nextFrame + _slots.length)
+      {
+         throw new IllegalStateException("Frame " + frameNum + " is outside the reorder window");
+      }
+
+      // Store the Frame
+      _slots[frameNum % _slots.length] = frameData;
+      _size++;
+
+      // Wake up the Consumer
+      notifyAll();
+   }
+
+   /**
+    * fail - Records that a Worker Stopped, Waking the Consumer
+    *
+    * @param failure - The Error which Stopped the Worker
+    */
+   public synchronized void fail(final Throwable failure)
+   {
+      // Keep the First Error
+      if(_failure == null)
+      {
+         _failure = failure;
+      }
+
+      // Wake up the Consumer
+      notifyAll();
+   }
+
+   /**
+    * clear - Removes every Frame still held, so a Stopped Consumer
+    *         can hand them back to their Owner
+    *
+    * @return List<T>
+    */
+   @SuppressWarnings("unchecked")
+   public synchronized List<T> clear()
+   {
+      // Initialize List of Frames
+      final List<T> frames = new ArrayList<T>();
+
+      // Empty every Slot
+      for(int i = 0; i < _slots.length; i++)
+      {
+         if(_slots[i] != null)
+         {
+            frames.add((T) _slots[i]);
+            _slots[i] = null;
+         }
+      }
+      _size = 0;
+
+      return frames;
+   }
+
+   /**
+    * take - Waits for the Next Frame and Removes it from the Buffer
+    *
+    * @return T
+    * @throws InterruptedException
+    * @throws IOException - If a Worker Failed before the Next Frame arrived
+    */
+   @SuppressWarnings("unchecked")
+   public synchronized T take() throws InterruptedException, IOException
+   {
+      // Get Slot of the Next Frame
+      final int slot = _nextFrame % _slots.length;
+
+      // Wait until the Next Frame has been Converted
+      while(_slots[slot] == null)
+      {
+         // Check if the Frame will never arrive
+         if(_failure != null)
+         {
+            throw new IOException("Frame " + _nextFrame + " could not be converted", _failure);
+         }
+
+         wait();
+      }
+
+      // Remove the Frame from the Buffer
+      final T frameData = (T) _slots[slot];
+      _slots[slot] = null;
+      _size--;
+
+      // Advance to the Following Frame
+      _nextFrame++;
+
+      return frameData;
+   }
+}
\ No newline at end of file
@@ -0,0 +1,592 @@
+package conversion;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+import conversion.interfaces.IFrameReadListener;
+import data.FrameGeometry;
+import data.FrameStore;
+
+/**
+ * FrameStoreWriter - Writes every Frame as it is Read into a Frame Store, the
+ *                    Frame-Exact, Random Access Alternative to the Converted
+ *                    Video for Editing (see FrameStore for the Layout). Frames
+ *                    are Converted straight into Reused Chunk Buffers; each full
+ *                    Chunk is (optionally) Deflated and Appended by the Chunk
+ *                    Thread, off the Read Stage, and the Index Records where it
+ *                    went, so Pipelines of different Segments may add Frames at once
+ */
+public class FrameStoreWriter implements IFrameReadListener
+{
+   /** Number of Full Chunks that may wait for the Chunk Thread before the Read Stage Waits */
+   private static final int CHUNKS_IN_FLIGHT = 4;
+
+   /** The Frame Store File */
+   private final File _storeFile;
+
+   /** Temporary File the Frame Store is Written to (Renamed once Finished) */
+   private final File _tempFile;
+
+   /** The Folder of (.rgb) Files */
+   private final File _rgbFolder;
+
+   /** Geometry of the Frames */
+   private final FrameGeometry _geometry;
+
+   /** Number of Frames */
+   private final int _frameCount;
+
+   /** Number of Frames in a Chunk */
+   private final int _framesPerChunk;
+
+   /** Whether Chunks are Deflated */
+   private final boolean _compress;
+
+   /** The Temporary File */
+   private final FileChannel _channel;
+
+   /** Position and Length of every Chunk Written so far */
+   private final long[] _chunkOffsets;
+   private final int[] _chunkLengths;
+
+   /** Chunks being Filled */
+   private final Map<Integer, Chunk> _openChunks;
+
+   /** Frames Added so far (by Frame Number - 1) */
+   private final BitSet _framesAdded;
+
+   /** Chunk Buffers no longer in use (Reused for the next Chunk Opened) */
+   private final Deque<byte[]> _freeBuffers;
+
+   /** Thread that Deflates and Writes the Full Chunks */
+   private final ExecutorService _chunkThread;
+
+   /** Full Chunks the Chunk Thread may still take */
+   private final Semaphore _chunkPermits;
+
+   /** Deflater of the Chunk Thread (Reset for each Chunk, null if not Compressing) */
+   private final Deflater _deflater;
+
+   /** Buffer the Chunk Thread Deflates into (grows to the largest Chunk) */
+   private byte[] _compressed;
+
+   /** First Failure of the Chunk Thread */
+   private volatile IOException _chunkFailure;
+
+   /** Position the next Chunk is Appended at */
+   private long _nextOffset;
+
+   /** Whether the Frame Store has been Finished or Discarded */
+   private boolean _closed;
+
+   /**
+    * Constructor
+    *
+    * @param storeFile - The Frame Store File
+    * @param rgbFolder - The Folder of (.rgb) Files
+    * @param frameCount - Number of Frames
+    * @param geometry - Geometry of the Frames
+    * @param framesPerChunk - Number of Frames in a Chunk
+    * @param compress - Whether Chunks are Deflated
+    * @throws IOException
+    */
+   public FrameStoreWriter(final File storeFile, final File rgbFolder, final int frameCount, final FrameGeometry geometry,
+                           final int framesPerChunk, final boolean compress) throws IOException
+   {
+      _storeFile = storeFile;
+      _tempFile = new File(storeFile.getParentFile(), storeFile.getName() + ".tmp");
+      _rgbFolder = rgbFolder;
+      _frameCount = frameCount;
+      _geometry = geometry;
+      _framesPerChunk = Math.max(1, framesPerChunk);
+      _compress = compress;
+
+      // Initialize Index
+      final int chunkCount = (frameCount + _framesPerChunk - 1) / _framesPerChunk;
+      _chunkOffsets = new long[chunkCount];
+      _chunkLengths = new int[chunkCount];
+
+      // Initialize Chunks and Frames
+      _openChunks = new HashMap<Integer, Chunk>();
+      _framesAdded = new BitSet(frameCount);
+      _freeBuffers = new ArrayDeque<byte[]>();
+
+      // Initialize the Chunk Thread
+      _chunkThread = Executors.newSingleThreadExecutor(runnable ->
+      {
+         Thread thread = new Thread(runnable, "frame-store-chunks");
+         thread.setDaemon(true);
+         return thread;
+      });
+      _chunkPermits = new Semaphore(CHUNKS_IN_FLIGHT);
+      _deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+
+      // Open the Temporary File (Chunks start after the Header)
+      _channel = FileChannel.open(_tempFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                  StandardOpenOption.READ, StandardOpenOption.WRITE);
+      _nextOffset = FrameStore.HEADER_BYTES;
+   }
+
+   @Override
+   public boolean wantsFrame(final int frameNum)
+   {
+      // Every Frame is Stored
+      return true;
+   }
+
+   @Override
+   public void frameRead(final int frameNum, final ByteBuffer planar) throws IOException
+   {
+      // Stop Reading once a Chunk could not be Written
+      checkChunkFailure();
+
+      // Get Chunk of the Frame
+      final int chunkNum = (frameNum - 1) / _framesPerChunk;
+      final Chunk chunk;
+
+      synchronized(this)
+      {
+         // Skip a Frame that is already Stored
+         if(_closed || _framesAdded.get(frameNum - 1))
+         {
+            return;
+         }
+         _framesAdded.set(frameNum - 1);
+
+         // Get the Chunk (Opened on its first Frame, in a Reused Buffer)
+         Chunk openChunk = _openChunks.get(chunkNum);
+         if(openChunk == null)
+         {
+            openChunk = new Chunk(Math.min(_framesPerChunk, _frameCount - chunkNum * _framesPerChunk), takeBuffer());
+            _openChunks.put(chunkNum, openChunk);
+         }
+         chunk = openChunk;
+      }
+
+      // Convert to rgb24 straight into the Frame's Slot of the Chunk outside the Lock
+      final int offset = ((frameNum - 1) % _framesPerChunk) * _geometry.getFrameBytes();
+      PixelConverter.toRgb24(planar, chunk.data, offset, _geometry.getPixelCount());
+
+      synchronized(this)
+      {
+         // Add the Frame, Taking the Chunk once it is Full
+         chunk.added++;
+         if(_closed || chunk.added < chunk.frameCount)
+         {
+            return;
+         }
+         _openChunks.remove(chunkNum);
+      }
+
+      // Hand the Full Chunk to the Chunk Thread
+      queueChunk(chunkNum, chunk);
+   }
+
+   /**
+    * finish - Stores the Frames no Pipeline Read (Segments Reused from an
+    *          earlier Conversion) from their Files, Writes the Index and
+    *          Header and Replaces the Frame Store. If no Frame was Read and
+    *          the existing Frame Store matches, it is Kept as it is
+    *
+    * @throws IOException
+    */
+   public void finish() throws IOException
+   {
+      // Check if the existing Frame Store is still Valid
+      synchronized(this)
+      {
+         if(_framesAdded.isEmpty() && isStoreCurrent())
+         {
+            discard();
+            return;
+         }
+      }
+
+      // Store the Frames no Pipeline Read
+      final ByteBuffer scratch = ByteBuffer.allocateDirect(_geometry.getFrameBytes());
+      for(int frameNum = 1; frameNum <= _frameCount; frameNum++)
+      {
+         if(!isFrameAdded(frameNum))
+         {
+            // Read the Frame (Missing Frames are Black)
+            final File file = RgbFrameReader.frameFile(_rgbFolder, frameNum);
+            if(file.exists())
+            {
+               RgbFrameReader.read(file, scratch);
+            }
+            else
+            {
+               scratch.clear();
+               while(scratch.hasRemaining())
+               {
+                  scratch.put((byte) 0);
+               }
+               scratch.flip();
+            }
+            frameRead(frameNum, scratch);
+         }
+      }
+
+      // Wait for the Chunk Thread to Write the Chunks Queued
+      stopChunkThread();
+      try
+      {
+         while(!_chunkThread.awaitTermination(1, TimeUnit.SECONDS))
+         {
+            // Keep Waiting; the Index needs every Chunk
+         }
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new InterruptedIOException("Interrupted writing " + _storeFile.getName());
+      }
+      checkChunkFailure();
+
+      synchronized(this)
+      {
+         // Write the Index
+         final long indexOffset = _nextOffset;
+         final ByteBuffer index = ByteBuffer.allocate(_chunkOffsets.length * FrameStore.INDEX_ENTRY_BYTES);
+         for(int i = 0; i < _chunkOffsets.length; i++)
+         {
+            index.putLong(_chunkOffsets[i]);
+            index.putInt(_chunkLengths[i]);
+         }
+         index.flip();
+         writeFully(index, indexOffset);
+
+         // Write the Header
+         final ByteBuffer header = ByteBuffer.allocate(FrameStore.HEADER_BYTES);
+         header.put(FrameStore.MAGIC);
+         header.putInt(FrameStore.VERSION);
+         header.putInt(_geometry.getWidth());
+         header.putInt(_geometry.getHeight());
+         header.putInt(_frameCount);
+         header.putInt(_framesPerChunk);
+         header.putInt(_compress ? FrameStore.COMPRESSION_DEFLATE : FrameStore.COMPRESSION_NONE);
+         header.putInt(_chunkOffsets.length);
+         header.putLong(indexOffset);
+         header.clear();
+         writeFully(header, 0);
+
+         // Make the Frame Store Durable before it Replaces the old one
+         _channel.force(true);
+         _channel.close();
+         _closed = true;
+      }
+
+      // Replace the Frame Store
+      Files.move(_tempFile.toPath(), _storeFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+   }
+
+   /**
+    * discard - Abandons the Frame Store (after a Failed Conversion),
+    *           leaving any earlier Frame Store in place
+    */
+   public synchronized void discard()
+   {
+      // Check if already Finished
+      if(_closed)
+      {
+         return;
+      }
+      _closed = true;
+      _openChunks.clear();
+      _freeBuffers.clear();
+      stopChunkThread();
+
+      try
+      {
+         _channel.close();
+      }
+      catch (IOException e)
+      {
+         e.printStackTrace();
+      }
+      _tempFile.delete();
+   }
+
+   /**
+    * isFrameAdded - Checks if a Frame has been Stored
+    *
+    * @param frameNum - The Frame Number
+    * @return boolean
+    */
+   private synchronized boolean isFrameAdded(final int frameNum)
+   {
+      return _framesAdded.get(frameNum - 1);
+   }
+
+   /**
+    * isStoreCurrent - Checks if the existing Frame Store was Written
+    *                  for the same Frames with the same Settings
+    *
+    * @return boolean
+    */
+   private boolean isStoreCurrent()
+   {
+      // Check for an existing Frame Store
+      if(!_storeFile.isFile())
+      {
+         return false;
+      }
+
+      try(FrameStore store = new FrameStore(_storeFile))
+      {
+         return store.getGeometry().equals(_geometry) && store.getFrameCount() == _frameCount;
+      }
+      catch (IOException e)
+      {
+         return false;
+      }
+   }
+
+   /**
+    * takeBuffer - Takes a Free Chunk Buffer, Allocating one only if
+    *              every Buffer is in use. Called under the Lock
+    *
+    * @return byte[]
+    */
+   private byte[] takeBuffer()
+   {
+      final byte[] buffer = _freeBuffers.poll();
+
+      return buffer != null ? buffer : new byte[_framesPerChunk * _geometry.getFrameBytes()];
+   }
+
+   /**
+    * releaseBuffer - Returns a Chunk Buffer once its Chunk is Written
+    *
+    * @param buffer - The Chunk Buffer
+    */
+   private synchronized void releaseBuffer(final byte[] buffer)
+   {
+      if(!_closed)
+      {
+         _freeBuffers.push(buffer);
+      }
+   }
+
+   /**
+    * queueChunk - Hands a Full Chunk to the Chunk Thread, Waiting
+    *              while CHUNKS_IN_FLIGHT Chunks are already Queued
+    *
+    * @param chunkNum - The Chunk
+    * @param chunk - Frames of the Chunk
+    * @throws IOException
+    */
+   private void queueChunk(final int chunkNum, final Chunk chunk) throws IOException
+   {
+      // Wait for the Chunk Thread to catch up
+      try
+      {
+         _chunkPermits.acquire();
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new InterruptedIOException("Interrupted queueing chunk " + chunkNum);
+      }
+
+      try
+      {
+         _chunkThread.execute(() ->
+         {
+            try
+            {
+               writeChunk(chunkNum, chunk);
+            }
+            catch (IOException e)
+            {
+               // Keep the First Failure (finish Reports it)
+               if(_chunkFailure == null)
+               {
+                  _chunkFailure = e;
+               }
+            }
+            finally
+            {
+               releaseBuffer(chunk.data);
+               _chunkPermits.release();
+            }
+         });
+      }
+      catch (RejectedExecutionException e)
+      {
+         // Discarded meanwhile
+         _chunkPermits.release();
+      }
+   }
+
+   /**
+    * stopChunkThread - Stops the Chunk Thread taking Chunks once the Chunks
+    *                   Queued are Written, then Ends the Deflater on it
+    */
+   private synchronized void stopChunkThread()
+   {
+      // Check if already Stopped
+      if(_chunkThread.isShutdown())
+      {
+         return;
+      }
+
+      // End the Deflater after the last Chunk (it belongs to the Chunk Thread)
+      if(_deflater != null)
+      {
+         _chunkThread.execute(_deflater::end);
+      }
+      _chunkThread.shutdown();
+   }
+
+   /**
+    * checkChunkFailure - Throws the Failure of the Chunk Thread, if any
+    *
+    * @throws IOException
+    */
+   private void checkChunkFailure() throws IOException
+   {
+      final IOException failure = _chunkFailure;
+      if(failure != null)
+      {
+         throw new IOException("Could not write " + _storeFile.getName(), failure);
+      }
+   }
+
+   /**
+    * writeChunk - Appends a Full Chunk (Deflated if Compressing) and
+    *              Records it in the Index. Runs on the Chunk Thread
+    *
+    * @param chunkNum - The Chunk
+    * @param chunk - Frames of the Chunk
+    * @throws IOException
+    */
+   private void writeChunk(final int chunkNum, final Chunk chunk) throws IOException
+   {
+      // Skip Chunks Queued before the Frame Store was Discarded
+      synchronized(this)
+      {
+         if(_closed)
+         {
+            return;
+         }
+      }
+
+      // Get the Frames of the Chunk (Deflated if Compressing)
+      final int length = chunk.frameCount * _geometry.getFrameBytes();
+      final ByteBuffer data = _compress ? deflate(chunkNum, chunk.data, length) : ByteBuffer.wrap(chunk.data, 0, length);
+
+      // Reserve Space for the Chunk
+      final long offset;
+      synchronized(this)
+      {
+         if(_closed)
+         {
+            return;
+         }
+         offset = _nextOffset;
+         _nextOffset += data.remaining();
+         _chunkOffsets[chunkNum] = offset;
+         _chunkLengths[chunkNum] = data.remaining();
+      }
+
+      // Write the Chunk (Positional Writes need no Lock)
+      writeFully(data, offset);
+   }
+
+   /**
+    * deflate - Deflates a Chunk into the Chunk Thread's Buffer
+    *           (Favouring Speed, Frames Deflate well anyway)
+    *
+    * @param chunkNum - The Chunk
+    * @param input - Frames of the Chunk
+    * @param length - Length of the Frames in Bytes
+    * @return ByteBuffer - Valid until the next Chunk is Deflated
+    * @throws IOException
+    */
+   private ByteBuffer deflate(final int chunkNum, final byte[] input, final int length) throws IOException
+   {
+      // Grow the Buffer to the Worst Case of the Chunk
+      final int bound = length + length / 100 + 64;
+      if(_compressed == null || _compressed.length < bound)
+      {
+         _compressed = new byte[bound];
+      }
+
+      // Deflate the Chunk
+      _deflater.reset();
+      _deflater.setInput(input, 0, length);
+      _deflater.finish();
+      int compressedLength = 0;
+      while(!_deflater.finished())
+      {
+         compressedLength += _deflater.deflate(_compressed, compressedLength, _compressed.length - compressedLength);
+         if(compressedLength == _compressed.length && !_deflater.finished())
+         {
+            throw new IOException("Chunk " + chunkNum + " did not deflate");
+         }
+      }
+
+      return ByteBuffer.wrap(_compressed, 0, compressedLength);
+   }
+
+   /**
+    * writeFully - Writes the whole Buffer at a Position
+    *
+    * @param buffer - The Buffer
+    * @param position - Position in the Temporary File
+    * @throws IOException
+    */
+   private void writeFully(final ByteBuffer buffer, final long position) throws IOException
+   {
+      final long start = position - buffer.position();
+      while(buffer.hasRemaining())
+      {
+         _channel.write(buffer, start + buffer.position());
+      }
+   }
+
+   /**
+    * Chunk - Frames of a Chunk being Filled
+    */
+   private static class Chunk
+   {
+      /** Number of Frames in the Chunk (the Last Chunk may be Short) */
+      private final int frameCount;
+
+      /** rgb24 Frames of the Chunk, one after another (a Reused Buffer) */
+      private final byte[] data;
+
+      /** Number of Frames Added so far */
+      private int added;
+
+      /**
+       * Constructor
+       *
+       * @param frameCount - Number of Frames in the Chunk
+       * @param data - Buffer the Frames are Converted into
+       */
+      private Chunk(final int frameCount, final byte[] data)
+      {
+         this.frameCount = frameCount;
+         this.data = data;
+      }
+   }
+}
\ No newline at end of file
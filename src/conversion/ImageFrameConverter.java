@@ -0,0 +1,201 @@
+package conversion;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import conversion.interfaces.IFrameConverter;
+import data.FrameGeometry;
+import enums.EIntermediateCodec;
+
+/**
+ * ImageFrameConverter - Encodes each Frame as an Image (JPEG, PNG or PPM) held
+ *                       in the Frame's Encoded Buffer. Every Convert Worker owns
+ *                       its own Writer, preset Parameters and Image, so nothing
+ *                       is looked up or allocated per Frame
+ */
+public class ImageFrameConverter implements IFrameConverter
+{
+   /** JPEG Metadata Format the Sampling Factors are set through */
+   private static final String JPEG_METADATA_FORMAT = "javax_imageio_jpeg_image_1.0";
+
+   /** Codec the Frames are Encoded with */
+   private final EIntermediateCodec _codec;
+
+   /** Compression Quality (0 to 1, for PNG higher means faster and larger) */
+   private final float _quality;
+
+   /** Whether JPEG Chroma is Subsampled (4:2:0) or kept at full Resolution (4:4:4) */
+   private final boolean _chromaSubsampling;
+
+   /** Encoder State owned by each Convert Worker */
+   private final ThreadLocal<EncoderState> _state;
+
+   /** Throughput of this Codec */
+   private final CodecThroughput _throughput;
+
+   /**
+    * Constructor
+    *
+    * @param codec - Codec the Frames are Encoded with
+    * @param quality - Compression Quality (0 to 1)
+    * @param chromaSubsampling - Whether JPEG Chroma is Subsampled
+    */
+   public ImageFrameConverter(final EIntermediateCodec codec, final float quality, final boolean chromaSubsampling)
+   {
+      _codec = codec;
+      _quality = quality;
+      _chromaSubsampling = chromaSubsampling;
+      _state = new ThreadLocal<EncoderState>();
+      _throughput = new CodecThroughput();
+   }
+
+   /**
+    * getCodec - Gets the Codec the Frames are Encoded with
+    *
+    * @return EIntermediateCodec
+    */
+   public EIntermediateCodec getCodec()
+   {
+      return _codec;
+   }
+
+   /**
+    * getThroughput - Gets the Throughput of this Codec
+    *
+    * @return CodecThroughput
+    */
+   public CodecThroughput getThroughput()
+   {
+      return _throughput;
+   }
+
+   @Override
+   public void convert(final PooledFrame frame, final FrameGeometry geometry) throws IOException
+   {
+      final long start = System.nanoTime();
+      final EncodedFrameBuffer encoded = frame.getEncoded();
+      encoded.reset();
+
+      // PPM is a Header followed by the RGB24 Pixels, no Writer needed
+      if(_codec.getFormatName() == null)
+      {
+         PixelConverter.toRgb24(frame.getPlanar(), frame.getRaw(), geometry.getPixelCount());
+         encoded.write(("P6\n" + geometry.getWidth() + " " + geometry.getHeight() + "\n255\n").getBytes(StandardCharsets.US_ASCII));
+         encoded.write(frame.getRaw(), 0, geometry.getPixelCount() * 3);
+      }
+      else
+      {
+         // Get this Worker's State (Replaced if it was made for another Geometry)
+         EncoderState state = _state.get();
+         if(state == null || !state.geometry.equals(geometry))
+         {
+            state = new EncoderState(geometry);
+            _state.set(state);
+         }
+
+         // Convert the Planar Data into the Image's Pixels
+         final int[] pixels = ((DataBufferInt) state.image.getRaster().getDataBuffer()).getData();
+         PixelConverter.toPackedRgb(frame.getPlanar(), pixels, geometry.getPixelCount());
+
+         // Encode the Image into the Frame's Encoded Buffer
+         try(ImageOutputStream output = new MemoryCacheImageOutputStream(encoded))
+         {
+            state.writer.setOutput(output);
+            state.writer.write(null, new IIOImage(state.image, null, state.metadata), state.param);
+         }
+         finally
+         {
+            state.writer.setOutput(null);
+         }
+      }
+
+      _throughput.record(encoded.size(), System.nanoTime() - start);
+   }
+
+   /**
+    * EncoderState - Writer, preset Parameters and Image of one Convert Worker
+    */
+   private class EncoderState
+   {
+      /** Geometry the Image was made for */
+      private final FrameGeometry geometry;
+
+      /** Image (Pixels are written straight into its Raster) */
+      private final BufferedImage image;
+
+      /** Writer of the Codec */
+      private final ImageWriter writer;
+
+      /** Write Parameters (Quality, Progressive Mode) */
+      private final ImageWriteParam param;
+
+      /** Image Metadata (JPEG Chroma Sampling), null for the Writer's default */
+      private final IIOMetadata metadata;
+
+      /**
+       * Constructor
+       *
+       * @param geometry - Geometry of the Frames
+       * @throws IOException - No Writer or Metadata for the Codec
+       */
+      private EncoderState(final FrameGeometry geometry) throws IOException
+      {
+         this.geometry = geometry;
+         image = new BufferedImage(geometry.getWidth(), geometry.getHeight(), BufferedImage.TYPE_INT_RGB);
+
+         // Look up the Writer once per Worker
+         final Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(_codec.getFormatName());
+         if(!writers.hasNext())
+         {
+            throw new IOException("No ImageIO Writer for " + _codec.getFormatName());
+         }
+         writer = writers.next();
+
+         // Preset the Quality and turn off Progressive Encoding
+         param = writer.getDefaultWriteParam();
+         if(param.canWriteCompressed())
+         {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(_quality);
+         }
+         if(param.canWriteProgressive())
+         {
+            param.setProgressiveMode(ImageWriteParam.MODE_DISABLED);
+         }
+
+         // Keep full Resolution Chroma by making every JPEG Component 1x1
+         if(_codec == EIntermediateCodec.JPEG && !_chromaSubsampling)
+         {
+            metadata = writer.getDefaultImageMetadata(new ImageTypeSpecifier(image), param);
+            final Node tree = metadata.getAsTree(JPEG_METADATA_FORMAT);
+            final NodeList components = ((Element) tree).getElementsByTagName("componentSpec");
+            for(int i = 0; i < components.getLength(); i++)
+            {
+               ((Element) components.item(i)).setAttribute("HsamplingFactor", "1");
+               ((Element) components.item(i)).setAttribute("VsamplingFactor", "1");
+            }
+            metadata.setFromTree(JPEG_METADATA_FORMAT, tree);
+         }
+         else
+         {
+            metadata = null;
+         }
+      }
+   }
+}
\ No newline at end of file
@@ -0,0 +1,669 @@
+package conversion;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import data.FrameGeometry;
+
+/**
+ * MjpegAviWriter - Writes a Motion-JPEG AVI (RIFF AVI 1.0) File, with an
+ *                  optional PCM Audio Track copied from a (.wav) File.
+ *                  Frames must be Written in Order from a single Thread;
+ *                  the Audio is Interleaved a Frame's worth at a Time.
+ *                  The Header is Written first with Placeholder Sizes,
+ *                  which are Patched when the Writer is Closed
+ */
+public class MjpegAviWriter implements Closeable
+{
+   /** avih Flag - The File has an idx1 Index */
+   private static final int AVIF_HASINDEX = 0x10;
+
+   /** idx1 Flag - The Chunk is a Key Frame */
+   private static final int AVIIF_KEYFRAME = 0x10;
+
+   /** Largest File an AVI 1.0 Reader is sure to handle */
+   private static final long MAX_FILE_BYTES = Integer.MAX_VALUE;
+
+   /** Size of the Buffer the Header is built in */
+   private static final int HEADER_BYTES = 1024;
+
+   /** Size of an idx1 Entry */
+   private static final int INDEX_ENTRY_BYTES = 16;
+
+   /** Chunk Ids of the Video/Audio Streams */
+   private static final String VIDEO_CHUNK = "00dc";
+   private static final String AUDIO_CHUNK = "01wb";
+
+   /** The AVI File */
+   private final FileChannel _channel;
+
+   /** Geometry of the Frames */
+   private final FrameGeometry _geometry;
+
+   /** Frame Rate of the Video */
+   private final int _fps;
+
+   /** Scratch Buffer for Chunk Headers */
+   private final ByteBuffer _chunkHeader;
+
+   /** idx1 Entries of every Chunk Written so far */
+   private final EncodedFrameBuffer _index;
+
+   /** Scratch Buffer for a single idx1 Entry */
+   private final ByteBuffer _indexEntry;
+
+   /** The (.wav) File (null when there is no Audio) */
+   private FileChannel _audioChannel;
+
+   /** Contents of the (.wav) fmt Chunk (a WAVEFORMATEX) */
+   private ByteBuffer _audioFormat;
+
+   /** Position/Size of the (.wav) Sample Data */
+   private long _audioDataStart;
+   private long _audioDataBytes;
+
+   /** Bytes per Sample Block/Second of the Audio */
+   private int _audioBlockAlign;
+   private int _audioBytesPerSecond;
+
+   /** Audio Bytes Written so far */
+   private long _audioBytesWritten;
+
+   /** Positions of the Header Fields Patched on Close */
+   private long _riffSizePos;
+   private long _totalFramesPos;
+   private long _suggestedBufferPos;
+   private long _videoLengthPos;
+   private long _videoSuggestedBufferPos;
+   private long _audioLengthPos;
+   private long _moviSizePos;
+
+   /** Position of the movi Id (idx1 Offsets are Relative to it) */
+   private long _moviStart;
+
+   /** Number of Frames Written so far */
+   private int _frameCount;
+
+   /** Largest Chunk Written so far */
+   private int _largestChunk;
+
+   /**
+    * Constructor
+    *
+    * @param aviFile - The AVI File to Write
+    * @param geometry - Geometry of the Frames
+    * @param fps - Frame Rate of the Video
+    * @param wavFile - The (.wav) File to Copy the Audio from (null for none)
+    * @throws IOException
+    */
+   public MjpegAviWriter(final File aviFile, final FrameGeometry geometry, final int fps, final File wavFile) throws IOException
+   {
+      _geometry = geometry;
+      _fps = fps;
+
+      // Initialize Scratch Buffers
+      _chunkHeader = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+      _indexEntry = ByteBuffer.allocate(INDEX_ENTRY_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      _index = new EncodedFrameBuffer(INDEX_ENTRY_BYTES * 1024);
+
+      // Open the Audio
+      if(wavFile != null)
+      {
+         openAudio(wavFile);
+      }
+
+      // Open the AVI File
+      _channel = FileChannel.open(aviFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                  StandardOpenOption.TRUNCATE_EXISTING);
+
+      try
+      {
+         // Write the Header
+         writeHeader();
+      }
+      catch (IOException e)
+      {
+         closeChannels();
+         throw e;
+      }
+   }
+
+   /**
+    * writeFrame - Writes the next Frame, followed by the Audio
+    *              that plays during it
+    *
+    * @param jpeg - The JPEG Compressed Frame
+    * @throws IOException
+    */
+   public void writeFrame(final EncodedFrameBuffer jpeg) throws IOException
+   {
+      // Write the Frame
+      final ByteBuffer data = jpeg.toByteBuffer();
+      final long position = startChunk(VIDEO_CHUNK, data.remaining());
+      writeFully(data);
+      endChunk(VIDEO_CHUNK, position, jpeg.size());
+      _frameCount++;
+
+      // Write the Audio of the Frame
+      writeFrameAudio();
+   }
+
+   /**
+    * writeFrame - Writes the next Frame and the Identical Frames after it.
+    *              Each Repeat is an empty Chunk, which Players show as
+    *              the previous Frame held for one more Frame Time
+    *
+    * @param jpeg - The JPEG Compressed Frame
+    * @param repeatCount - Number of Frames it stands for (at least 1)
+    * @throws IOException
+    */
+   public void writeFrame(final EncodedFrameBuffer jpeg, final int repeatCount) throws IOException
+   {
+      // Write the Frame
+      writeFrame(jpeg);
+
+      // Write the Repeats
+      for(int i = 1; i < repeatCount; i++)
+      {
+         final long position = startChunk(VIDEO_CHUNK, 0);
+         endChunk(VIDEO_CHUNK, position, 0);
+         _frameCount++;
+
+         // Write the Audio of the Repeat
+         writeFrameAudio();
+      }
+   }
+
+   /**
+    * getFrameCount - Gets the Number of Frames Written so far
+    *
+    * @return int
+    */
+   public int getFrameCount()
+   {
+      return _frameCount;
+   }
+
+   /**
+    * close - Writes the Index and Patches the Header. Audio past the
+    *         Last Frame is Dropped (as ffmpeg's -shortest would)
+    *
+    * @throws IOException
+    */
+   @Override
+   public void close() throws IOException
+   {
+      try
+      {
+         // Write the Index
+         final long indexPosition = _channel.position();
+         _chunkHeader.clear();
+         _chunkHeader.put("idx1".getBytes(StandardCharsets.US_ASCII));
+         _chunkHeader.putInt(_index.size());
+         _chunkHeader.flip();
+         writeFully(_chunkHeader);
+         writeFully(_index.toByteBuffer());
+
+         // Patch the Sizes of the RIFF and movi Lists
+         final long fileEnd = _channel.position();
+         patchInt(_riffSizePos, fileEnd - 8);
+         patchInt(_moviSizePos, indexPosition - _moviSizePos - 4);
+
+         // Patch the Lengths of the Streams
+         patchInt(_totalFramesPos, _frameCount);
+         patchInt(_videoLengthPos, _frameCount);
+         if(_audioChannel != null)
+         {
+            patchInt(_audioLengthPos, _audioBytesWritten / _audioBlockAlign);
+         }
+
+         // Patch the Buffer Size a Reader needs for the Largest Chunk
+         patchInt(_suggestedBufferPos, _largestChunk);
+         patchInt(_videoSuggestedBufferPos, _largestChunk);
+      }
+      finally
+      {
+         closeChannels();
+      }
+   }
+
+   /**
+    * openAudio - Finds the Format and Sample Data of a (.wav) File
+    *
+    * @param wavFile - The (.wav) File
+    * @throws IOException
+    */
+   private void openAudio(final File wavFile) throws IOException
+   {
+      // Open the (.wav) File
+      _audioChannel = FileChannel.open(wavFile.toPath(), StandardOpenOption.READ);
+
+      try
+      {
+         // Check the RIFF Header
+         final ByteBuffer riffHeader = readAudio(0, 12);
+         if(!"RIFF".equals(fourCC(riffHeader, 0)) || !"WAVE".equals(fourCC(riffHeader, 8)))
+         {
+            throw new IOException(wavFile.getName() + " is not a WAVE file");
+         }
+
+         // Iterate over the Chunks of the File
+         final long fileSize = _audioChannel.size();
+         long position = 12;
+         while(position + 8 <= fileSize)
+         {
+            // Get Chunk Id and Size
+            final ByteBuffer chunkHeader = readAudio(position, 8);
+            final String chunkId = fourCC(chunkHeader, 0);
+            final long chunkSize = chunkHeader.getInt(4) & 0xffffffffL;
+
+            // Check for the Format or Sample Data
+            if("fmt ".equals(chunkId))
+            {
+               _audioFormat = readAudio(position + 8, (int) chunkSize);
+            }
+            else if("data".equals(chunkId))
+            {
+               _audioDataStart = position + 8;
+               _audioDataBytes = Math.min(chunkSize, fileSize - _audioDataStart);
+            }
+
+            // Move to the Next Chunk (Chunks are Padded to an Even Size)
+            position += 8 + chunkSize + (chunkSize & 1);
+         }
+
+         // Verify the Audio can be Copied
+         if(_audioFormat == null || _audioFormat.capacity() < 16 || _audioDataStart == 0)
+         {
+            throw new IOException(wavFile.getName() + " has no PCM format or data");
+         }
+
+         // Get the Block Size and Byte Rate of the Samples
+         _audioBytesPerSecond = _audioFormat.getInt(8);
+         _audioBlockAlign = _audioFormat.getShort(12) & 0xffff;
+         if(_audioBytesPerSecond <= 0 || _audioBlockAlign <= 0)
+         {
+            throw new IOException(wavFile.getName() + " has an invalid format");
+         }
+      }
+      catch (IOException e)
+      {
+         _audioChannel.close();
+         throw e;
+      }
+   }
+
+   /**
+    * writeHeader - Writes the RIFF Header, the Stream Headers and the
+    *               Start of the movi List
+    *
+    * @throws IOException
+    */
+   private void writeHeader() throws IOException
+   {
+      // Build the Header
+      final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      final int streams = (_audioChannel != null) ? 2 : 1;
+
+      // RIFF 'AVI '
+      putFourCC(header, "RIFF");
+      _riffSizePos = header.position();
+      header.putInt(0);
+      putFourCC(header, "AVI ");
+
+      // LIST 'hdrl'
+      final int hdrlSize = startList(header, "hdrl");
+
+      // avih - Main AVI Header
+      putFourCC(header, "avih");
+      header.putInt(56);
+      header.putInt(1000000 / _fps);                         // Microseconds per Frame
+      header.putInt(0);                                      // Max Bytes per Second
+      header.putInt(0);                                      // Padding Granularity
+      header.putInt(AVIF_HASINDEX);                          // Flags
+      _totalFramesPos = header.position();
+      header.putInt(0);                                      // Total Frames
+      header.putInt(0);                                      // Initial Frames
+      header.putInt(streams);                                // Streams
+      _suggestedBufferPos = header.position();
+      header.putInt(0);                                      // Suggested Buffer Size
+      header.putInt(_geometry.getWidth());
+      header.putInt(_geometry.getHeight());
+      header.putInt(0).putInt(0).putInt(0).putInt(0);        // Reserved
+
+      // LIST 'strl' - Video Stream
+      final int videoStrlSize = startList(header, "strl");
+      putFourCC(header, "strh");
+      header.putInt(56);
+      putFourCC(header, "vids");                             // Stream Type
+      putFourCC(header, "MJPG");                             // Codec
+      header.putInt(0);                                      // Flags
+      header.putShort((short) 0).putShort((short) 0);        // Priority, Language
+      header.putInt(0);                                      // Initial Frames
+      header.putInt(1);                                      // Scale
+      header.putInt(_fps);                                   // Rate (Rate / Scale = Frames per Second)
+      header.putInt(0);                                      // Start
+      _videoLengthPos = header.position();
+      header.putInt(0);                                      // Length (Frames)
+      _videoSuggestedBufferPos = header.position();
+      header.putInt(0);                                      // Suggested Buffer Size
+      header.putInt(-1);                                     // Quality
+      header.putInt(0);                                      // Sample Size
+      header.putShort((short) 0).putShort((short) 0);        // Frame Rectangle
+      header.putShort((short) _geometry.getWidth()).putShort((short) _geometry.getHeight());
+      putFourCC(header, "strf");
+      header.putInt(40);
+      header.putInt(40);                                     // BITMAPINFOHEADER Size
+      header.putInt(_geometry.getWidth());
+      header.putInt(_geometry.getHeight());
+      header.putShort((short) 1);                            // Planes
+      header.putShort((short) 24);                           // Bit Count
+      putFourCC(header, "MJPG");                             // Compression
+      header.putInt(_geometry.getFrameBytes());              // Image Size
+      header.putInt(0).putInt(0).putInt(0).putInt(0);        // Resolution, Colours
+      endList(header, videoStrlSize);
+
+      // LIST 'strl' - Audio Stream
+      if(_audioChannel != null)
+      {
+         final int audioStrlSize = startList(header, "strl");
+         putFourCC(header, "strh");
+         header.putInt(56);
+         putFourCC(header, "auds");                          // Stream Type
+         header.putInt(0);                                   // Codec (PCM)
+         header.putInt(0);                                   // Flags
+         header.putShort((short) 0).putShort((short) 0);     // Priority, Language
+         header.putInt(0);                                   // Initial Frames
+         header.putInt(_audioBlockAlign);                    // Scale
+         header.putInt(_audioBytesPerSecond);                // Rate (Rate / Scale = Blocks per Second)
+         header.putInt(0);                                   // Start
+         _audioLengthPos = header.position();
+         header.putInt(0);                                   // Length (Blocks)
+         header.putInt(_audioBytesPerSecond / _fps + _audioBlockAlign);  // Suggested Buffer Size
+         header.putInt(-1);                                  // Quality
+         header.putInt(_audioBlockAlign);                    // Sample Size
+         header.putShort((short) 0).putShort((short) 0).putShort((short) 0).putShort((short) 0);
+
+         // WAVEFORMATEX (a 16 Byte PCM Format gets a Zero cbSize)
+         final int formatSize = Math.max(18, _audioFormat.capacity());
+         putFourCC(header, "strf");
+         header.putInt(formatSize);
+         header.put(_audioFormat.duplicate());
+         for(int i = _audioFormat.capacity(); i < formatSize; i++)
+         {
+            header.put((byte) 0);
+         }
+         if((formatSize & 1) != 0)
+         {
+            header.put((byte) 0);
+         }
+         endList(header, audioStrlSize);
+      }
+      endList(header, hdrlSize);
+
+      // LIST 'movi' (Size Patched on Close)
+      putFourCC(header, "LIST");
+      _moviSizePos = header.position();
+      header.putInt(0);
+      _moviStart = header.position();
+      putFourCC(header, "movi");
+
+      // Write the Header
+      header.flip();
+      writeFully(header);
+   }
+
+   /**
+    * writeAudio - Copies the next Bytes of Audio into an Audio Chunk
+    *
+    * @param length - Number of Bytes to Copy
+    * @throws IOException
+    */
+   private void writeAudio(final int length) throws IOException
+   {
+      // Start the Chunk
+      final long position = startChunk(AUDIO_CHUNK, length);
+
+      // Copy the Samples straight from the (.wav) File
+      long copied = 0;
+      while(copied < length)
+      {
+         final long transferred = _audioChannel.transferTo(_audioDataStart + _audioBytesWritten + copied, length - copied, _channel);
+         if(transferred <= 0)
+         {
+            throw new EOFException("Audio ended early");
+         }
+         copied += transferred;
+      }
+      _audioBytesWritten += length;
+
+      // End the Chunk
+      endChunk(AUDIO_CHUNK, position, length);
+   }
+
+   /**
+    * startChunk - Writes the Header of a movi Chunk
+    *
+    * @param chunkId - Chunk Id
+    * @param length - Size of the Chunk Data
+    * @return long - Position of the Chunk
+    * @throws IOException
+    */
+   private long startChunk(final String chunkId, final int length) throws IOException
+   {
+      // Get Position of the Chunk
+      final long position = _channel.position();
+
+      // Check that the Chunk and the Index still Fit in the File
+      if(position + 8 + length + 1 + 8 + _index.size() + INDEX_ENTRY_BYTES > MAX_FILE_BYTES)
+      {
+         throw new IOException("AVI file would exceed " + MAX_FILE_BYTES + " bytes, use the ffmpeg conversion");
+      }
+
+      // Write the Chunk Header
+      _chunkHeader.clear();
+      _chunkHeader.put(chunkId.getBytes(StandardCharsets.US_ASCII));
+      _chunkHeader.putInt(length);
+      _chunkHeader.flip();
+      writeFully(_chunkHeader);
+
+      return position;
+   }
+
+   /**
+    * endChunk - Pads a movi Chunk to an Even Size and Indexes it
+    *
+    * @param chunkId - Chunk Id
+    * @param position - Position of the Chunk
+    * @param length - Size of the Chunk Data
+    * @throws IOException
+    */
+   private void endChunk(final String chunkId, final long position, final int length) throws IOException
+   {
+      // Pad the Chunk
+      if((length & 1) != 0)
+      {
+         _chunkHeader.clear();
+         _chunkHeader.put((byte) 0);
+         _chunkHeader.flip();
+         writeFully(_chunkHeader);
+      }
+
+      // Index the Chunk (every Motion-JPEG Frame is a Key Frame)
+      _indexEntry.clear();
+      _indexEntry.put(chunkId.getBytes(StandardCharsets.US_ASCII));
+      _indexEntry.putInt(AVIIF_KEYFRAME);
+      _indexEntry.putInt((int) (position - _moviStart));
+      _indexEntry.putInt(length);
+      _index.write(_indexEntry.array(), 0, INDEX_ENTRY_BYTES);
+
+      // Track the Largest Chunk
+      _largestChunk = Math.max(_largestChunk, length);
+   }
+
+   /**
+    * writeFrameAudio - Writes the Audio that plays up to the End
+    *                   of the Last Frame Written
+    *
+    * @throws IOException
+    */
+   private void writeFrameAudio() throws IOException
+   {
+      // Check for Audio
+      if(_audioChannel != null)
+      {
+         // Audio up to the End of the Frame (whole Sample Blocks only)
+         final long blocks = (long) _frameCount * _audioBytesPerSecond / _fps / _audioBlockAlign;
+         final long audioEnd = Math.min(_audioDataBytes, blocks * _audioBlockAlign);
+
+         // Write the Audio
+         if(audioEnd > _audioBytesWritten)
+         {
+            writeAudio((int) (audioEnd - _audioBytesWritten));
+         }
+      }
+   }
+
+   /**
+    * readAudio - Reads Bytes of the (.wav) File
+    *
+    * @param position - Position to Read from
+    * @param length - Number of Bytes
+    * @return ByteBuffer - Little Endian, position 0
+    * @throws IOException
+    */
+   private ByteBuffer readAudio(final long position, final int length) throws IOException
+   {
+      // Read until the Buffer is Full
+      final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+      while(buffer.hasRemaining())
+      {
+         if(_audioChannel.read(buffer, position + buffer.position()) < 0)
+         {
+            throw new EOFException("WAVE file is truncated");
+         }
+      }
+      buffer.flip();
+
+      return buffer;
+   }
+
+   /**
+    * writeFully - Writes the whole Buffer at the current Position
+    *
+    * @param buffer - The Buffer
+    * @throws IOException
+    */
+   private void writeFully(final ByteBuffer buffer) throws IOException
+   {
+      while(buffer.hasRemaining())
+      {
+         _channel.write(buffer);
+      }
+   }
+
+   /**
+    * patchInt - Overwrites a 32 Bit Header Field
+    *
+    * @param position - Position of the Field
+    * @param value - The Value
+    * @throws IOException
+    */
+   private void patchInt(final long position, final long value) throws IOException
+   {
+      // Build the Field
+      final ByteBuffer field = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+      field.putInt((int) value);
+      field.flip();
+
+      // Write the Field
+      while(field.hasRemaining())
+      {
+         _channel.write(field, position + field.position());
+      }
+   }
+
+   /**
+    * closeChannels - Closes the AVI and (.wav) Files
+    *
+    * @throws IOException
+    */
+   private void closeChannels() throws IOException
+   {
+      try
+      {
+         _channel.close();
+      }
+      finally
+      {
+         if(_audioChannel != null)
+         {
+            _audioChannel.close();
+         }
+      }
+   }
+
+   /**
+    * startList - Starts a LIST in the Header
+    *
+    * @param header - The Header
+    * @param listType - Type of the LIST
+    * @return int - Position of the LIST Size
+    */
+   private static int startList(final ByteBuffer header, final String listType)
+   {
+      putFourCC(header, "LIST");
+      final int sizePosition = header.position();
+      header.putInt(0);
+      putFourCC(header, listType);
+
+      return sizePosition;
+   }
+
+   /**
+    * endList - Fills in the Size of a LIST in the Header
+    *
+    * @param header - The Header
+    * @param sizePosition - Position of the LIST Size
+    */
+   private static void endList(final ByteBuffer header, final int sizePosition)
+   {
+      header.putInt(sizePosition, header.position() - sizePosition - 4);
+   }
+
+   /**
+    * putFourCC - Writes a Four Character Code
+    *
+    * @param buffer - The Buffer
+    * @param fourCC - The Code
+    */
+   private static void putFourCC(final ByteBuffer buffer, final String fourCC)
+   {
+      buffer.put(fourCC.getBytes(StandardCharsets.US_ASCII));
+   }
+
+   /**
+    * fourCC - Reads a Four Character Code
+    *
+    * @param buffer - The Buffer
+    * @param position - Position of the Code
+    * @return String
+    */
+   private static String fourCC(final ByteBuffer buffer, final int position)
+   {
+      final byte[] code = new byte[4];
+      for(int i = 0; i < code.length; i++)
+      {
+         code[i] = buffer.get(position + i);
+      }
+
+      return new String(code, StandardCharsets.US_ASCII);
+   }
+}
\ No newline at end of file
@@ -0,0 +1,172 @@
+package conversion;
+
+import java.nio.ByteBuffer;
+
+/**
+ * PixelConverter - Kernels that turn a planar (.rgb) Frame (all Red,
+ *                  then all Green, then all Blue Bytes) into the packed
+ *                  Pixel Layouts used by the Image Writers and ffmpeg
+ */
+public class PixelConverter
+{
+   /**
+    * Private Constructor
+    */
+   private PixelConverter()
+   {
+   }
+
+   /**
+    * toPackedRgb - Writes the Frame as 0x00RRGGBB ints, the Layout of
+    *               the DataBufferInt behind a TYPE_INT_RGB BufferedImage
+    *
+    * @param planar - The Planar Frame
+    * @param packed - Destination Pixels (at least pixelCount long)
+    * @param pixelCount - Number of Pixels in the Frame
+    */
+   public static void toPackedRgb(final ByteBuffer planar, final int[] packed, final int pixelCount)
+   {
+      // Offsets of the Green/Blue Planes
+      final int greenPlane = pixelCount;
+      final int bluePlane = 2 * pixelCount;
+
+      // Iterate over every Pixel
+      for(int i = 0; i < pixelCount; i++)
+      {
+         // Combine the Red/Green/Blue Samples
+         packed[i] = ((planar.get(i) & 0xff) << 16)
+                   | ((planar.get(greenPlane + i) & 0xff) << 8)
+                   |  (planar.get(bluePlane + i) & 0xff);
+      }
+   }
+
+   /**
+    * toRgb24 - Writes the Frame as interleaved R, G, B Bytes
+    *           (ffmpeg's rgb24 Pixel Format)
+    *
+    * @param planar - The Planar Frame
+    * @param rgb24 - Destination Bytes (at least 3 * pixelCount long)
+    * @param pixelCount - Number of Pixels in the Frame
+    */
+   public static void toRgb24(final ByteBuffer planar, final byte[] rgb24, final int pixelCount)
+   {
+      toRgb24(planar, rgb24, pixelCount, 0, pixelCount);
+   }
+
+   /**
+    * toRgb24 - Writes the Frame as interleaved R, G, B Bytes at an Offset
+    *           (so several Frames can be Packed into one Buffer)
+    *
+    * @param planar - The Planar Frame
+    * @param rgb24 - Destination Bytes (at least offset + 3 * pixelCount long)
+    * @param offset - Offset of the Frame in the Destination
+    * @param pixelCount - Number of Pixels in the Frame
+    */
+   public static void toRgb24(final ByteBuffer planar, final byte[] rgb24, final int offset, final int pixelCount)
+   {
+      // Offsets of the Green/Blue Planes
+      final int greenPlane = pixelCount;
+      final int bluePlane = 2 * pixelCount;
+
+      // Iterate over every Pixel
+      for(int i = 0, j = offset; i < pixelCount; i++, j += 3)
+      {
+         // Interleave the Red/Green/Blue Samples
+         rgb24[j] = planar.get(i);
+         rgb24[j + 1] = planar.get(greenPlane + i);
+         rgb24[j + 2] = planar.get(bluePlane + i);
+      }
+   }
+
+   /**
+    * toRgb24 - Writes the Pixels in [firstPixel, endPixel) of the Frame as
+    *           interleaved R, G, B Bytes. Disjoint Ranges of one Frame may
+    *           be Converted by different Threads at once
+    *
+    * @param planar - The Planar Frame
+    * @param rgb24 - Destination Bytes (at least 3 * pixelCount long)
+    * @param pixelCount - Number of Pixels in the Frame
+    * @param firstPixel - First Pixel of the Range
+    * @param endPixel - Pixel after the Last Pixel of the Range
+    */
+   public static void toRgb24(final ByteBuffer planar, final byte[] rgb24, final int pixelCount, final int firstPixel, final int endPixel)
+   {
+      // Offsets of the Green/Blue Planes
+      final int greenPlane = pixelCount;
+      final int bluePlane = 2 * pixelCount;
+
+      // Iterate over every Pixel in the Range
+      for(int i = firstPixel, j = 3 * firstPixel; i < endPixel; i++, j += 3)
+      {
+         // Interleave the Red/Green/Blue Samples
+         rgb24[j] = planar.get(i);
+         rgb24[j + 1] = planar.get(greenPlane + i);
+         rgb24[j + 2] = planar.get(bluePlane + i);
+      }
+   }
+
+   /**
+    * toYuv420p - Writes the Rows in [firstRow, endRow) of the Frame as
+    *             planar yuv420p (ffmpeg's Default, BT.601 Limited Range):
+    *             a full Size Y Plane, then U and V Planes with one Sample
+    *             per 2x2 Block, Averaged. Ranges must start on an Even Row;
+    *             Disjoint Ranges may be Converted by different Threads
+    *
+    * @param planar - The Planar Frame
+    * @param yuv - Destination Bytes (at least the yuv420p Frame Size)
+    * @param width - Width of the Frame
+    * @param height - Height of the Frame
+    * @param firstRow - First Row of the Range (Even)
+    * @param endRow - Row after the Last Row of the Range
+    */
+   public static void toYuv420p(final ByteBuffer planar, final byte[] yuv, final int width, final int height,
+                                final int firstRow, final int endRow)
+   {
+      // Offsets of the Green/Blue Planes
+      final int pixelCount = width * height;
+      final int greenPlane = pixelCount;
+      final int bluePlane = 2 * pixelCount;
+
+      // Offsets and Size of the U/V Planes (Odd Edges get a Half Block)
+      final int chromaWidth = (width + 1) / 2;
+      final int uPlane = pixelCount;
+      final int vPlane = uPlane + chromaWidth * ((height + 1) / 2);
+
+      // Luma of every Pixel in the Range (one straight Loop the JIT can Unroll)
+      for(int i = firstRow * width, end = endRow * width; i < end; i++)
+      {
+         final int r = planar.get(i) & 0xff;
+         final int g = planar.get(greenPlane + i) & 0xff;
+         final int b = planar.get(bluePlane + i) & 0xff;
+         yuv[i] = (byte) (((66 * r + 129 * g + 25 * b + 128) >> 8) + 16);
+      }
+
+      // Chroma of every 2x2 Block in the Range
+      for(int cy = firstRow / 2, cyEnd = (endRow + 1) / 2; cy < cyEnd; cy++)
+      {
+         // Rows of the Block (an Odd Last Row is its own Pair)
+         final int row0 = 2 * cy * width;
+         final int row1 = (2 * cy + 1 < height) ? row0 + width : row0;
+
+         for(int cx = 0; cx < chromaWidth; cx++)
+         {
+            // Columns of the Block (an Odd Last Column is its own Pair)
+            final int x0 = 2 * cx;
+            final int x1 = (x0 + 1 < width) ? x0 + 1 : x0;
+
+            // Sum the Red/Green/Blue Samples of the Block
+            final int r = (planar.get(row0 + x0) & 0xff) + (planar.get(row0 + x1) & 0xff)
+                        + (planar.get(row1 + x0) & 0xff) + (planar.get(row1 + x1) & 0xff);
+            final int g = (planar.get(greenPlane + row0 + x0) & 0xff) + (planar.get(greenPlane + row0 + x1) & 0xff)
+                        + (planar.get(greenPlane + row1 + x0) & 0xff) + (planar.get(greenPlane + row1 + x1) & 0xff);
+            final int b = (planar.get(bluePlane + row0 + x0) & 0xff) + (planar.get(bluePlane + row0 + x1) & 0xff)
+                        + (planar.get(bluePlane + row1 + x0) & 0xff) + (planar.get(bluePlane + row1 + x1) & 0xff);
+
+            // Convert the Average (the Sums are 4x, so Shift 2 more)
+            final int c = cy * chromaWidth + cx;
+            yuv[uPlane + c] = (byte) (((-38 * r - 74 * g + 112 * b + 512) >> 10) + 128);
+            yuv[vPlane + c] = (byte) (((112 * r - 94 * g - 18 * b + 512) >> 10) + 128);
+         }
+      }
+   }
+}
\ No newline at end of file
@@ -0,0 +1,201 @@
+package conversion;
+
+import java.nio.ByteBuffer;
+
+/**
+ * PooledFrame - Reusable Buffers for one Frame moving through the
+ *               Conversion Pipeline. Frames are handed out by a FramePool
+ *               and returned to it once the Frame has been Encoded
+ */
+public class PooledFrame
+{
+   /** Frame Number currently held (0 when Unused) */
+   private int _frameNum;
+
+   /** Position of the Frame among the Distinct Frames of its Pipeline */
+   private int _sequence;
+
+   /** Number of Source Frames the Frame stands for (itself and the Duplicates after it) */
+   private int _repeatCount;
+
+   /** Size of the Frame currently held in Bytes */
+   private int _frameBytes;
+
+   /** Planar R, G and B Data as Read from the (.rgb) File */
+   private ByteBuffer _planar;
+
+   /** Raw Pixels handed to the Encoder (rgb24 or yuv420p) */
+   private byte[] _raw;
+
+   /** Size of the Raw Pixels of the Frame in Bytes */
+   private int _rawBytes;
+
+   /** Compressed Frame (for Converters which Encode an Image) */
+   private final EncodedFrameBuffer _encoded;
+
+   /**
+    * Constructor
+    *
+    * @param frameBytes - Size of a Frame in Bytes
+    */
+   public PooledFrame(final int frameBytes)
+   {
+      // Allocate the Planar Buffer outside of the Heap so Channels read straight into it
+      _planar = ByteBuffer.allocateDirect(frameBytes);
+
+      // Allocate the Raw Pixels (no Raw Format is Larger than the Planar Frame)
+      _raw = new byte[frameBytes];
+
+      // Initialize Compressed Frame (grows to the largest Frame Encoded)
+      _encoded = new EncodedFrameBuffer(0);
+
+      // Initialize Frame Size
+      _frameBytes = frameBytes;
+   }
+
+   /**
+    * resize - Prepares the Buffers to hold a Frame of the given Size.
+    *          The Buffers only grow, so Frames of Videos with different
+    *          Geometries can share a Pool without Reallocating each time
+    *
+    * @param frameBytes - Size of the Frame in Bytes
+    */
+   public void resize(final int frameBytes)
+   {
+      // Grow the Buffers if the Frame does not Fit
+      if(_planar.capacity() < frameBytes)
+      {
+         _planar = ByteBuffer.allocateDirect(frameBytes);
+         _raw = new byte[frameBytes];
+      }
+
+      // Limit the Planar Buffer to the Frame
+      _frameBytes = frameBytes;
+      _planar.clear();
+      _planar.limit(frameBytes);
+   }
+
+   /**
+    * getFrameBytes - Gets the Size of the Frame currently held in Bytes
+    *
+    * @return int
+    */
+   public int getFrameBytes()
+   {
+      return _frameBytes;
+   }
+
+   /**
+    * getFrameNum - Gets the Frame Number currently held
+    *
+    * @return int
+    */
+   public int getFrameNum()
+   {
+      return _frameNum;
+   }
+
+   /**
+    * setFrameNum - Sets the Frame Number currently held
+    *
+    * @param frameNum - The Frame Number
+    */
+   public void setFrameNum(final int frameNum)
+   {
+      _frameNum = frameNum;
+   }
+
+   /**
+    * getSequence - Gets the Position of the Frame among the
+    *               Distinct Frames of its Pipeline
+    *
+    * @return int
+    */
+   public int getSequence()
+   {
+      return _sequence;
+   }
+
+   /**
+    * setSequence - Sets the Position of the Frame among the
+    *               Distinct Frames of its Pipeline
+    *
+    * @param sequence - The Position
+    */
+   public void setSequence(final int sequence)
+   {
+      _sequence = sequence;
+   }
+
+   /**
+    * getRepeatCount - Gets the Number of Source Frames the Frame stands
+    *                  for (1 unless Identical Frames followed it)
+    *
+    * @return int
+    */
+   public int getRepeatCount()
+   {
+      return _repeatCount;
+   }
+
+   /**
+    * setRepeatCount - Sets the Number of Source Frames the Frame stands for
+    *
+    * @param repeatCount - The Number of Source Frames
+    */
+   public void setRepeatCount(final int repeatCount)
+   {
+      _repeatCount = repeatCount;
+   }
+
+   /**
+    * getPlanar - Gets the Planar Buffer of the Frame
+    *
+    * @return ByteBuffer
+    */
+   public ByteBuffer getPlanar()
+   {
+      return _planar;
+   }
+
+   /**
+    * getRaw - Gets the Raw Pixels of the Frame (only the
+    *          first getRawBytes() Bytes belong to the Frame)
+    *
+    * @return byte[]
+    */
+   public byte[] getRaw()
+   {
+      return _raw;
+   }
+
+   /**
+    * getRawBytes - Gets the Size of the Raw Pixels of the Frame in Bytes
+    *
+    * @return int
+    */
+   public int getRawBytes()
+   {
+      return _rawBytes;
+   }
+
+   /**
+    * setRawBytes - Sets the Size of the Raw Pixels of the Frame in Bytes
+    *
+    * @param rawBytes - Size of the Raw Pixels
+    */
+   public void setRawBytes(final int rawBytes)
+   {
+      _rawBytes = rawBytes;
+   }
+
+   /**
+    * getEncoded - Gets the Compressed Frame
+    *
+    * @return EncodedFrameBuffer
+    */
+   public EncodedFrameBuffer getEncoded()
+   {
+      return _encoded;
+   }
+}
\ No newline at end of file
@@ -0,0 +1,156 @@
+package conversion;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import conversion.interfaces.IFrameConverter;
+import data.FrameGeometry;
+import enums.ERawPixelFormat;
+
+/**
+ * RawFrameConverter - Converts the Planes of a Frame into the Raw Pixels of
+ *                     ffmpeg's rawvideo Input: Interleaved rgb24, or yuv420p
+ *                     so the Color Conversion runs here on every Core (not in
+ *                     ffmpeg's single swscale Thread) and half the Bytes cross
+ *                     the Pipe. Large Frames are split into Row Tiles Converted
+ *                     on a Work-Stealing Pool, so a Frame is not bound to one Thread
+ */
+public class RawFrameConverter implements IFrameConverter
+{
+   /** Frames with at least this many Pixels are Converted as parallel Row Tiles */
+   private static final int TILING_THRESHOLD = 640 * 480;
+
+   /** Target Number of Pixels in a Row Tile */
+   private static final int TILE_PIXELS = 64 * 1024;
+
+   /** Pool the Row Tiles of Large Frames are Converted on */
+   private final ForkJoinPool _tilePool;
+
+   /** Pixel Format the Frames are Converted to */
+   private final ERawPixelFormat _pixelFormat;
+
+   /**
+    * Constructor
+    *
+    * @param tilePool - Pool the Row Tiles of Large Frames are Converted on
+    * @param pixelFormat - Pixel Format the Frames are Converted to
+    */
+   public RawFrameConverter(final ForkJoinPool tilePool, final ERawPixelFormat pixelFormat)
+   {
+      _tilePool = tilePool;
+      _pixelFormat = pixelFormat;
+   }
+
+   @Override
+   public void convert(final PooledFrame frame, final FrameGeometry geometry)
+   {
+      // Check if the Frame is worth Splitting
+      if(geometry.getPixelCount() >= TILING_THRESHOLD)
+      {
+         // Convert a Row Tile per Thread (an Even Number of Rows, so no 2x2 Chroma Block is Split)
+         final int tileRows = Math.max(2, (TILE_PIXELS / geometry.getWidth()) & ~1);
+         _tilePool.invoke(new RowTileTask(frame, geometry, _pixelFormat, 0, geometry.getHeight(), tileRows));
+      }
+      else
+      {
+         // Convert the whole Frame
+         convertRows(frame, geometry, _pixelFormat, 0, geometry.getHeight());
+      }
+
+      // Record the Size of the Raw Pixels
+      frame.setRawBytes(_pixelFormat.getFrameBytes(geometry));
+   }
+
+   /**
+    * convertRows - Converts the Rows in [firstRow, endRow) of a Frame
+    *
+    * @param frame - The Frame being Converted
+    * @param geometry - Geometry of the Frame
+    * @param pixelFormat - Pixel Format the Frame is Converted to
+    * @param firstRow - First Row of the Range (Even)
+    * @param endRow - Row after the Last Row of the Range
+    */
+   private static void convertRows(final PooledFrame frame, final FrameGeometry geometry, final ERawPixelFormat pixelFormat,
+                                   final int firstRow, final int endRow)
+   {
+      final int width = geometry.getWidth();
+
+      if(pixelFormat == ERawPixelFormat.YUV420P)
+      {
+         // Convert the Rows to Y and their 2x2 Blocks to U/V
+         PixelConverter.toYuv420p(frame.getPlanar(), frame.getRaw(), width, geometry.getHeight(), firstRow, endRow);
+      }
+      else
+      {
+         // Interleave the Red/Green/Blue Planes of the Rows
+         PixelConverter.toRgb24(frame.getPlanar(), frame.getRaw(), geometry.getPixelCount(), firstRow * width, endRow * width);
+      }
+   }
+
+   /**
+    * RowTileTask - Fork/Join Task which Splits the Rows of a Frame until
+    *               they are a single Tile, then Converts that Tile
+    */
+   private static class RowTileTask extends RecursiveAction
+   {
+      /** Serial Version UID */
+      private static final long serialVersionUID = 1L;
+
+      /** The Frame being Converted */
+      private final PooledFrame _frame;
+
+      /** Geometry of the Frame */
+      private final FrameGeometry _geometry;
+
+      /** Pixel Format the Frame is Converted to */
+      private final ERawPixelFormat _pixelFormat;
+
+      /** First Row and the Row after the Last Row of the Range */
+      private final int _firstRow;
+      private final int _endRow;
+
+      /** Number of Rows in a Tile */
+      private final int _tileRows;
+
+      /**
+       * Constructor
+       *
+       * @param frame - The Frame being Converted
+       * @param geometry - Geometry of the Frame
+       * @param pixelFormat - Pixel Format the Frame is Converted to
+       * @param firstRow - First Row of the Range (Even)
+       * @param endRow - Row after the Last Row of the Range
+       * @param tileRows - Number of Rows in a Tile (Even)
+       */
+      public RowTileTask(final PooledFrame frame, final FrameGeometry geometry, final ERawPixelFormat pixelFormat,
+                         final int firstRow, final int endRow, final int tileRows)
+      {
+         _frame = frame;
+         _geometry = geometry;
+         _pixelFormat = pixelFormat;
+         _firstRow = firstRow;
+         _endRow = endRow;
+         _tileRows = tileRows;
+      }
+
+      @Override
+      protected void compute()
+      {
+         // Check if Range is a single Tile
+         if((_endRow - _firstRow) <= _tileRows)
+         {
+            // Convert the Rows of the Tile
+            convertRows(_frame, _geometry, _pixelFormat, _firstRow, _endRow);
+         }
+         else
+         {
+            // Split the Rows in Half (on an Even Row)
+            final int midRow = _firstRow + ((((_endRow - _firstRow) >>> 1) + 1) & ~1);
+
+            // Convert both Halves
+            invokeAll(new RowTileTask(_frame, _geometry, _pixelFormat, _firstRow, midRow, _tileRows),
+                      new RowTileTask(_frame, _geometry, _pixelFormat, midRow, _endRow, _tileRows));
+         }
+      }
+   }
+}
\ No newline at end of file
@@ -0,0 +1,137 @@
+package conversion;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+
+import data.FrameGeometry;
+
+/**
+ * RgbFrameReader - Reads planar (.rgb) Frames into Caller owned Buffers
+ *                  (the Pooled Frames of the Pipelines), so reading a
+ *                  Frame allocates nothing on the Heap, and Determines
+ *                  the Geometry of a Folder's Frames
+ */
+public class RgbFrameReader
+{
+   /** Suffix of the Descriptor which gives the Geometry of a Folder's Frames */
+   private static final String DESCRIPTOR_SUFFIX = ".properties";
+
+   /**
+    * Private Constructor
+    */
+   private RgbFrameReader()
+   {
+   }
+
+   /**
+    * frameFile - Gets the File of a Frame. Frame Files are
+    *             named <Folder Name><Frame Number>.rgb
+    *
+    * @param rgbFolder - The Folder of (.rgb) Files
+    * @param frameNum - The Frame Number
+    * @return File
+    */
+   public static File frameFile(final File rgbFolder, final int frameNum)
+   {
+      return new File(rgbFolder, rgbFolder.getName() + String.format("%04d", frameNum) + ".rgb");
+   }
+
+   /**
+    * detectGeometry - Determines the Geometry of a Folder's Frames. A
+    *                  Descriptor (<Folder Name>.properties with width and
+    *                  height Keys) wins; otherwise the Geometry is Inferred
+    *                  from the Size of the first Frame and its Aspect Ratio
+    *
+    * @param rgbFolder - The Folder of (.rgb) Files
+    * @param frameCount - The Number of Frames in the Folder
+    * @return FrameGeometry
+    * @throws IOException - If the Geometry cannot be Determined
+    */
+   public static FrameGeometry detectGeometry(final File rgbFolder, final int frameCount) throws IOException
+   {
+      // Check for a Descriptor
+      final File descriptor = new File(rgbFolder, rgbFolder.getName() + DESCRIPTOR_SUFFIX);
+      if(descriptor.isFile())
+      {
+         // Read the Descriptor
+         final Properties properties = new Properties();
+         try(InputStream input = Files.newInputStream(descriptor.toPath()))
+         {
+            properties.load(input);
+         }
+
+         try
+         {
+            // Get Width/Height
+            final int width = Integer.parseInt(properties.getProperty("width", "").trim());
+            final int height = Integer.parseInt(properties.getProperty("height", "").trim());
+
+            return new FrameGeometry(width, height);
+         }
+         catch (IllegalArgumentException e)
+         {
+            throw new IOException(descriptor.getName() + " does not give a valid width and height", e);
+         }
+      }
+
+      // Infer the Geometry from the first Frame present
+      for(int frameNum = 1; frameNum <= frameCount; frameNum++)
+      {
+         final File file = frameFile(rgbFolder, frameNum);
+         if(file.isFile())
+         {
+            // Match the Size against the known Aspect Ratios
+            final FrameGeometry geometry = FrameGeometry.fromFrameBytes(file.length());
+            if(geometry == null)
+            {
+               throw new IOException("Cannot infer the frame size of " + file.getName() + ", add " + descriptor.getName());
+            }
+
+            return geometry;
+         }
+      }
+
+      throw new IOException(rgbFolder.getName() + " has no frames");
+   }
+
+   /**
+    * read - Reads a Frame into a Caller owned Buffer, filling it
+    *        from position 0 up to its Limit
+    *
+    * @param file - The (.rgb) File
+    * @param frameBuffer - Buffer Limited to exactly one Frame
+    * @return ByteBuffer - The Buffer (position 0, limit Frame Size)
+    * @throws IOException
+    */
+   public static ByteBuffer read(final File file, final ByteBuffer frameBuffer) throws IOException
+   {
+      // Reset the Buffer (keeping its Limit)
+      frameBuffer.rewind();
+
+      // Open Channel to the Frame
+      try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+      {
+         // Read until the Buffer is Full
+         while(frameBuffer.hasRemaining())
+         {
+            // Check for a Truncated Frame
+            if(channel.read(frameBuffer) < 0)
+            {
+               throw new EOFException(file.getName() + " is shorter than a frame");
+            }
+         }
+      }
+
+      // Prepare the Buffer for Reading
+      frameBuffer.flip();
+
+      return frameBuffer;
+   }
+}
\ No newline at end of file
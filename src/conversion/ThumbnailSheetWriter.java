@@ -0,0 +1,289 @@
+package conversion;
+
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import conversion.interfaces.IFrameReadListener;
+import data.FrameGeometry;
+import data.ThumbnailIndex;
+
+/**
+ * ThumbnailSheetWriter - Downscales every Interval'th Frame as it is Read and
+ *                        packs the Thumbnails into Sprite Sheet PNGs with an
+ *                        Index, so the Video Pages can Preview any Frame while
+ *                        Scrubbing without Decoding the Video. Pipelines of
+ *                        different Segments may add Frames at the same time
+ */
+public class ThumbnailSheetWriter implements IFrameReadListener, Closeable
+{
+   /** Width of a Thumbnail (the Height follows the Aspect Ratio, 72 for CIF) */
+   private static final int THUMB_WIDTH = 88;
+
+   /** Size of the Grid of Thumbnails on a Sheet */
+   private static final int SHEET_COLUMNS = 10;
+   private static final int SHEET_ROWS = 10;
+
+   /** Folder the Sheets are Written to */
+   private final File _folder;
+
+   /** Geometry of the Frames */
+   private final FrameGeometry _geometry;
+
+   /** Index of the Sheets */
+   private final ThumbnailIndex _index;
+
+   /** Whether Sheets of an earlier Conversion with the same Index are Reused (Frames that are not Read again keep their Thumbnails) */
+   private final boolean _reuseSheets;
+
+   /** Sheets being Filled */
+   private final Map<Integer, Sheet> _openSheets;
+
+   /**
+    * Constructor
+    *
+    * @param folder - Folder the Sheets are Written to
+    * @param frameCount - Number of Frames in the Video
+    * @param geometry - Geometry of the Frames
+    * @param interval - Number of Frames between Thumbnails
+    * @throws IOException - If the Folder can not be Created
+    */
+   public ThumbnailSheetWriter(final File folder, final int frameCount, final FrameGeometry geometry, final int interval) throws IOException
+   {
+      _folder = folder;
+      _geometry = geometry;
+
+      // Create the Folder
+      if(!folder.isDirectory() && !folder.mkdirs())
+      {
+         throw new IOException("Could not create " + folder.getName());
+      }
+
+      // Size the Thumbnails to the Aspect Ratio of the Frames
+      final int thumbHeight = Math.max(1, Math.round((float) THUMB_WIDTH * geometry.getHeight() / geometry.getWidth()));
+      _index = new ThumbnailIndex(frameCount, interval, THUMB_WIDTH, thumbHeight, SHEET_COLUMNS, SHEET_ROWS);
+
+      // Check for Sheets of an earlier Conversion
+      _reuseSheets = _index.matches(ThumbnailIndex.load(folder));
+
+      // Initialize Open Sheets
+      _openSheets = new HashMap<Integer, Sheet>();
+   }
+
+   @Override
+   public boolean wantsFrame(final int frameNum)
+   {
+      // Only Frames that get a Thumbnail
+      return _index.hasThumbnail(frameNum);
+   }
+
+   /**
+    * frameRead - Adds the Thumbnail of a Frame, Writing its Sheet once every
+    *             Thumbnail of the Sheet has been Added
+    *
+    * @param frameNum - The Frame Number
+    * @param planar - The Planar Frame Data (its Position is unchanged)
+    * @throws IOException
+    */
+   @Override
+   public void frameRead(final int frameNum, final ByteBuffer planar) throws IOException
+   {
+      // Downscale outside the Lock (the Sheets are only touched briefly)
+      final int[] pixels = downscale(planar);
+
+      // Get Thumbnail and its Sheet
+      final int thumbnail = _index.getThumbnail(frameNum);
+      final int sheetNum = _index.getSheet(thumbnail);
+
+      synchronized(this)
+      {
+         // Get the Sheet (Opened on its first Thumbnail)
+         Sheet sheet = _openSheets.get(sheetNum);
+         if(sheet == null)
+         {
+            sheet = openSheet(sheetNum);
+            _openSheets.put(sheetNum, sheet);
+         }
+
+         // Draw the Thumbnail
+         sheet.image.setRGB(_index.getX(thumbnail), _index.getY(thumbnail), _index.getThumbWidth(), _index.getThumbHeight(),
+                            pixels, 0, _index.getThumbWidth());
+         sheet.added++;
+
+         // Write the Sheet once it is Full
+         if(sheet.added >= sheet.capacity)
+         {
+            _openSheets.remove(sheetNum);
+            writeSheet(sheetNum, sheet.image);
+         }
+      }
+   }
+
+   /**
+    * close - Writes the Sheets that are not yet Full and the Index
+    *
+    * @throws IOException
+    */
+   @Override
+   public synchronized void close() throws IOException
+   {
+      // Write the remaining Sheets
+      for(Map.Entry<Integer, Sheet> entry : _openSheets.entrySet())
+      {
+         writeSheet(entry.getKey(), entry.getValue().image);
+      }
+      _openSheets.clear();
+
+      // Write the Index
+      _index.save(_folder);
+   }
+
+   /**
+    * openSheet - Starts Filling a Sheet, from the Sheet of an
+    *             earlier Conversion if it can be Reused
+    *
+    * @param sheetNum - The Sheet
+    * @return Sheet
+    */
+   private Sheet openSheet(final int sheetNum)
+   {
+      // Get Size of the Sheet
+      final int width = _index.getColumns() * _index.getThumbWidth();
+      final int height = _index.getRows() * _index.getThumbHeight();
+      final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+      // Start from the earlier Sheet
+      final File sheetFile = ThumbnailIndex.sheetFile(_folder, sheetNum);
+      if(_reuseSheets && sheetFile.isFile())
+      {
+         try
+         {
+            final BufferedImage earlier = ImageIO.read(sheetFile);
+            if(earlier != null)
+            {
+               image.getGraphics().drawImage(earlier, 0, 0, null);
+            }
+         }
+         catch (IOException e)
+         {
+            e.printStackTrace();
+         }
+      }
+
+      // Count the Thumbnails on the Sheet (the Last Sheet may not be Full)
+      final int first = sheetNum * _index.getThumbnailsPerSheet();
+      final int capacity = Math.min(_index.getThumbnailsPerSheet(), _index.getThumbnailCount() - first);
+
+      return new Sheet(image, capacity);
+   }
+
+   /**
+    * writeSheet - Writes a Sheet (through a Temporary File,
+    *              so Readers never see a Partial Sheet)
+    *
+    * @param sheetNum - The Sheet
+    * @param image - Image of the Sheet
+    * @throws IOException
+    */
+   private void writeSheet(final int sheetNum, final BufferedImage image) throws IOException
+   {
+      // Write a Temporary Copy
+      final File sheetFile = ThumbnailIndex.sheetFile(_folder, sheetNum);
+      final File tempFile = new File(_folder, sheetFile.getName() + ".tmp");
+      if(!ImageIO.write(image, "png", tempFile))
+      {
+         throw new IOException("No PNG writer for " + sheetFile.getName());
+      }
+
+      // Replace the Sheet
+      Files.move(tempFile.toPath(), sheetFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+   }
+
+   /**
+    * downscale - Shrinks a Planar Frame to a Thumbnail, Averaging
+    *             the Block of Pixels behind each Thumbnail Pixel
+    *
+    * @param planar - The Planar Frame Data
+    * @return int[] - Packed RGB Pixels of the Thumbnail
+    */
+   private int[] downscale(final ByteBuffer planar)
+   {
+      // Get Sizes of the Frame and Thumbnail
+      final int width = _geometry.getWidth();
+      final int height = _geometry.getHeight();
+      final int pixelCount = _geometry.getPixelCount();
+      final int thumbWidth = _index.getThumbWidth();
+      final int thumbHeight = _index.getThumbHeight();
+      final int[] pixels = new int[thumbWidth * thumbHeight];
+
+      // Iterate over the Thumbnail Pixels
+      for(int ty = 0; ty < thumbHeight; ty++)
+      {
+         // Rows behind the Thumbnail Row
+         final int y0 = ty * height / thumbHeight;
+         final int y1 = Math.max(y0 + 1, (ty + 1) * height / thumbHeight);
+
+         for(int tx = 0; tx < thumbWidth; tx++)
+         {
+            // Columns behind the Thumbnail Pixel
+            final int x0 = tx * width / thumbWidth;
+            final int x1 = Math.max(x0 + 1, (tx + 1) * width / thumbWidth);
+
+            // Sum the R, G and B Planes over the Block
+            int r = 0;
+            int g = 0;
+            int b = 0;
+            for(int y = y0; y < y1; y++)
+            {
+               for(int i = y * width + x0; i < y * width + x1; i++)
+               {
+                  r += planar.get(i) & 0xFF;
+                  g += planar.get(pixelCount + i) & 0xFF;
+                  b += planar.get(2 * pixelCount + i) & 0xFF;
+               }
+            }
+
+            // Store the Average
+            final int count = (y1 - y0) * (x1 - x0);
+            pixels[ty * thumbWidth + tx] = (r / count) << 16 | (g / count) << 8 | (b / count);
+         }
+      }
+
+      return pixels;
+   }
+
+   /**
+    * Sheet - Image of a Sheet being Filled
+    */
+   private static class Sheet
+   {
+      /** Image of the Sheet */
+      private final BufferedImage image;
+
+      /** Number of Thumbnails the Sheet holds */
+      private final int capacity;
+
+      /** Number of Thumbnails Added so far */
+      private int added;
+
+      /**
+       * Constructor
+       *
+       * @param image - Image of the Sheet
+       * @param capacity - Number of Thumbnails the Sheet holds
+       */
+      private Sheet(final BufferedImage image, final int capacity)
+      {
+         this.image = image;
+         this.capacity = capacity;
+      }
+   }
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+package conversion;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * VideoSegment - A Range of Frames Encoded on its own into a Segment File,
+ *                later Joined with the other Segments without Re-Encoding
+ */
+public class VideoSegment
+{
+   /** Index of the Segment within the Video */
+   private final int _index;
+
+   /** First/Last Frame of the Segment (inclusive) */
+   private final int _firstFrame;
+   private final int _lastFrame;
+
+   /** File the Segment is Encoded into */
+   private final File _file;
+
+   /**
+    * Constructor
+    *
+    * @param index - Index of the Segment within the Video
+    * @param firstFrame - First Frame of the Segment
+    * @param lastFrame - Last Frame of the Segment
+    * @param file - File the Segment is Encoded into
+    */
+   public VideoSegment(final int index, final int firstFrame, final int lastFrame, final File file)
+   {
+      _index = index;
+      _firstFrame = firstFrame;
+      _lastFrame = lastFrame;
+      _file = file;
+   }
+
+   /**
+    * plan - Splits the Frames of a Video into Segments. Every Segment but
+    *        the last is a whole Number of GOPs long, so each Segment starts
+    *        on a GOP Boundary of the Joined Video
+    *
+    * @param folder - Folder the Segment Files are written to
+    * @param frameCount - Number of Frames in the Video
+    * @param gopSize - Number of Frames in a GOP
+    * @param maxSegments - Maximum Number of Segments
+    * @param minSegmentFrames - Minimum Length of a Segment
+    * @return List<VideoSegment>
+    */
+   public static List<VideoSegment> plan(final File folder, final int frameCount, final int gopSize, final int maxSegments, final int minSegmentFrames)
+   {
+      // Initialize List of Segments
+      final List<VideoSegment> segments = new ArrayList<VideoSegment>();
+
+      // Determine Number of Segments (Short Videos are not worth Splitting)
+      final int segmentCount = Math.max(1, Math.min(maxSegments, frameCount / Math.max(1, minSegmentFrames)));
+
+      // Round the Segment Length up to a whole Number of GOPs
+      final int gops = (frameCount + gopSize - 1) / gopSize;
+      final int segmentFrames = ((gops + segmentCount - 1) / segmentCount) * gopSize;
+
+      // Iterate over the Frames one Segment at a Time
+      for(int firstFrame = 1; firstFrame <= frameCount; firstFrame += segmentFrames)
+      {
+         // Get Index/Last Frame of the Segment
+         final int index = segments.size();
+         final int lastFrame = Math.min(frameCount, firstFrame + segmentFrames - 1);
+
+         // Create the Segment
+         final File file = new File(folder, String.format("segment%03d.mp4", index));
+         segments.add(new VideoSegment(index, firstFrame, lastFrame, file));
+      }
+
+      return segments;
+   }
+
+   /**
+    * getIndex - Gets the Index of the Segment within the Video
+    *
+    * @return int
+    */
+   public int getIndex()
+   {
+      return _index;
+   }
+
+   /**
+    * getFirstFrame - Gets the First Frame of the Segment
+    *
+    * @return int
+    */
+   public int getFirstFrame()
+   {
+      return _firstFrame;
+   }
+
+   /**
+    * getLastFrame - Gets the Last Frame of the Segment
+    *
+    * @return int
+    */
+   public int getLastFrame()
+   {
+      return _lastFrame;
+   }
+
+   /**
+    * getFrameCount - Gets the Number of Frames in the Segment
+    *
+    * @return int
+    */
+   public int getFrameCount()
+   {
+      return _lastFrame - _firstFrame + 1;
+   }
+
+   /**
+    * getFile - Gets the File the Segment is Encoded into
+    *
+    * @return File
+    */
+   public File getFile()
+   {
+      return _file;
+   }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package conversion.interfaces;
+
+import java.io.IOException;
+
+import conversion.PooledFrame;
+import data.FrameGeometry;
+
+/**
+ * IFrameConverter - Interface for the Convert Stage of a Conversion Pipeline.
+ *                   Converters are called from several Threads at once, each
+ *                   with a different Frame
+ */
+public interface IFrameConverter
+{
+   /**
+    * convert - Converts the Planar Data of a Frame into the
+    *           Form the Encode Stage Writes
+    *
+    * @param frame - The Frame
+    * @param geometry - Geometry of the Frame
+    * @throws IOException
+    */
+   void convert(PooledFrame frame, FrameGeometry geometry) throws IOException;
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package conversion.interfaces;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * IFrameReadListener - Interface for Outputs fed straight from the Read Stage
+ *                      of a Conversion Pipeline (before Duplicates are Collapsed).
+ *                      Pipelines of different Segments may call it at the same
+ *                      time, with Frames out of Order
+ */
+public interface IFrameReadListener
+{
+   /**
+    * wantsFrame - Checks if the Listener needs a Frame
+    *
+    * @param frameNum - The Frame Number
+    * @return boolean
+    */
+   boolean wantsFrame(int frameNum);
+
+   /**
+    * frameRead - Receives a Frame as it is Read. The Buffer is Reused
+    *             afterwards, so it must not be kept
+    *
+    * @param frameNum - The Frame Number
+    * @param planar - The Planar Frame Data (its Position must be left unchanged)
+    * @throws IOException
+    */
+   void frameRead(int frameNum, ByteBuffer planar) throws IOException;
+}
\ No newline at end of file
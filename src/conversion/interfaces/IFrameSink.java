@@ -0,0 +1,22 @@
+package conversion.interfaces;
+
+import java.io.IOException;
+
+import conversion.PooledFrame;
+
+/**
+ * IFrameSink - Interface for the Encode Stage of a Conversion Pipeline.
+ *              Sinks receive every Converted Frame in Frame Order from
+ *              a single Thread
+ */
+public interface IFrameSink
+{
+   /**
+    * write - Writes a Converted Frame. The Frame is returned to its
+    *         Pool afterwards, so it must not be kept
+    *
+    * @param frame - The Frame
+    * @throws IOException
+    */
+   void write(PooledFrame frame) throws IOException;
+}
\ No newline at end of file
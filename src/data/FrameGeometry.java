@@ -0,0 +1,139 @@
+package data;
+
+/**
+ * FrameGeometry - Width and Height of the Frames of a Video
+ */
+public class FrameGeometry
+{
+   /** Geometry of the original (.rgb) Sources (CIF) */
+   public static final FrameGeometry CIF = new FrameGeometry(352, 288);
+
+   /** Aspect Ratios tried when Inferring a Geometry from a Frame's Size (most likely first) */
+   private static final int[][] ASPECT_RATIOS = { {16, 9}, {4, 3}, {11, 9}, {3, 2}, {5, 4} };
+
+   /** Bytes per Pixel of a planar (.rgb) Frame */
+   private static final int BYTES_PER_PIXEL = 3;
+
+   /** Width/Height of a Frame */
+   private final int _width;
+   private final int _height;
+
+   /**
+    * Constructor
+    *
+    * @param width - Width of a Frame
+    * @param height - Height of a Frame
+    */
+   public FrameGeometry(final int width, final int height)
+   {
+      // Verify Geometry
+      if(width <= 0 || height <= 0)
+      {
+         throw new IllegalArgumentException("Invalid frame size " + width + "x" + height);
+      }
+
+      _width = width;
+      _height = height;
+   }
+
+   /**
+    * fromFrameBytes - Infers the Geometry of a planar (.rgb) Frame from its
+    *                  Size, trying each known Aspect Ratio in turn
+    *
+    * @param frameBytes - Size of a Frame in Bytes
+    * @return FrameGeometry - Null if no known Aspect Ratio fits
+    */
+   public static FrameGeometry fromFrameBytes(final long frameBytes)
+   {
+      // Frames hold a whole Number of Pixels
+      if(frameBytes <= 0 || frameBytes % BYTES_PER_PIXEL != 0)
+      {
+         return null;
+      }
+
+      // Get Number of Pixels
+      final long pixelCount = frameBytes / BYTES_PER_PIXEL;
+
+      // Iterate over the Aspect Ratios
+      for(int[] ratio : ASPECT_RATIOS)
+      {
+         // Pixels = (scale * w) * (scale * h), so scale^2 = Pixels / (w * h)
+         final long unit = (long) ratio[0] * ratio[1];
+         if(pixelCount % unit == 0)
+         {
+            final long scale = Math.round(Math.sqrt(pixelCount / (double) unit));
+            if(scale * scale * unit == pixelCount)
+            {
+               return new FrameGeometry((int) (scale * ratio[0]), (int) (scale * ratio[1]));
+            }
+         }
+      }
+
+      return null;
+   }
+
+   /**
+    * getWidth - Gets the Width of a Frame
+    *
+    * @return int
+    */
+   public int getWidth()
+   {
+      return _width;
+   }
+
+   /**
+    * getHeight - Gets the Height of a Frame
+    *
+    * @return int
+    */
+   public int getHeight()
+   {
+      return _height;
+   }
+
+   /**
+    * getPixelCount - Gets the Number of Pixels in a Frame
+    *
+    * @return int
+    */
+   public int getPixelCount()
+   {
+      return _width * _height;
+   }
+
+   /**
+    * getFrameBytes - Gets the Size of a planar (.rgb) Frame in Bytes
+    *
+    * @return int
+    */
+   public int getFrameBytes()
+   {
+      return getPixelCount() * BYTES_PER_PIXEL;
+   }
+
+   @Override
+   public boolean equals(final Object other)
+   {
+      // Check if Other is a Geometry
+      if(!(other instanceof FrameGeometry))
+      {
+         return false;
+      }
+
+      final FrameGeometry geometry = (FrameGeometry) other;
+      return _width == geometry._width && _height == geometry._height;
+   }
+
+   @Override
+   public int hashCode()
+   {
+      return 31 * _width + _height;
+   }
+
+   @Override
+   public String toString()
+   {
+      return _width + "x" + _height;
+   }
+}
\ No newline at end of file
@@ -0,0 +1,271 @@
+package data;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * FrameStore - Random Access Reader of a Frame Store, the Frame-Exact
+ *              Alternative to a Converted Video used for Editing. The File
+ *              holds the rgb24 Frames in Chunks (optionally Deflated) with
+ *              an Index of the Chunks, so any Frame is found in O(1):
+ *
+ *              Header - Magic, Version, Width, Height, Frame Count,
+ *                       Frames per Chunk, Compression, Chunk Count and
+ *                       the Position of the Index
+ *              Chunks - Frames per Chunk rgb24 Frames each, in any Order
+ *              Index  - Position and Length of every Chunk
+ */
+public class FrameStore implements Closeable
+{
+   /** Extension of a Frame Store (beside the Video, named after it) */
+   public static final String EXTENSION = ".frames";
+
+   /** Magic Bytes at the Start of a Frame Store */
+   public static final byte[] MAGIC = "RGBF".getBytes(StandardCharsets.US_ASCII);
+
+   /** Version of the Frame Store Format */
+   public static final int VERSION = 1;
+
+   /** Size of the Header (the first Chunk starts after it) */
+   public static final int HEADER_BYTES = 64;
+
+   /** Size of an Index Entry (Position and Length of a Chunk) */
+   public static final int INDEX_ENTRY_BYTES = Long.BYTES + Integer.BYTES;
+
+   /** Chunks are Stored as they are */
+   public static final int COMPRESSION_NONE = 0;
+
+   /** Chunks are Deflated */
+   public static final int COMPRESSION_DEFLATE = 1;
+
+   /** The Open Frame Store */
+   private final FileChannel _channel;
+
+   /** Geometry of the Frames */
+   private final FrameGeometry _geometry;
+
+   /** Number of Frames */
+   private final int _frameCount;
+
+   /** Number of Frames in a Chunk (the Last Chunk may hold fewer) */
+   private final int _framesPerChunk;
+
+   /** Compression of the Chunks */
+   private final int _compression;
+
+   /** Position and Length of every Chunk */
+   private final long[] _chunkOffsets;
+   private final int[] _chunkLengths;
+
+   /** Chunk held in Memory (Stepping through Frames stays in it) */
+   private int _cachedChunk;
+   private ByteBuffer _cachedData;
+
+   /**
+    * Constructor - Opens a Frame Store and Reads its Index
+    *
+    * @param storeFile - The Frame Store File
+    * @throws IOException - If the File is not a readable Frame Store
+    */
+   public FrameStore(final File storeFile) throws IOException
+   {
+      // Open the Frame Store
+      _channel = FileChannel.open(storeFile.toPath(), StandardOpenOption.READ);
+
+      try
+      {
+         // Read the Header
+         final ByteBuffer header = readFully(0, HEADER_BYTES);
+         final byte[] magic = new byte[MAGIC.length];
+         header.get(magic);
+         if(!Arrays.equals(magic, MAGIC) || header.getInt() != VERSION)
+         {
+            throw new IOException(storeFile.getName() + " is not a frame store");
+         }
+         _geometry = new FrameGeometry(header.getInt(), header.getInt());
+         _frameCount = header.getInt();
+         _framesPerChunk = header.getInt();
+         _compression = header.getInt();
+         final int chunkCount = header.getInt();
+         final long indexOffset = header.getLong();
+
+         // Check that the Index describes every Frame
+         if(_framesPerChunk <= 0 || chunkCount != (_frameCount + _framesPerChunk - 1) / _framesPerChunk)
+         {
+            throw new IOException(storeFile.getName() + " has a corrupt header");
+         }
+
+         // Read the Index
+         final ByteBuffer index = readFully(indexOffset, chunkCount * INDEX_ENTRY_BYTES);
+         _chunkOffsets = new long[chunkCount];
+         _chunkLengths = new int[chunkCount];
+         for(int i = 0; i < chunkCount; i++)
+         {
+            _chunkOffsets[i] = index.getLong();
+            _chunkLengths[i] = index.getInt();
+         }
+      }
+      catch (IOException | RuntimeException e)
+      {
+         _channel.close();
+         throw e;
+      }
+
+      // Nothing Cached yet
+      _cachedChunk = -1;
+   }
+
+   /**
+    * fileFor - Gets the Frame Store of a Video (beside the Video, named after it)
+    *
+    * @param video - The Video File
+    * @return File
+    */
+   public static File fileFor(final File video)
+   {
+      // Strip the Extension of the Video
+      String name = video.getName();
+      final int extension = name.lastIndexOf('.');
+      if(extension > 0)
+      {
+         name = name.substring(0, extension);
+      }
+
+      return new File(video.getAbsoluteFile().getParentFile(), name + EXTENSION);
+   }
+
+   /**
+    * getGeometry - Gets the Geometry of the Frames
+    *
+    * @return FrameGeometry
+    */
+   public FrameGeometry getGeometry()
+   {
+      return _geometry;
+   }
+
+   /**
+    * getFrameCount - Gets the Number of Frames
+    *
+    * @return int
+    */
+   public int getFrameCount()
+   {
+      return _frameCount;
+   }
+
+   /**
+    * getFrame - Gets the rgb24 Pixels of a Frame. Uncompressed Chunks are
+    *            Memory-Mapped; Deflated Chunks are Inflated once and Kept
+    *            while the following Frames are Read
+    *
+    * @param frameNum - The Frame Number (1 to getFrameCount())
+    * @return ByteBuffer - Read-Only, only Valid until the next Call
+    * @throws IOException
+    */
+   public synchronized ByteBuffer getFrame(final int frameNum) throws IOException
+   {
+      // Check the Frame Number
+      if(frameNum < 1 || frameNum > _frameCount)
+      {
+         throw new IOException("Frame " + frameNum + " is not in the frame store");
+      }
+
+      // Get Chunk of the Frame
+      final int chunk = (frameNum - 1) / _framesPerChunk;
+      final int frameBytes = _geometry.getFrameBytes();
+
+      // Load the Chunk unless it is Cached
+      if(chunk != _cachedChunk)
+      {
+         // Map the Chunk
+         final ByteBuffer mapped = _channel.map(FileChannel.MapMode.READ_ONLY, _chunkOffsets[chunk], _chunkLengths[chunk]);
+
+         // Inflate the Chunk
+         if(_compression == COMPRESSION_DEFLATE)
+         {
+            final int framesInChunk = Math.min(_framesPerChunk, _frameCount - chunk * _framesPerChunk);
+            final ByteBuffer data = ByteBuffer.allocate(framesInChunk * frameBytes);
+            final Inflater inflater = new Inflater();
+            try
+            {
+               inflater.setInput(mapped);
+               while(data.hasRemaining() && !inflater.finished())
+               {
+                  if(inflater.inflate(data) == 0 && inflater.needsInput())
+                  {
+                     throw new IOException("Chunk " + chunk + " of the frame store is truncated");
+                  }
+               }
+            }
+            catch (DataFormatException e)
+            {
+               throw new IOException("Chunk " + chunk + " of the frame store is corrupt", e);
+            }
+            finally
+            {
+               inflater.end();
+            }
+            data.flip();
+            _cachedData = data;
+         }
+         else
+         {
+            _cachedData = mapped;
+         }
+         _cachedChunk = chunk;
+      }
+
+      // Slice out the Frame
+      final ByteBuffer frame = _cachedData.asReadOnlyBuffer();
+      frame.position(((frameNum - 1) % _framesPerChunk) * frameBytes);
+      frame.limit(frame.position() + frameBytes);
+
+      return frame.slice();
+   }
+
+   /**
+    * close - Closes the Frame Store
+    *
+    * @throws IOException
+    */
+   @Override
+   public synchronized void close() throws IOException
+   {
+      _cachedData = null;
+      _cachedChunk = -1;
+      _channel.close();
+   }
+
+   /**
+    * readFully - Reads Bytes of the Frame Store
+    *
+    * @param position - Position to Read from
+    * @param length - Number of Bytes
+    * @return ByteBuffer - Position 0
+    * @throws IOException
+    */
+   private ByteBuffer readFully(final long position, final int length) throws IOException
+   {
+      // Read until the Buffer is Full
+      final ByteBuffer buffer = ByteBuffer.allocate(length);
+      while(buffer.hasRemaining())
+      {
+         if(_channel.read(buffer, position + buffer.position()) < 0)
+         {
+            throw new IOException("Frame store is truncated");
+         }
+      }
+      buffer.flip();
+
+      return buffer;
+   }
+}
\ No newline at end of file
@@ -0,0 +1,240 @@
+package data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import enums.EInterpolationMode;
+
+/**
+ * HyperlinkBinaryReader - Reads the Links of a Binary Hyperlink File, the
+ *                         Compact Alternative to the JSON Layout. The File
+ *                         is Read into Memory at once and Decoded in Place
+ *                         (not Mapped, so it can be Replaced while Open):
+ *
+ *                         Header - Magic, Version, Link Count and the
+ *                                  Position of the Index
+ *                         Links  - Name, From/To Video, To Frame, Start/End
+ *                                  Frame and Interpolation of each Link
+ *                         Tracks - The Keyframes of each Link: Frames and X/Y
+ *                                  Coordinates as Deltas from the Keyframe before,
+ *                                  in float32 or Quantized int16 Pixels (or
+ *                                  float64 as they are, in Edit Journals)
+ *                         Index  - Position of every Link and its Track
+ *
+ *                         Strings are UTF-8 after their Length (uint16)
+ */
+public class HyperlinkBinaryReader
+{
+   /** Extension of a Binary Hyperlink File */
+   public static final String EXTENSION = ".hlb";
+
+   /** Magic Bytes at the Start of a Binary Hyperlink File */
+   public static final byte[] MAGIC = "HLNK".getBytes(StandardCharsets.US_ASCII);
+
+   /** Version of the Binary Hyperlink Format */
+   public static final int VERSION = 1;
+
+   /** Size of the Header (the Link Table starts after it) */
+   public static final int HEADER_BYTES = 32;
+
+   /** Size of an Index Entry (Position of a Link and of its Track) */
+   public static final int INDEX_ENTRY_BYTES = 2 * Long.BYTES;
+
+   /** Coordinates of a Track are float32 Deltas */
+   public static final byte TRACK_FLOAT32 = 0;
+
+   /** Coordinates of a Track are int16 Deltas in Steps of 1 / QUANTIZATION Pixels */
+   public static final byte TRACK_INT16 = 1;
+
+   /** Coordinates of a Track are float64 as they are (Lossless, for Edit Journals) */
+   public static final byte TRACK_FLOAT64 = 2;
+
+   /** Steps per Pixel of Quantized Coordinates */
+   public static final double QUANTIZATION = 16.0;
+
+   /** Largest Distance (in Steps) a Coordinate may be off the Grid and still be Quantized */
+   public static final double QUANTIZATION_TOLERANCE = 1e-4;
+
+   /** Longest String in Bytes */
+   public static final int MAX_STRING_BYTES = 0xFFFF;
+
+   /**
+    * Private Constructor
+    */
+   private HyperlinkBinaryReader()
+   {
+   }
+
+   /**
+    * read - Reads the Links of a Binary Hyperlink File
+    *
+    * @param file - The Hyperlink File
+    * @return List<LinkRecord> - The Links, in the Order they are in the File
+    * @throws IOException - If the File can not be Read or is not a Binary Hyperlink File
+    */
+   public static List<LinkRecord> read(final File file) throws IOException
+   {
+      // Read the File
+      final ByteBuffer data = readFile(file);
+
+      try
+      {
+         // Read the Header
+         final byte[] magic = new byte[MAGIC.length];
+         data.get(magic);
+         if(!Arrays.equals(magic, MAGIC) || data.getInt() != VERSION)
+         {
+            throw new IOException(file.getName() + " is not a hyperlink file");
+         }
+         final int linkCount = data.getInt();
+         final long indexOffset = data.getLong();
+
+         // Check that the Index is in the File
+         if(linkCount < 0 || indexOffset < HEADER_BYTES || indexOffset + (long) linkCount * INDEX_ENTRY_BYTES > data.limit())
+         {
+            throw new IOException(file.getName() + " has a corrupt header");
+         }
+
+         // Read each Link and its Track where the Index says they are
+         final List<LinkRecord> links = new ArrayList<LinkRecord>(linkCount);
+         for(int i = 0; i < linkCount; i++)
+         {
+            final int entry = (int) indexOffset + i * INDEX_ENTRY_BYTES;
+            links.add(readLink(data, data.getLong(entry), data.getLong(entry + Long.BYTES)));
+         }
+
+         return links;
+      }
+      catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e)
+      {
+         // Offset or Length past the End of the File
+         throw new IOException(file.getName() + " is corrupt", e);
+      }
+   }
+
+   /**
+    * readFile - Reads a whole File into a Heap Buffer. Hyperlink Files are
+    *            Replaced and Deleted while the Application runs, which a
+    *            Mapped File would Block (on Windows) until it is Collected
+    *
+    * @param file - The File
+    * @return ByteBuffer - The File (position 0, limit its Size)
+    * @throws IOException
+    */
+   static ByteBuffer readFile(final File file) throws IOException
+   {
+      try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+      {
+         // Check the File fits in a Buffer
+         final long size = channel.size();
+         if(size > Integer.MAX_VALUE)
+         {
+            throw new IOException(file.getName() + " is too large");
+         }
+
+         // Read until the Buffer is Full (or the File Ends early)
+         final ByteBuffer data = ByteBuffer.allocate((int) size);
+         while(data.hasRemaining() && channel.read(data) >= 0)
+         {
+            // Keep Reading
+         }
+         data.flip();
+
+         return data;
+      }
+   }
+
+   /**
+    * readLink - Reads the Entry of a Link in the Link Table and its Track
+    *
+    * @param data - The File
+    * @param tableOffset - Position of the Entry
+    * @param trackOffset - Position of the Track
+    * @return LinkRecord
+    * @throws IOException
+    */
+   static LinkRecord readLink(final ByteBuffer data, final long tableOffset, final long trackOffset) throws IOException
+   {
+      // Read the Entry
+      data.position((int) tableOffset);
+      final String name = readString(data);
+      final String fromVideo = readString(data);
+      final String toVideo = readString(data);
+      final int toFrame = data.getInt();
+      final int startFrame = data.getInt();
+      final int endFrame = data.getInt();
+      final EInterpolationMode interpolation = EInterpolationMode.fromFileName(readString(data));
+      if(interpolation == null)
+      {
+         throw new IOException(name + " has an unknown interpolation");
+      }
+
+      // Read the Track
+      data.position((int) trackOffset);
+      final byte encoding = data.get();
+      if(encoding != TRACK_FLOAT32 && encoding != TRACK_INT16 && encoding != TRACK_FLOAT64)
+      {
+         throw new IOException(name + " has an unknown track encoding");
+      }
+      final int keyCount = data.getInt();
+      if(keyCount < 0 || keyCount > data.remaining())
+      {
+         throw new IOException(name + " has a corrupt track");
+      }
+
+      // Undo the Deltas of each Keyframe
+      final int[] keyFrames = new int[keyCount];
+      final double[][] keyPoints = new double[keyCount][];
+      int frame = startFrame;
+      double[] previous = new double[0];
+      for(int key = 0; key < keyCount; key++)
+      {
+         frame += data.getInt();
+         keyFrames[key] = frame;
+         final double[] points = new double[data.getShort() & 0xFFFF];
+         final boolean isDelta = previous.length == points.length;
+         for(int i = 0; i < points.length; i++)
+         {
+            final double base = isDelta ? previous[i] : 0;
+            if(encoding == TRACK_INT16)
+            {
+               points[i] = (Math.round(base * QUANTIZATION) + data.getShort()) / QUANTIZATION;
+            }
+            else if(encoding == TRACK_FLOAT64)
+            {
+               points[i] = data.getDouble();
+            }
+            else
+            {
+               points[i] = base + data.getFloat();
+            }
+         }
+         keyPoints[key] = points;
+         previous = points;
+      }
+
+      return new LinkRecord(name, fromVideo, toVideo, toFrame, startFrame, endFrame, interpolation, keyFrames, keyPoints);
+   }
+
+   /**
+    * readString - Reads a UTF-8 String after its Length in Bytes
+    *
+    * @param data - The File
+    * @return String
+    */
+   static String readString(final ByteBuffer data)
+   {
+      final byte[] bytes = new byte[data.getShort() & 0xFFFF];
+      data.get(bytes);
+
+      return new String(bytes, StandardCharsets.UTF_8);
+   }
+}
\ No newline at end of file
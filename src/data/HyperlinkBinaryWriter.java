@@ -0,0 +1,221 @@
+package data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * HyperlinkBinaryWriter - Writes the Links of a Video to a Binary Hyperlink
+ *                         File (see HyperlinkBinaryReader for the Layout).
+ *                         Each Track is Stored as Quantized int16 Deltas if
+ *                         every Vertex is on the Quantization Grid, otherwise
+ *                         as float32 Deltas
+ */
+public class HyperlinkBinaryWriter
+{
+   /**
+    * Private Constructor
+    */
+   private HyperlinkBinaryWriter()
+   {
+   }
+
+   /**
+    * write - Writes Links to a Binary Hyperlink File
+    *
+    * @param file - The Hyperlink File
+    * @param links - The Links (in the Order they are Written)
+    * @throws IOException
+    */
+   public static void write(final File file, final List<LinkRecord> links) throws IOException
+   {
+      // Encode the Link Table and the Tracks after the Header, Recording where each Link went
+      final ByteArrayOutputStream body = new ByteArrayOutputStream();
+      final DataOutputStream out = new DataOutputStream(body);
+      final long[] tableOffsets = new long[links.size()];
+      final long[] trackOffsets = new long[links.size()];
+      for(int i = 0; i < links.size(); i++)
+      {
+         tableOffsets[i] = HyperlinkBinaryReader.HEADER_BYTES + out.size();
+         writeEntry(out, links.get(i));
+      }
+      for(int i = 0; i < links.size(); i++)
+      {
+         trackOffsets[i] = HyperlinkBinaryReader.HEADER_BYTES + out.size();
+         writeTrack(out, links.get(i), false);
+      }
+
+      // Write the Index
+      final long indexOffset = HyperlinkBinaryReader.HEADER_BYTES + out.size();
+      for(int i = 0; i < links.size(); i++)
+      {
+         out.writeLong(tableOffsets[i]);
+         out.writeLong(trackOffsets[i]);
+      }
+      out.flush();
+
+      // Write the Header
+      final ByteBuffer header = ByteBuffer.allocate(HyperlinkBinaryReader.HEADER_BYTES);
+      header.put(HyperlinkBinaryReader.MAGIC);
+      header.putInt(HyperlinkBinaryReader.VERSION);
+      header.putInt(links.size());
+      header.putLong(indexOffset);
+      header.clear();
+
+      // Write the File
+      final ByteBuffer[] data = { header, ByteBuffer.wrap(body.toByteArray()) };
+      try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                                 StandardOpenOption.WRITE))
+      {
+         while(data[1].hasRemaining())
+         {
+            channel.write(data);
+         }
+      }
+   }
+
+   /**
+    * writeEntry - Writes the Entry of a Link in the Link Table
+    *
+    * @param out - The Stream
+    * @param link - The Link
+    * @throws IOException
+    */
+   static void writeEntry(final DataOutputStream out, final LinkRecord link) throws IOException
+   {
+      writeString(out, link.getName());
+      writeString(out, link.getFromVideo());
+      writeString(out, link.getToVideo());
+      out.writeInt(link.getToFrame());
+      out.writeInt(link.getStartFrame());
+      out.writeInt(link.getEndFrame());
+      writeString(out, link.getInterpolation().getFileName());
+   }
+
+   /**
+    * writeTrack - Writes the Keyframes of a Link, each as the Frames and
+    *              Coordinates it Moves from the Keyframe before it
+    *
+    * @param out - The Stream
+    * @param link - The Link
+    * @param lossless - Whether Vertices off the Grid are Kept as float64 rather than float32
+    * @throws IOException
+    */
+   static void writeTrack(final DataOutputStream out, final LinkRecord link, final boolean lossless) throws IOException
+   {
+      // Quantize if every Vertex is on the Grid
+      final boolean quantize = isQuantizable(link);
+      final byte encoding = quantize ? HyperlinkBinaryReader.TRACK_INT16
+                                     : (lossless ? HyperlinkBinaryReader.TRACK_FLOAT64 : HyperlinkBinaryReader.TRACK_FLOAT32);
+      out.writeByte(encoding);
+      out.writeInt(link.getKeyFrameCount());
+
+      // Write each Keyframe
+      int previousFrame = link.getStartFrame();
+      double[] previous = new double[0];
+      for(int key = 0; key < link.getKeyFrameCount(); key++)
+      {
+         final double[] points = link.getKeyPoints(key);
+         out.writeInt(link.getKeyFrame(key) - previousFrame);
+         out.writeShort(points.length);
+         previousFrame = link.getKeyFrame(key);
+
+         // Deltas are from the Keyframe before if it has as many Coordinates, else from 0
+         final double[] decoded = new double[points.length];
+         final boolean isDelta = previous.length == points.length;
+         for(int i = 0; i < points.length; i++)
+         {
+            final double base = isDelta ? previous[i] : 0;
+            if(quantize)
+            {
+               out.writeShort((int) (quantize(points[i]) - quantize(base)));
+               decoded[i] = points[i];
+            }
+            else if(lossless)
+            {
+               out.writeDouble(points[i]);
+               decoded[i] = points[i];
+            }
+            else
+            {
+               // Deltas are taken from the Decoded Values, so Rounding does not Accumulate
+               final float delta = (float) (points[i] - base);
+               out.writeFloat(delta);
+               decoded[i] = base + delta;
+            }
+         }
+         previous = decoded;
+      }
+   }
+
+   /**
+    * isQuantizable - Checks if every Vertex of a Link is on the Quantization
+    *                 Grid and every Delta between Keyframes fits in an int16
+    *
+    * @param link - The Link
+    * @return boolean
+    */
+   private static boolean isQuantizable(final LinkRecord link)
+   {
+      double[] previous = new double[0];
+      for(int key = 0; key < link.getKeyFrameCount(); key++)
+      {
+         final double[] points = link.getKeyPoints(key);
+         final boolean isDelta = previous.length == points.length;
+         for(int i = 0; i < points.length; i++)
+         {
+            // Check the Vertex is on the Grid
+            final double scaled = points[i] * HyperlinkBinaryReader.QUANTIZATION;
+            if(Math.abs(scaled - Math.rint(scaled)) > HyperlinkBinaryReader.QUANTIZATION_TOLERANCE)
+            {
+               return false;
+            }
+
+            // Check the Delta Fits
+            final long delta = quantize(points[i]) - (isDelta ? quantize(previous[i]) : 0);
+            if(delta < Short.MIN_VALUE || delta > Short.MAX_VALUE)
+            {
+               return false;
+            }
+         }
+         previous = points;
+      }
+
+      return true;
+   }
+
+   /**
+    * quantize - Gets the Grid Step of a Coordinate
+    *
+    * @param coordinate - The Coordinate
+    * @return long
+    */
+   private static long quantize(final double coordinate)
+   {
+      return Math.round(coordinate * HyperlinkBinaryReader.QUANTIZATION);
+   }
+
+   /**
+    * writeString - Writes a UTF-8 String after its Length in Bytes
+    *
+    * @param out - The Stream
+    * @param value - The String
+    * @throws IOException
+    */
+   static void writeString(final DataOutputStream out, final String value) throws IOException
+   {
+      final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      if(bytes.length > HyperlinkBinaryReader.MAX_STRING_BYTES)
+      {
+         throw new IOException("\"" + value + "\" is too long for a hyperlink file");
+      }
+      out.writeShort(bytes.length);
+      out.write(bytes);
+   }
+}
\ No newline at end of file
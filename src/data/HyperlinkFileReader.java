@@ -0,0 +1,229 @@
+package data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import enums.EInterpolationMode;
+
+/**
+ * HyperlinkFileReader - Reads the Links of a Hyperlink File (the Layout
+ *                       HyperlinkFileWriter Writes). The JSON is Streamed a
+ *                       Token at a Time, and the Vertices of each Frame go
+ *                       straight into a double[], so Loading builds no Tree
+ *                       of the File and Boxes no Coordinate. Coordinates may
+ *                       be Integer or Decimal Numbers; Unknown Fields are Skipped.
+ *                       Files from before Keyframes, with a "boxInfo" of every
+ *                       Frame, are still Read: their Keyframes are Found on Load
+ */
+public class HyperlinkFileReader
+{
+   /** Initial Number of Coordinates a Frame is Read into (a Rectangle's 4 Vertices) */
+   private static final int INITIAL_COORDINATES = 8;
+
+   /**
+    * Private Constructor
+    */
+   private HyperlinkFileReader()
+   {
+   }
+
+   /**
+    * read - Reads the Links of a Hyperlink File
+    *
+    * @param file - The Hyperlink File
+    * @return List<LinkRecord> - The Links, in the Order they are in the File
+    * @throws IOException - If the File can not be Read or is not a Hyperlink File
+    */
+   public static List<LinkRecord> read(final File file) throws IOException
+   {
+      // Initialize List of Links
+      final List<LinkRecord> links = new ArrayList<LinkRecord>();
+
+      try(Reader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+          JsonReader json = new JsonReader(in))
+      {
+         // Read every Link under its Name
+         json.beginObject();
+         while(json.hasNext())
+         {
+            final String name = json.nextName();
+            links.add(readLink(json, name));
+         }
+         json.endObject();
+      }
+      catch (IllegalStateException | NumberFormatException e)
+      {
+         // Unexpected Token
+         throw new IOException(file.getName() + " is not a hyperlink file", e);
+      }
+
+      return links;
+   }
+
+   /**
+    * readLink - Reads a Link and the Bounding Box of each of its Frames
+    *
+    * @param json - The JSON Stream
+    * @param name - Name of the Link
+    * @return LinkRecord
+    * @throws IOException
+    */
+   private static LinkRecord readLink(final JsonReader json, final String name) throws IOException
+   {
+      // Fields of the Link (in whatever Order the File has them)
+      String fromVideo = "";
+      String toVideo = "";
+      int toFrame = 0;
+      int startFrame = 1;
+      int endFrame = 1;
+      EInterpolationMode interpolation = EInterpolationMode.LINEAR;
+
+      // Bounding Boxes in File Order (Placed by Frame once the Start Frame is Known)
+      boolean isDense = false;
+      int boxCount = 0;
+      int[] boxFrames = new int[16];
+      double[][] boxes = new double[16][];
+
+      json.beginObject();
+      while(json.hasNext())
+      {
+         final String field = json.nextName();
+         switch(field)
+         {
+            case "fromVideo":
+               fromVideo = json.nextString();
+               break;
+            case "toVideo":
+               toVideo = json.nextString();
+               break;
+            case "toFrame":
+               toFrame = json.nextInt();
+               break;
+            case "startFrame":
+               startFrame = json.nextInt();
+               break;
+            case "endFrame":
+               endFrame = json.nextInt();
+               break;
+            case "interpolation":
+               interpolation = EInterpolationMode.fromFileName(json.nextString());
+               if(interpolation == null)
+               {
+                  throw new IOException(name + " has an unknown interpolation");
+               }
+               break;
+            case "boxInfo":
+            case "keyframes":
+               // Read the Vertices of each Frame (of every Frame in a Dense File)
+               isDense = "boxInfo".equals(field);
+               json.beginObject();
+               while(json.hasNext())
+               {
+                  // Grow the Boxes if Full
+                  if(boxCount == boxFrames.length)
+                  {
+                     boxFrames = Arrays.copyOf(boxFrames, boxCount * 2);
+                     boxes = Arrays.copyOf(boxes, boxCount * 2);
+                  }
+
+                  boxFrames[boxCount] = Integer.parseInt(json.nextName());
+                  boxes[boxCount] = readPoints(json);
+                  boxCount++;
+               }
+               json.endObject();
+               break;
+            default:
+               // Skip Fields this Version does not Know
+               json.skipValue();
+               break;
+         }
+      }
+      json.endObject();
+
+      // Find the Keyframes of a Dense File
+      if(isDense)
+      {
+         // Place each Bounding Box at its Frame (Frames outside the Link are Dropped)
+         final double[][] boxPoints = new double[Math.max(0, endFrame - startFrame + 1)][];
+         for(int i = 0; i < boxCount; i++)
+         {
+            final int box = boxFrames[i] - startFrame;
+            if(box >= 0 && box < boxPoints.length)
+            {
+               boxPoints[box] = boxes[i];
+            }
+         }
+
+         return LinkRecord.fromFrames(name, fromVideo, toVideo, toFrame, startFrame, endFrame, boxPoints);
+      }
+
+      // Sort the Keyframes by Frame (Files are Written in Order, so this is Rarely needed)
+      final Integer[] order = new Integer[boxCount];
+      for(int i = 0; i < boxCount; i++)
+      {
+         order[i] = i;
+      }
+      final int[] frames = boxFrames;
+      Arrays.sort(order, (a, b) -> Integer.compare(frames[a], frames[b]));
+
+      // Keep the Keyframes within the Link that have a Bounding Box
+      int keyCount = 0;
+      final int[] keyFrames = new int[boxCount];
+      final double[][] keyPoints = new double[boxCount][];
+      for(int i : order)
+      {
+         if(boxFrames[i] >= startFrame && boxFrames[i] <= endFrame && boxes[i].length > 0
+            && (keyCount == 0 || keyFrames[keyCount - 1] != boxFrames[i]))
+         {
+            keyFrames[keyCount] = boxFrames[i];
+            keyPoints[keyCount] = boxes[i];
+            keyCount++;
+         }
+      }
+
+      return new LinkRecord(name, fromVideo, toVideo, toFrame, startFrame, endFrame, interpolation,
+                            Arrays.copyOf(keyFrames, keyCount), Arrays.copyOf(keyPoints, keyCount));
+   }
+
+   /**
+    * readPoints - Reads the X/Y Coordinates of a Bounding Box
+    *
+    * @param json - The JSON Stream
+    * @return double[]
+    * @throws IOException
+    */
+   private static double[] readPoints(final JsonReader json) throws IOException
+   {
+      double[] points = new double[INITIAL_COORDINATES];
+      int count = 0;
+
+      json.beginArray();
+      while(json.hasNext())
+      {
+         // Grow the Points if Full
+         if(count == points.length)
+         {
+            points = Arrays.copyOf(points, count * 2);
+         }
+
+         // Integer and Decimal Numbers are both Read as double
+         if(json.peek() != JsonToken.NUMBER)
+         {
+            throw new IllegalStateException("Expected a coordinate but was " + json.peek());
+         }
+         points[count++] = json.nextDouble();
+      }
+      json.endArray();
+
+      return (count == points.length) ? points : Arrays.copyOf(points, count);
+   }
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * HyperlinkFileWriter - Writes the Links of a Video to its Hyperlink File.
+ *                       The JSON is Streamed straight from the Records, so
+ *                       Saving builds no Tree or String of the whole File:
+ *
+ *                       { "<linkName>": { "fromVideo": ..., "toVideo": ...,
+ *                                         "toFrame": n, "startFrame": n, "endFrame": n,
+ *                                         "interpolation": "linear",
+ *                                         "keyframes": { "<frame>": [x, y, x, y, ...], ... } },
+ *                         ... }
+ *
+ *                       Only Keyframes are Written; the Frames between them
+ *                       are Recomputed with the Interpolation on Load
+ */
+public class HyperlinkFileWriter
+{
+   /** Indent of Pretty Printed Files */
+   private static final String PRETTY_INDENT = "  ";
+
+   /**
+    * Private Constructor
+    */
+   private HyperlinkFileWriter()
+   {
+   }
+
+   /**
+    * write - Writes Links to a Hyperlink File
+    *
+    * @param file - The Hyperlink File
+    * @param links - The Links (in the Order they are Written)
+    * @param prettyPrint - Whether the JSON is Indented for Reading
+    * @throws IOException
+    */
+   public static void write(final File file, final List<LinkRecord> links, final boolean prettyPrint) throws IOException
+   {
+      try(Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+          JsonWriter json = new JsonWriter(out))
+      {
+         // Indent only if Asked (Compact Files are Smaller and Faster)
+         if(prettyPrint)
+         {
+            json.setIndent(PRETTY_INDENT);
+         }
+
+         // Write every Link under its Name
+         json.beginObject();
+         for(LinkRecord link : links)
+         {
+            json.name(link.getName());
+            writeLink(json, link);
+         }
+         json.endObject();
+      }
+   }
+
+   /**
+    * writeLink - Writes a Link and the Bounding Box of each of its Keyframes
+    *
+    * @param json - The JSON Stream
+    * @param link - The Link
+    * @throws IOException
+    */
+   private static void writeLink(final JsonWriter json, final LinkRecord link) throws IOException
+   {
+      json.beginObject();
+
+      // Write the Videos and Frames of the Link
+      json.name("fromVideo").value(link.getFromVideo());
+      json.name("toVideo").value(link.getToVideo());
+      json.name("toFrame").value(link.getToFrame());
+      json.name("startFrame").value(link.getStartFrame());
+      json.name("endFrame").value(link.getEndFrame());
+
+      // Write the X/Y of each Vertex of the Bounding Box of each Keyframe
+      json.name("interpolation").value(link.getInterpolation().getFileName());
+      json.name("keyframes");
+      json.beginObject();
+      for(int key = 0; key < link.getKeyFrameCount(); key++)
+      {
+         json.name(String.valueOf(link.getKeyFrame(key)));
+         json.beginArray();
+         for(double coordinate : link.getKeyPoints(key))
+         {
+            json.value(coordinate);
+         }
+         json.endArray();
+      }
+      json.endObject();
+
+      json.endObject();
+   }
+}
\ No newline at end of file
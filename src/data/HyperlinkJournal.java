@@ -0,0 +1,664 @@
+package data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * HyperlinkJournal - Append-Only Journal of the Edits Saved to a Hyperlink
+ *                    File since it was last Written in Full, Kept beside it.
+ *                    A Save Appends only the Links that Changed, and Loading
+ *                    Replays the Journal over the File. Each Record is Flushed
+ *                    to Disk as it is Appended and Checked on Replay, so a Crash
+ *                    loses at most the Record being Written:
+ *
+ *                    Header  - Magic, Version and the Size and Modification
+ *                              Time of the Hyperlink File the Journal is for
+ *                              (a Journal of an older File is Ignored)
+ *                    Records - Length, CRC32, Type and Payload of each Edit:
+ *                              PUT (a Link, Encoded as in a Binary Hyperlink
+ *                              File), DELETE (a Name) or RENAME (two Names)
+ *
+ *                    Once the Hyperlink File is Rewritten with the Records, the
+ *                    Records Appended since are Rebased onto it: a Pending Journal
+ *                    for the new File is Written before the File is Replaced, and
+ *                    Replaces the Journal after, so a Crash between the two still
+ *                    finds a Journal that Matches the File
+ */
+public class HyperlinkJournal
+{
+   /** Extension of a Journal (Appended to the Name of its Hyperlink File) */
+   public static final String EXTENSION = ".journal";
+
+   /** Extension of a Pending Journal (Appended to the Name of its Journal) */
+   public static final String PENDING_EXTENSION = ".pending";
+
+   /** Magic Bytes at the Start of a Journal */
+   public static final byte[] MAGIC = "HLJN".getBytes(StandardCharsets.US_ASCII);
+
+   /** Version of the Journal Format */
+   public static final int VERSION = 1;
+
+   /** Size of the Header (the first Record starts after it) */
+   public static final int HEADER_BYTES = 32;
+
+   /** Size of the Length and CRC32 before each Record */
+   public static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES;
+
+   /** Record Types */
+   public static final byte PUT = 1;
+   public static final byte DELETE = 2;
+   public static final byte RENAME = 3;
+
+   /** The Journal File */
+   private final File _file;
+
+   /** Length of the Valid Journal (0 if there is none) */
+   private long _length;
+
+   /** Number of Valid Records */
+   private int _recordCount;
+
+   /**
+    * Constructor
+    *
+    * @param file - The Journal File
+    * @param length - Length of the Valid Journal, as Replayed (0 if there is none)
+    * @param recordCount - Number of Valid Records, as Replayed
+    */
+   public HyperlinkJournal(final File file, final long length, final int recordCount)
+   {
+      _file = file;
+      _length = length;
+      _recordCount = recordCount;
+   }
+
+   /**
+    * fileFor - Gets the Journal of a Hyperlink File (beside it, named after it)
+    *
+    * @param hyperlinkFile - The Hyperlink File
+    * @return File
+    */
+   public static File fileFor(final File hyperlinkFile)
+   {
+      return new File(hyperlinkFile.getAbsoluteFile().getParentFile(), hyperlinkFile.getName() + EXTENSION);
+   }
+
+   /**
+    * diff - Finds the Edits that turn the Saved Links into the Current ones
+    *
+    * @param saved - The Links as Saved
+    * @param current - The Links as they are now
+    * @return List<Edit> - Empty if Nothing Changed, null if Edits by Name can not
+    *                       turn one into the other (Names are Repeated or Reordered)
+    */
+   public static List<Edit> diff(final List<LinkRecord> saved, final List<LinkRecord> current)
+   {
+      final List<Edit> edits = new ArrayList<Edit>();
+
+      // Index the Links by Name (Edits find Links by Name, so each must be Unique)
+      final Map<String, LinkRecord> savedByName = new HashMap<String, LinkRecord>();
+      for(LinkRecord link : saved)
+      {
+         savedByName.put(link.getName(), link);
+      }
+      final Set<String> currentNames = new HashSet<String>();
+      for(LinkRecord link : current)
+      {
+         currentNames.add(link.getName());
+      }
+      if(savedByName.size() != saved.size() || currentNames.size() != current.size())
+      {
+         return null;
+      }
+
+      // A Link whose Name is Gone, in the Place of a Link with a new Name, was Renamed
+      final List<String> replayedNames = new ArrayList<String>();
+      for(int i = 0; i < saved.size(); i++)
+      {
+         final String oldName = saved.get(i).getName();
+         final String newName = i < current.size() ? current.get(i).getName() : null;
+         if(newName != null && !currentNames.contains(oldName) && !savedByName.containsKey(newName))
+         {
+            edits.add(Edit.rename(oldName, newName));
+            savedByName.put(newName, savedByName.remove(oldName).renamed(newName));
+            replayedNames.add(newName);
+         }
+         else if(currentNames.contains(oldName))
+         {
+            replayedNames.add(oldName);
+         }
+      }
+
+      // Delete the other Links whose Names are Gone
+      for(LinkRecord link : saved)
+      {
+         if(!currentNames.contains(link.getName()) && savedByName.containsKey(link.getName()))
+         {
+            edits.add(Edit.delete(link.getName()));
+         }
+      }
+
+      // Put the Links that are New or have Changed
+      for(LinkRecord link : current)
+      {
+         final LinkRecord savedLink = savedByName.get(link.getName());
+         if(savedLink == null)
+         {
+            replayedNames.add(link.getName());
+         }
+         if(savedLink == null || !savedLink.hasSameContents(link))
+         {
+            edits.add(Edit.put(link));
+         }
+      }
+
+      // New Links are Put at the End, so the Journal can not Reorder Links
+      for(int i = 0; i < current.size(); i++)
+      {
+         if(!replayedNames.get(i).equals(current.get(i).getName()))
+         {
+            return null;
+         }
+      }
+
+      return edits;
+   }
+
+   /**
+    * replay - Reads the Journal (if it is for the Hyperlink File as it is)
+    *          and Applies its Edits to the Links of the Hyperlink File. A
+    *          Torn or Corrupt Record Ends the Journal; it is Overwritten
+    *          by the next Append
+    *
+    * @param file - The Journal File
+    * @param baseSize - Size of the Hyperlink File
+    * @param baseModified - Modification Time of the Hyperlink File
+    * @param links - Links of the Hyperlink File (Edited in Place)
+    * @return HyperlinkJournal - The Valid Part of the Journal
+    * @throws IOException
+    */
+   public static HyperlinkJournal replay(final File file, final long baseSize, final long baseModified,
+                                         final List<LinkRecord> links) throws IOException
+   {
+      // Read the Journal if it is for the Hyperlink File as it is
+      ByteBuffer data = readJournal(file, baseSize, baseModified);
+      if(data == null)
+      {
+         // Finish a Rebase Interrupted after the Hyperlink File was Replaced
+         final File pendingFile = pendingFileFor(file);
+         if(readJournal(pendingFile, baseSize, baseModified) == null)
+         {
+            return new HyperlinkJournal(file, 0, 0);
+         }
+         Files.move(pendingFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+         data = readJournal(file, baseSize, baseModified);
+      }
+
+      // Apply each Intact Record
+      long length = HEADER_BYTES;
+      int recordCount = 0;
+      final CRC32 crc = new CRC32();
+      while(data.limit() - length >= RECORD_HEADER_BYTES + 1)
+      {
+         // Check the Record is Whole and Intact
+         final int recordLength = data.getInt((int) length);
+         final int checksum = data.getInt((int) length + Integer.BYTES);
+         final int start = (int) length + RECORD_HEADER_BYTES;
+         if(recordLength <= 0 || recordLength > data.limit() - start)
+         {
+            break;
+         }
+         final ByteBuffer record = data.duplicate();
+         record.position(start);
+         record.limit(start + recordLength);
+         crc.reset();
+         crc.update(record);
+         if((int) crc.getValue() != checksum)
+         {
+            break;
+         }
+
+         // Apply the Edit
+         try
+         {
+            record.position(start);
+            apply(record, links);
+         }
+         catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e)
+         {
+            break;
+         }
+         length = start + recordLength;
+         recordCount++;
+      }
+
+      return new HyperlinkJournal(file, length, recordCount);
+   }
+
+   /**
+    * append - Appends Edits, Flushing each to Disk before the next. A Journal
+    *          that is not Valid is Started again for the Hyperlink File
+    *
+    * @param baseSize - Size of the Hyperlink File
+    * @param baseModified - Modification Time of the Hyperlink File
+    * @param edits - The Edits
+    * @throws IOException
+    */
+   public void append(final long baseSize, final long baseModified, final List<Edit> edits) throws IOException
+   {
+      try(FileChannel channel = FileChannel.open(_file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE))
+      {
+         // Start the Journal, or Drop any Torn Record at its End
+         if(_length == 0)
+         {
+            channel.truncate(0);
+            writeFully(channel, header(baseSize, baseModified), 0);
+            _length = HEADER_BYTES;
+            _recordCount = 0;
+         }
+         else
+         {
+            channel.truncate(_length);
+         }
+
+         // Append each Edit
+         final CRC32 crc = new CRC32();
+         for(Edit edit : edits)
+         {
+            final byte[] payload = edit.encode();
+            crc.reset();
+            crc.update(payload);
+
+            final ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + payload.length);
+            record.putInt(payload.length);
+            record.putInt((int) crc.getValue());
+            record.put(payload);
+            record.flip();
+            writeFully(channel, record, _length);
+            channel.force(false);
+
+            _length += RECORD_HEADER_BYTES + payload.length;
+            _recordCount++;
+         }
+      }
+   }
+
+   /**
+    * prepareRebase - Writes the Records after a Point to a Pending Journal
+    *                 for the File the Hyperlink File is being Rewritten into
+    *                 (the Records before the Point are in it). Called before
+    *                 the Rewritten File Replaces the Hyperlink File
+    *
+    * @param from - Length of the Journal the Hyperlink File is Rewritten from
+    * @param baseSize - Size of the Rewritten Hyperlink File
+    * @param baseModified - Modification Time of the Rewritten Hyperlink File
+    * @throws IOException
+    */
+   public void prepareRebase(final long from, final long baseSize, final long baseModified) throws IOException
+   {
+      // Nothing to Keep if the File holds every Record
+      if(from >= _length)
+      {
+         return;
+      }
+
+      // Copy the Later Records after a Header for the Rewritten File
+      try(FileChannel source = FileChannel.open(_file.toPath(), StandardOpenOption.READ);
+          FileChannel target = FileChannel.open(pendingFileFor(_file).toPath(), StandardOpenOption.CREATE,
+                                                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+      {
+         writeFully(target, header(baseSize, baseModified), 0);
+         target.position(HEADER_BYTES);
+         long position = from;
+         while(position < _length)
+         {
+            position += source.transferTo(position, _length - position, target);
+         }
+         target.force(true);
+      }
+   }
+
+   /**
+    * commitRebase - Replaces the Journal with the Pending Journal, or Deletes
+    *                it if the File holds every Record. Called once the
+    *                Rewritten File has Replaced the Hyperlink File
+    *
+    * @param from - Length of the Journal the Hyperlink File was Rewritten from
+    * @param fromRecordCount - Number of Records the Hyperlink File was Rewritten from
+    * @throws IOException
+    */
+   public void commitRebase(final long from, final int fromRecordCount) throws IOException
+   {
+      // Delete the Journal if the File holds every Record
+      if(from >= _length)
+      {
+         delete();
+         return;
+      }
+
+      Files.move(pendingFileFor(_file).toPath(), _file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      _length = HEADER_BYTES + (_length - from);
+      _recordCount -= fromRecordCount;
+   }
+
+   /**
+    * delete - Deletes the Journal (and any Pending Journal)
+    *
+    * @throws IOException
+    */
+   public void delete() throws IOException
+   {
+      Files.deleteIfExists(_file.toPath());
+      Files.deleteIfExists(pendingFileFor(_file).toPath());
+      _length = 0;
+      _recordCount = 0;
+   }
+
+   /**
+    * getFile - Gets the Journal File
+    *
+    * @return File
+    */
+   public File getFile()
+   {
+      return _file;
+   }
+
+   /**
+    * getLength - Gets the Length of the Valid Journal
+    *
+    * @return long - 0 if there is none
+    */
+   public long getLength()
+   {
+      return _length;
+   }
+
+   /**
+    * getRecordCount - Gets the Number of Valid Records
+    *
+    * @return int
+    */
+   public int getRecordCount()
+   {
+      return _recordCount;
+   }
+
+   /**
+    * pendingFileFor - Gets the Pending Journal of a Journal
+    *
+    * @param file - The Journal File
+    * @return File
+    */
+   private static File pendingFileFor(final File file)
+   {
+      return new File(file.getParentFile(), file.getName() + PENDING_EXTENSION);
+   }
+
+   /**
+    * readJournal - Reads a Journal if it is for the Hyperlink File as it is
+    *
+    * @param file - The Journal File
+    * @param baseSize - Size of the Hyperlink File
+    * @param baseModified - Modification Time of the Hyperlink File
+    * @return ByteBuffer - Positioned after the Header, null if there is no Journal for the File
+    * @throws IOException
+    */
+   private static ByteBuffer readJournal(final File file, final long baseSize, final long baseModified) throws IOException
+   {
+      // Check for a Journal
+      if(!file.isFile() || file.length() < HEADER_BYTES)
+      {
+         return null;
+      }
+
+      // Read the Journal (into the Heap, so it can be Rewritten, Replaced and Deleted while Open)
+      final ByteBuffer data = HyperlinkBinaryReader.readFile(file);
+      if(data.limit() < HEADER_BYTES)
+      {
+         return null;
+      }
+
+      // Check the Journal is for the Hyperlink File as it is
+      final byte[] magic = new byte[MAGIC.length];
+      data.get(magic);
+      if(!Arrays.equals(magic, MAGIC) || data.getInt() != VERSION || data.getLong() != baseSize || data.getLong() != baseModified)
+      {
+         return null;
+      }
+
+      return data;
+   }
+
+   /**
+    * apply - Applies the Edit of a Record to the Links
+    *
+    * @param record - The Record (from its Type to its End)
+    * @param links - The Links (Edited in Place)
+    * @throws IOException
+    */
+   private static void apply(final ByteBuffer record, final List<LinkRecord> links) throws IOException
+   {
+      final byte type = record.get();
+      switch(type)
+      {
+         case PUT:
+         {
+            // Replace the Link of the same Name, or Add it at the End
+            final int entryLength = record.getInt();
+            final int entry = record.position();
+            final LinkRecord link = HyperlinkBinaryReader.readLink(record, entry, entry + entryLength);
+            final int index = indexOf(links, link.getName());
+            if(index >= 0)
+            {
+               links.set(index, link);
+            }
+            else
+            {
+               links.add(link);
+            }
+            break;
+         }
+         case DELETE:
+         {
+            final int index = indexOf(links, HyperlinkBinaryReader.readString(record));
+            if(index >= 0)
+            {
+               links.remove(index);
+            }
+            break;
+         }
+         case RENAME:
+         {
+            // Rename in Place (Replaying an Applied Rename does Nothing)
+            final String oldName = HyperlinkBinaryReader.readString(record);
+            final String newName = HyperlinkBinaryReader.readString(record);
+            final int index = indexOf(links, oldName);
+            if(index >= 0 && indexOf(links, newName) < 0)
+            {
+               links.set(index, links.get(index).renamed(newName));
+            }
+            break;
+         }
+         default:
+            throw new IOException("Unknown journal record " + type);
+      }
+   }
+
+   /**
+    * indexOf - Finds a Link by Name
+    *
+    * @param links - The Links
+    * @param name - Name of the Link
+    * @return int - -1 if there is none
+    */
+   private static int indexOf(final List<LinkRecord> links, final String name)
+   {
+      for(int i = 0; i < links.size(); i++)
+      {
+         if(links.get(i).getName().equals(name))
+         {
+            return i;
+         }
+      }
+
+      return -1;
+   }
+
+   /**
+    * header - Builds the Header of a Journal
+    *
+    * @param baseSize - Size of the Hyperlink File
+    * @param baseModified - Modification Time of the Hyperlink File
+    * @return ByteBuffer
+    */
+   private static ByteBuffer header(final long baseSize, final long baseModified)
+   {
+      final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      header.put(MAGIC);
+      header.putInt(VERSION);
+      header.putLong(baseSize);
+      header.putLong(baseModified);
+      header.clear();
+
+      return header;
+   }
+
+   /**
+    * writeFully - Writes the whole Buffer at a Position
+    *
+    * @param channel - The Journal
+    * @param buffer - The Buffer
+    * @param position - Position in the Journal
+    * @throws IOException
+    */
+   private static void writeFully(final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException
+   {
+      final long start = position - buffer.position();
+      while(buffer.hasRemaining())
+      {
+         channel.write(buffer, start + buffer.position());
+      }
+   }
+
+   /**
+    * Edit - An Edit to the Links of a Hyperlink File
+    */
+   public static class Edit
+   {
+      /** Type of the Edit */
+      private final byte type;
+
+      /** Name of the Link Deleted/Renamed */
+      private final String name;
+
+      /** New Name of a Renamed Link */
+      private final String newName;
+
+      /** The Link Put */
+      private final LinkRecord link;
+
+      /**
+       * Constructor
+       *
+       * @param type - Type of the Edit
+       * @param name - Name of the Link Deleted/Renamed
+       * @param newName - New Name of a Renamed Link
+       * @param link - The Link Put
+       */
+      private Edit(final byte type, final String name, final String newName, final LinkRecord link)
+      {
+         this.type = type;
+         this.name = name;
+         this.newName = newName;
+         this.link = link;
+      }
+
+      /**
+       * put - Creates an Edit that Adds a Link or Replaces the Link of its Name
+       *
+       * @param link - The Link
+       * @return Edit
+       */
+      public static Edit put(final LinkRecord link)
+      {
+         return new Edit(PUT, link.getName(), null, link);
+      }
+
+      /**
+       * delete - Creates an Edit that Deletes a Link
+       *
+       * @param name - Name of the Link
+       * @return Edit
+       */
+      public static Edit delete(final String name)
+      {
+         return new Edit(DELETE, name, null, null);
+      }
+
+      /**
+       * rename - Creates an Edit that Renames a Link
+       *
+       * @param name - Name of the Link
+       * @param newName - New Name of the Link
+       * @return Edit
+       */
+      public static Edit rename(final String name, final String newName)
+      {
+         return new Edit(RENAME, name, newName, null);
+      }
+
+      /**
+       * encode - Encodes the Type and Payload of the Record of the Edit
+       *
+       * @return byte[]
+       * @throws IOException
+       */
+      private byte[] encode() throws IOException
+      {
+         final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+         final DataOutputStream out = new DataOutputStream(bytes);
+         out.writeByte(type);
+         switch(type)
+         {
+            case PUT:
+            {
+               // The Entry's Length lets the Track be Found
+               final ByteArrayOutputStream entry = new ByteArrayOutputStream();
+               HyperlinkBinaryWriter.writeEntry(new DataOutputStream(entry), link);
+               out.writeInt(entry.size());
+               entry.writeTo(out);
+               HyperlinkBinaryWriter.writeTrack(out, link, true);
+               break;
+            }
+            case DELETE:
+               HyperlinkBinaryWriter.writeString(out, name);
+               break;
+            default:
+               HyperlinkBinaryWriter.writeString(out, name);
+               HyperlinkBinaryWriter.writeString(out, newName);
+               break;
+         }
+         out.flush();
+
+         return bytes.toByteArray();
+      }
+   }
+}
\ No newline at end of file
@@ -0,0 +1,579 @@
+package data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HyperlinkRepository - Loads and Saves Hyperlink Files for every Controller,
+ *                       Caching the Links of each File by its Canonical Path.
+ *                       A Cached File is only Parsed again once it or its
+ *                       Journal Changes, and the Least Recently Used Files are
+ *                       Evicted once the Cache Outgrows its Memory Budget. The
+ *                       Cache holds Immutable Records; every Load builds new
+ *                       Links, which Callers may Edit. Files are Binary (.hlb)
+ *                       or JSON by their Extension, so Saving a Link Set under
+ *                       the other Extension Converts it.
+ *
+ *                       Saving an existing File only Appends the Links that
+ *                       Changed to its Journal (see HyperlinkJournal), unless
+ *                       Links were Reordered or share a Name; once the Journal
+ *                       Grows, a Background Compactor Rewrites the File with it
+ */
+public class HyperlinkRepository
+{
+   /** Extension of a JSON Hyperlink File (the Import/Export Format) */
+   public static final String JSON_EXTENSION = ".json";
+
+   /** Memory Budget of the Cache in Bytes */
+   private static final long MAX_WEIGHT = 64L * 1024 * 1024;
+
+   /** Number of Journal Records that Triggers a Compaction */
+   private static final int COMPACT_RECORDS = 64;
+
+   /** Journal Length that Triggers a Compaction (or the Size of the File, if Larger) */
+   private static final long COMPACT_BYTES = 256L * 1024;
+
+   /** Cached Files by Canonical Path (Least Recently Used First) */
+   private final LinkedHashMap<Path, Entry> _cache;
+
+   /** Estimated Memory the Cache holds in Bytes */
+   private long _weight;
+
+   /** Thread Folding Journals into their Files */
+   private final ExecutorService _compactor;
+
+   /** Files with a Compaction Queued or Running */
+   private final Set<Path> _compacting;
+
+   /**
+    * Constructor
+    */
+   public HyperlinkRepository()
+   {
+      _cache = new LinkedHashMap<Path, Entry>(16, 0.75f, true);
+
+      // Initialize the Compactor (a Daemon, as the Journal is Replayed if it never Runs)
+      _compactor = Executors.newSingleThreadExecutor(runnable ->
+      {
+         Thread thread = new Thread(runnable, "hyperlink-compactor");
+         thread.setDaemon(true);
+         return thread;
+      });
+      _compacting = new HashSet<Path>();
+   }
+
+   /**
+    * load - Loads the Links of a Hyperlink File, Parsing it only if
+    *        it is not Cached or has Changed since it was Cached
+    *
+    * @param file - The Hyperlink File
+    * @return ArrayList<Link> - New Links, in the Order they are in the File
+    * @throws IOException - If the File can not be Read or is not a Hyperlink File
+    */
+   public ArrayList<Link> load(final File file) throws IOException
+   {
+      final List<LinkRecord> records = loadRecords(file);
+
+      // Build new Links from the Records
+      final ArrayList<Link> links = new ArrayList<Link>(records.size());
+      for(LinkRecord record : records)
+      {
+         links.add(record.toLink());
+      }
+
+      return links;
+   }
+
+   /**
+    * loadRecords - Loads the Records of a Hyperlink File (with its Journal Replayed),
+    *               Parsing it only if it is not Cached or has Changed since it was Cached
+    *
+    * @param file - The Hyperlink File
+    * @return List<LinkRecord> - Unmodifiable, in the Order they are in the File
+    * @throws IOException - If the File can not be Read or is not a Hyperlink File
+    */
+   public synchronized List<LinkRecord> loadRecords(final File file) throws IOException
+   {
+      return current(file.toPath().toRealPath()).records;
+   }
+
+   /**
+    * save - Saves Links to a Hyperlink File. An existing File only has the
+    *        Links that Changed since it was Saved Appended to its Journal
+    *
+    * @param file - The Hyperlink File (Binary or JSON by its Extension)
+    * @param links - The Links (in the Order they are Saved)
+    * @param prettyPrint - Whether JSON is Indented for Reading
+    * @throws IOException
+    */
+   public void save(final File file, final List<Link> links, final boolean prettyPrint) throws IOException
+   {
+      saveEdits(file, snapshot(links), prettyPrint);
+   }
+
+   /**
+    * saveEdits - Saves Records to a Hyperlink File. An existing File only has the
+    *             Records that Changed since it was Saved Appended to its Journal
+    *
+    * @param file - The Hyperlink File (Binary or JSON by its Extension)
+    * @param records - The Records (in the Order they are Saved, not Modified afterwards)
+    * @param prettyPrint - Whether JSON is Indented for Reading
+    * @throws IOException
+    */
+   public synchronized void saveEdits(final File file, final List<LinkRecord> records, final boolean prettyPrint) throws IOException
+   {
+      // Write a new File in Full
+      if(!file.isFile())
+      {
+         saveRecords(file, records, prettyPrint);
+         return;
+      }
+
+      // Find what Changed since the File was Saved (Rewriting it if the Journal can not hold that)
+      final Path path = file.toPath().toRealPath();
+      final Entry saved = current(path);
+      final List<HyperlinkJournal.Edit> edits = HyperlinkJournal.diff(saved.records, records);
+      if(edits == null)
+      {
+         saveRecords(file, records, prettyPrint);
+         return;
+      }
+      if(edits.isEmpty())
+      {
+         return;
+      }
+
+      // Append the Edits to the Journal
+      final HyperlinkJournal journal = new HyperlinkJournal(HyperlinkJournal.fileFor(path.toFile()),
+                                                            saved.journalLength, saved.journalRecords);
+      journal.append(saved.size, saved.modified, edits);
+      put(path, new Entry(saved.size, saved.modified, journal, new ArrayList<LinkRecord>(records)));
+
+      // Fold the Journal into the File once it Grows
+      if(journal.getRecordCount() >= COMPACT_RECORDS || journal.getLength() >= Math.max(COMPACT_BYTES, saved.size))
+      {
+         scheduleCompaction(path, prettyPrint);
+      }
+   }
+
+   /**
+    * export - Writes Links to a Hyperlink File in Full (without a Journal)
+    *
+    * @param file - The Hyperlink File (Binary or JSON by its Extension)
+    * @param links - The Links (in the Order they are Written)
+    * @param prettyPrint - Whether JSON is Indented for Reading
+    * @throws IOException
+    */
+   public void export(final File file, final List<Link> links, final boolean prettyPrint) throws IOException
+   {
+      saveRecords(file, snapshot(links), prettyPrint);
+   }
+
+   /**
+    * saveRecords - Writes Records to a Hyperlink File in Full, Dropping
+    *               its Journal, and Caches what was Written
+    *
+    * @param file - The Hyperlink File (Binary or JSON by its Extension)
+    * @param records - The Records (in the Order they are Written, not Modified afterwards)
+    * @param prettyPrint - Whether JSON is Indented for Reading
+    * @throws IOException
+    */
+   public synchronized void saveRecords(final File file, final List<LinkRecord> records, final boolean prettyPrint) throws IOException
+   {
+      // Write the File, then Drop the Journal it Replaces
+      final boolean binary = isBinary(file);
+      writeFile(file, records, prettyPrint);
+      final Path path = file.toPath().toRealPath();
+      final HyperlinkJournal journal = new HyperlinkJournal(HyperlinkJournal.fileFor(path.toFile()), 0, 0);
+      journal.delete();
+
+      // Cache the Records under the File as Written (Binary Coordinates are Rounded, so are Read back)
+      if(binary)
+      {
+         reload(path);
+      }
+      else
+      {
+         final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+         put(path, new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(), journal,
+                             new ArrayList<LinkRecord>(records)));
+      }
+   }
+
+   /**
+    * fileFor - Gets the Hyperlink File of a Video in a Folder: the Binary File,
+    *           else an existing JSON File, else the Binary File to Create
+    *
+    * @param folder - The Folder of Hyperlink Files
+    * @param videoName - Name of the Video (without Extension)
+    * @return File
+    */
+   public static File fileFor(final File folder, final String videoName)
+   {
+      // Fall back to JSON only for a File that exists
+      final File binary = new File(folder, videoName + HyperlinkBinaryReader.EXTENSION);
+      final File json = new File(folder, videoName + JSON_EXTENSION);
+      if(!binary.exists() && json.exists())
+      {
+         return json;
+      }
+
+      return binary;
+   }
+
+   /**
+    * isBinary - Checks if a Hyperlink File is Binary (by its Extension)
+    *
+    * @param file - The Hyperlink File
+    * @return boolean
+    */
+   public static boolean isBinary(final File file)
+   {
+      return file.getName().toLowerCase().endsWith(HyperlinkBinaryReader.EXTENSION);
+   }
+
+   /**
+    * snapshot - Takes an Immutable Snapshot of Links (on the Thread that Edits
+    *            them), which can be Saved on any Thread afterwards
+    *
+    * @param links - The Links
+    * @return List<LinkRecord>
+    */
+   public static List<LinkRecord> snapshot(final List<Link> links)
+   {
+      final List<LinkRecord> records = new ArrayList<LinkRecord>(links.size());
+      for(Link link : links)
+      {
+         records.add(LinkRecord.fromLink(link));
+      }
+
+      return records;
+   }
+
+   /**
+    * current - Gets the Records of a File as it and its Journal are now,
+    *           from the Cache unless either has Changed
+    *
+    * @param path - Canonical Path of the File
+    * @return Entry
+    * @throws IOException
+    */
+   private Entry current(final Path path) throws IOException
+   {
+      // Look up the File and its Journal as they are now
+      final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+      final File journalFile = HyperlinkJournal.fileFor(path.toFile());
+
+      // Use the Cached Records unless the File or its Journal has Changed
+      final Entry cached = _cache.get(path);
+      if(cached != null && cached.matches(attributes, journalFile.length()))
+      {
+         return cached;
+      }
+
+      // Parse the File and Replay its Journal
+      final List<LinkRecord> records = new ArrayList<LinkRecord>(isBinary(path.toFile()) ? HyperlinkBinaryReader.read(path.toFile())
+                                                                                          : HyperlinkFileReader.read(path.toFile()));
+      final long size = attributes.size();
+      final long modified = attributes.lastModifiedTime().toMillis();
+      final HyperlinkJournal journal = HyperlinkJournal.replay(journalFile, size, modified, records);
+
+      return put(path, new Entry(size, modified, journal, records));
+   }
+
+   /**
+    * reload - Parses a File and its Journal again
+    *
+    * @param path - Canonical Path of the File
+    * @return Entry
+    * @throws IOException
+    */
+   private Entry reload(final Path path) throws IOException
+   {
+      remove(path);
+      return current(path);
+   }
+
+   /**
+    * scheduleCompaction - Queues a Compaction of a File unless one is Queued
+    *
+    * @param path - Canonical Path of the File
+    * @param prettyPrint - Whether JSON is Indented for Reading
+    */
+   private void scheduleCompaction(final Path path, final boolean prettyPrint)
+   {
+      if(_compacting.add(path))
+      {
+         _compactor.execute(() ->
+         {
+            try
+            {
+               compact(path, prettyPrint);
+            }
+            catch (IOException e)
+            {
+               // Log Error (the Journal is still Replayed on Load)
+               e.printStackTrace();
+            }
+            finally
+            {
+               synchronized(this)
+               {
+                  _compacting.remove(path);
+               }
+            }
+         });
+      }
+   }
+
+   /**
+    * compact - Rewrites a File with its Journal Folded in. The File is Written
+    *           to a Temporary File outside the Lock, so Saves go on meanwhile;
+    *           the Records they Append are Rebased onto the Rewritten File
+    *
+    * @param path - Canonical Path of the File
+    * @param prettyPrint - Whether JSON is Indented for Reading
+    * @throws IOException
+    */
+   private void compact(final Path path, final boolean prettyPrint) throws IOException
+   {
+      // Take the Records as they are
+      final Entry folded;
+      synchronized(this)
+      {
+         folded = current(path);
+         if(folded.journalLength == 0)
+         {
+            return;
+         }
+      }
+
+      // Write the Records to a Temporary File beside the File
+      final File file = path.toFile();
+      final File tempFile = writeTempFile(file, folded.records, prettyPrint);
+      try
+      {
+         final BasicFileAttributes written = Files.readAttributes(tempFile.toPath(), BasicFileAttributes.class);
+
+         synchronized(this)
+         {
+            // Give up if the File was Written in Full meanwhile
+            final Entry latest = current(path);
+            if(latest.size != folded.size || latest.modified != folded.modified)
+            {
+               return;
+            }
+
+            // Replace the File, Keeping the Records Appended since in a Journal for it
+            final HyperlinkJournal journal = new HyperlinkJournal(HyperlinkJournal.fileFor(file), latest.journalLength, latest.journalRecords);
+            journal.prepareRebase(folded.journalLength, written.size(), written.lastModifiedTime().toMillis());
+            Files.move(tempFile.toPath(), path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            journal.commitRebase(folded.journalLength, folded.journalRecords);
+
+            // Cache the Records under the Rewritten File
+            reload(path);
+         }
+      }
+      finally
+      {
+         // Drop the Temporary File unless it Replaced the File
+         Files.deleteIfExists(tempFile.toPath());
+      }
+   }
+
+   /**
+    * writeFile - Writes Records to a File in Full. The Records are Written to a
+    *             Temporary File that then Replaces the File, so a Crash leaves
+    *             either the old File or the new one, never a Truncated one
+    *
+    * @param file - The File (Binary or JSON by its Extension)
+    * @param records - The Records
+    * @param prettyPrint - Whether JSON is Indented for Reading
+    * @throws IOException
+    */
+   private static void writeFile(final File file, final List<LinkRecord> records, final boolean prettyPrint) throws IOException
+   {
+      final File tempFile = writeTempFile(file, records, prettyPrint);
+      try
+      {
+         Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      }
+      finally
+      {
+         Files.deleteIfExists(tempFile.toPath());
+      }
+   }
+
+   /**
+    * writeTempFile - Writes Records to a new Temporary File beside a File,
+    *                 Flushed to Disk, in the Format of the File
+    *
+    * @param file - The File (Binary or JSON by its Extension)
+    * @param records - The Records
+    * @param prettyPrint - Whether JSON is Indented for Reading
+    * @return File - The Temporary File
+    * @throws IOException
+    */
+   private static File writeTempFile(final File file, final List<LinkRecord> records, final boolean prettyPrint) throws IOException
+   {
+      // Create the Temporary File in the same Folder, so it can be Moved Atomically
+      final File folder = file.getAbsoluteFile().getParentFile();
+      final File tempFile = Files.createTempFile(folder.toPath(), file.getName() + ".", ".tmp").toFile();
+
+      try
+      {
+         // Write the Records
+         if(isBinary(file))
+         {
+            HyperlinkBinaryWriter.write(tempFile, records);
+         }
+         else
+         {
+            HyperlinkFileWriter.write(tempFile, records, prettyPrint);
+         }
+
+         // Flush them to Disk
+         try(FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.WRITE))
+         {
+            channel.force(true);
+         }
+      }
+      catch (IOException | RuntimeException e)
+      {
+         Files.deleteIfExists(tempFile.toPath());
+         throw e;
+      }
+
+      return tempFile;
+   }
+
+   /**
+    * put - Caches the Records of a File, Evicting the Least
+    *       Recently Used Files to stay within the Memory Budget
+    *
+    * @param path - Canonical Path of the File
+    * @param entry - The Records and the File they are from
+    * @return Entry - The Entry (even if too Large to Cache)
+    */
+   private Entry put(final Path path, final Entry entry)
+   {
+      // Replace any earlier Entry of the File
+      remove(path);
+
+      // Files larger than the whole Budget are not Cached
+      if(entry.weight > MAX_WEIGHT)
+      {
+         return entry;
+      }
+
+      // Evict the Least Recently Used Files
+      final Iterator<Map.Entry<Path, Entry>> eldest = _cache.entrySet().iterator();
+      while(_weight + entry.weight > MAX_WEIGHT && eldest.hasNext())
+      {
+         _weight -= eldest.next().getValue().weight;
+         eldest.remove();
+      }
+
+      _cache.put(path, entry);
+      _weight += entry.weight;
+
+      return entry;
+   }
+
+   /**
+    * remove - Drops a File from the Cache
+    *
+    * @param path - Canonical Path of the File
+    */
+   private void remove(final Path path)
+   {
+      final Entry removed = _cache.remove(path);
+      if(removed != null)
+      {
+         _weight -= removed.weight;
+      }
+   }
+
+   /**
+    * Entry - Records of a Cached File (with its Journal Replayed)
+    *         and the File and Journal they are from
+    */
+   private static class Entry
+   {
+      /** Size of the File */
+      private final long size;
+
+      /** Modification Time of the File */
+      private final long modified;
+
+      /** Size of the Journal File (0 if there is none) */
+      private final long journalSize;
+
+      /** Length of the Valid Journal (0 if there is none) */
+      private final long journalLength;
+
+      /** Number of Records in the Valid Journal */
+      private final int journalRecords;
+
+      /** Records of the File */
+      private final List<LinkRecord> records;
+
+      /** Estimated Memory of the Records in Bytes */
+      private final long weight;
+
+      /**
+       * Constructor
+       *
+       * @param size - Size of the File
+       * @param modified - Modification Time of the File
+       * @param journal - The Valid Journal of the File
+       * @param records - Records of the File (with its Journal Replayed)
+       */
+      private Entry(final long size, final long modified, final HyperlinkJournal journal, final List<LinkRecord> records)
+      {
+         this.size = size;
+         this.modified = modified;
+         journalSize = journal.getFile().length();
+         journalLength = journal.getLength();
+         journalRecords = journal.getRecordCount();
+         this.records = Collections.unmodifiableList(records);
+
+         // Add up the Records
+         long total = 0;
+         for(LinkRecord record : records)
+         {
+            total += record.getWeight();
+         }
+         weight = total;
+      }
+
+      /**
+       * matches - Checks if the File and its Journal are still as they were Cached
+       *
+       * @param attributes - Attributes of the File now
+       * @param journalSize - Size of the Journal File now (0 if there is none)
+       * @return boolean
+       */
+      private boolean matches(final BasicFileAttributes attributes, final long journalSize)
+      {
+         return size == attributes.size() && modified == attributes.lastModifiedTime().toMillis()
+                && this.journalSize == journalSize;
+      }
+   }
+}
\ No newline at end of file
@@ -2,19 +2,24 @@ package data;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.TreeMap;
 
 import controllers.VideoToolController;
+import enums.EInterpolationMode;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.scene.Group;
 
 /**
- * Link - Implementation of a HyperLink Object
+ * Link - Implementation of a HyperLink Object. The Bounding Box is Kept as
+ *        Keyframes (as in a LinkRecord); a LinkBox is only Created for a
+ *        Frame when it is Shown, Interpolated from the Keyframes around it,
+ *        and its Edits are Stored back as a Keyframe once it is Released
  */
 public class Link 
 {
@@ -42,9 +47,18 @@ public class Link
    /** Current Selected Frame in Primary Video */
    private int _currentFrame;
 
-   /** Mapping of Frames to Bounding Box */
+   /** Keyframes of the Bounding Box (Frame to X/Y Coordinates, never Modified in place) */
+   private final TreeMap<Integer, double[]> _keyFrames;
+
+   /** How the Bounding Box is Recomputed between Keyframes */
+   private EInterpolationMode _interpolation;
+
+   /** Mapping of the Frames Shown to their Bounding Box */
    private Map<Integer, LinkBox> _frameToBoxMap;
 
+   /** Link is Visible Indicator (for Bounding Boxes not yet Created) */
+   private boolean _isVisible;
+
    /** The Video Tool Controller */
    private VideoToolController _videoToolController;
 
@@ -77,63 +91,56 @@ public class Link
       // Initialize Selected Indicator
       _isSelected = false;
 
-      // Initialize Frame to Link Map
-      _frameToBoxMap = new HashMap<Integer, LinkBox>();
+      // Initialize Keyframes (every Frame Holds the Default Bounding Box)
+      _keyFrames = new TreeMap<Integer, double[]>();
+      _keyFrames.put(startFrame, LinkBox.getDefaultPoints());
+      _interpolation = EInterpolationMode.LINEAR;
 
-      // Iterate over each Frame
-      for(int i = startFrame; i <= endFrame; ++i)
-      {
-         // Create a New Link Bounding Box
-         LinkBox linkBox = new LinkBox(this);
-
-         // Add Bounding Box to Map
-         _frameToBoxMap.put(i, linkBox);
-      }
+      // Initialize Frame to Link Map (Filled as Frames are Shown)
+      _frameToBoxMap = new HashMap<Integer, LinkBox>();
+      _isVisible = true;
    }
 
    /**
     * Constructor
     *
-    * @param name
-    * @param startFrame
-    * @param endFrame
-    * @param fromVideo
-    * @param toVideo
-    * @param toFrame
-    * @param pos
+    * @param record - The Stored Link (its Keyframes are Shared, as neither Modifies them)
     */
-   public Link(String name, final int startFrame, final int endFrame, final int currentFrame, String fromVideo, String toVideo, int toFrame, HashMap<Integer, ArrayList<Double>> pos)
+   public Link(final LinkRecord record)
    {
       // Initialize Link Name
-      _linkName = new SimpleStringProperty(name);
+      _linkName = new SimpleStringProperty(record.getName());
 
       // Initialize Start/End Frame
-      _startFrame = new SimpleIntegerProperty(startFrame);
-      _endFrame = new SimpleIntegerProperty(endFrame);
+      _startFrame = new SimpleIntegerProperty(record.getStartFrame());
+      _endFrame = new SimpleIntegerProperty(record.getEndFrame());
 
-      _currentFrame = currentFrame;
+      _currentFrame = record.getStartFrame();
 
       // Initialize To/From Videos
-      _toVideo = new File(toVideo);
-      _fromVideo = new File(fromVideo);
+      _toVideo = new File(record.getToVideo());
+      _fromVideo = new File(record.getFromVideo());
 
       // Initialize To Frame
-      _toFrame = toFrame;
+      _toFrame = record.getToFrame();
 
       _isSelected = false;
 
-      // Initialize Frame to Link Map
-      _frameToBoxMap = new HashMap<Integer, LinkBox>();
-
-      // Iterate over each Frame
-      for(int i = startFrame; i <= endFrame; ++i)
+      // Initialize Keyframes (a Link without any Holds the Default Bounding Box)
+      _keyFrames = new TreeMap<Integer, double[]>();
+      for(int key = 0; key < record.getKeyFrameCount(); key++)
       {
-         // Create a New Link Bounding Box
-         LinkBox linkBox = new LinkBox(this, pos.get(i));
-
-         // Add Bounding Box to Map
-         _frameToBoxMap.put(i, linkBox);
+         _keyFrames.put(record.getKeyFrame(key), record.getKeyPoints(key));
+      }
+      if(_keyFrames.isEmpty())
+      {
+         _keyFrames.put(record.getStartFrame(), LinkBox.getDefaultPoints());
       }
+      _interpolation = record.getInterpolation();
+
+      // Initialize Frame to Link Map (Filled as Frames are Shown)
+      _frameToBoxMap = new HashMap<Integer, LinkBox>();
+      _isVisible = true;
    }
 
    /**
@@ -141,55 +148,29 @@ public class Link
     */
    public void performLinearInterpolation()
    {
-      // Amount of Frames the Link is in
-      final int dFrameTime = _endFrame.get() - _startFrame.get();
-
       synchronized (_frameToBoxMap)
       {
-         // Get the Link Box Associated with the Start/End Frame
-         LinkBox startLinkBox = _frameToBoxMap.get(_startFrame.get());
-         LinkBox endLinkBox = _frameToBoxMap.get(_endFrame.get());
-
-         // Get Vertices for Start/End Link Box
-         List<Double> startVertices = startLinkBox.getPoints();
-         List<Double> endVertices = endLinkBox.getPoints();
-
-         // Iterate over Points in BoundingBox
-         for(int i = 0; i < startVertices.size(); i+=2)
+         // Get Vertices for Start/End Frame (Shown Boxes may hold Edits)
+         final double[] startVertices = getBoxPoints(_startFrame.get());
+         final double[] endVertices = getBoxPoints(_endFrame.get());
+
+         // Keep only the Start/End Frame as Keyframes, Moving in a Straight Line between them
+         _keyFrames.clear();
+         _keyFrames.put(_startFrame.get(), startVertices);
+         _keyFrames.put(_endFrame.get(), endVertices);
+         _interpolation = EInterpolationMode.LINEAR;
+
+         // Iterate over the Bounding Boxes Shown
+         for(Map.Entry<Integer, LinkBox> entry : _frameToBoxMap.entrySet())
          {
-            // Get X/Y of Start Vertex
-            final double startX = startVertices.get(i);
-            final double startY = startVertices.get(i+1);
-
-            // Get X/Y of End Vertex
-            final double endX = endVertices.get(i);
-            final double endY = endVertices.get(i+1);
+            // Get X/Y of the Vertices at the Frame
+            final double[] points = interpolate(entry.getKey());
+            final List<Double> vertices = entry.getValue().getPoints();
 
-            // Calculate Change in X/Y Value of the Vertex per Frame
-            final double dx = (endX - startX) / dFrameTime;
-            final double dy = (endY - startY) / dFrameTime;
-
-            // Initialize Change in X/Y Value per frame
-            double fX = 0;
-            double fY = 0;
-
-            // Iterate over all the Frames the Link is in
-            for(int j = _startFrame.get(); j <= _endFrame.get(); ++j)
+            // Update X/Y of the Vertices
+            for(int i = 0; i < points.length && i < vertices.size(); i++)
             {
-               // Get the Link Box associated with the Frame
-               LinkBox linkBox = _frameToBoxMap.get(j);
-
-               // Get X/Y of the Vertex
-               final double x = linkBox.getPoints().get(i);
-               final double y = linkBox.getPoints().get(i+1);
-
-               // Update X/Y of the Vertex
-               linkBox.getPoints().set(i, startX+fX);
-               linkBox.getPoints().set(i+1, startY+fY);
-
-               // Increment Values
-               fX += dx;
-               fY += dy;
+               vertices.set(i, points[i]);
             }
          }
       }
@@ -297,8 +278,8 @@ public class Link
 
       synchronized (_frameToBoxMap)
       {
-         // Get the Link Box Associated with the Frame
-         LinkBox linkBox = _frameToBoxMap.get(frameNum);
+         // Get the Link Box Associated with the Frame (Created as it is Shown)
+         LinkBox linkBox = getBox(frameNum);
 
          // Null Check Link Box
          if(linkBox != null)
@@ -322,13 +303,15 @@ public class Link
 
       synchronized (_frameToBoxMap)
       {
-         // Get the Link Box Associated with the Frame
-         LinkBox linkBox = _frameToBoxMap.get(frameNum);
-
-         // Null Check Link Box
-         if(linkBox != null)
+         // Check Link is in the Frame
+         if(containsFrame(frameNum))
          {
-            vertices = linkBox.getVertices();
+            // Get the Vertices of the Frame (without Creating a Box for it)
+            final double[] points = getBoxPoints(frameNum);
+            for(int i = 0; i + 1 < points.length; i += 2)
+            {
+               vertices.add(new Point(points[i], points[i+1]));
+            }
          }
       }
 
@@ -433,12 +416,12 @@ public class Link
    {
       synchronized (_frameToBoxMap)
       {
-         // Iterate over each Frame
-         for(int i = _startFrame.get(); i <= _endFrame.get(); ++i)
-         {
-            // Get the Link Box Associated with the Frame
-            LinkBox linkBox = _frameToBoxMap.get(i);
+         // Remember the Visibility for Boxes Created later
+         _isVisible = isVisible;
 
+         // Iterate over the Bounding Boxes Shown
+         for(LinkBox linkBox : _frameToBoxMap.values())
+         {
             // Update the Visibility Property of the Link
             linkBox.setIsVisible(isVisible);
          }
@@ -454,14 +437,19 @@ public class Link
    {
       synchronized (_frameToBoxMap)
       {
-         // Iterate over each Frame
-         for(int i = _startFrame.get(); i <= _endFrame.get(); ++i)
-         {
-            // Get the Link Box Associated with the Frame
-            LinkBox linkBox = _frameToBoxMap.get(i);
+         // Release the Bounding Boxes Shown (Recreated at the new Scale)
+         releaseBoxes(null);
 
-            // Update the Vertices in the Video
-            linkBox.scaleVertices(scaleFactor);
+         // Iterate over each Keyframe
+         for(Map.Entry<Integer, double[]> entry : _keyFrames.entrySet())
+         {
+            // Scale a Copy of the Vertices (Records may Share them)
+            final double[] points = entry.getValue().clone();
+            for(int i = 0; i < points.length; i++)
+            {
+               points[i] *= scaleFactor;
+            }
+            entry.setValue(points);
          }
       }
    }
@@ -474,6 +462,12 @@ public class Link
       // Updates the Current Frame
       _currentFrame = frameNum;
 
+      // Release the Bounding Boxes of other Frames (only the Current Frame's is Shown)
+      synchronized (_frameToBoxMap)
+      {
+         releaseBoxes(frameNum);
+      }
+
       // Update Editable State of Link
       updateEditableState();
 
@@ -489,7 +483,7 @@ public class Link
       synchronized (_frameToBoxMap)
       {
          // Get the Link Box Associated with the Frame
-         LinkBox linkBox = _frameToBoxMap.get(_currentFrame);
+         LinkBox linkBox = getBox(_currentFrame);
 
          // Null Check Link Box
          if(linkBox != null)
@@ -517,51 +511,25 @@ public class Link
     */
    public void updateStartFrameBoundingGroup(final int oldValue)
    {
-      // Initialize Set of Irrelevant Frames
-      Set<Integer> irrelevantFrames = new HashSet<Integer>();
-
       synchronized (_frameToBoxMap)
       {
-         // Remove irrelevant frame
-         for(Integer frameNum : _frameToBoxMap.keySet())
-         {
-            // If less than start or end frames
-            if(frameNum < _startFrame.get())
-            {
-               // add to list of irrelevant frames
-               irrelevantFrames.add(frameNum);
-            }
-         }
+         // Store the Edits of the Bounding Boxes Shown
+         releaseBoxes(null);
 
-         // Iterate over each Frame
-         for(int i = _startFrame.get(); i <= _endFrame.get(); ++i)
+         // Check if the Link now Starts Earlier
+         final int startFrame = _startFrame.get();
+         if(startFrame < oldValue)
          {
-            // Create a New Link Bounding Box
-            LinkBox linkBox = _frameToBoxMap.get(i);
-
-            // Null Check Link Box
-            if(linkBox == null)
-            {
-               // Get LinkBox of Old Start/End Value
-               LinkBox oldBox = _frameToBoxMap.get(oldValue);
-
-               // Null Check Old Box
-               if(oldBox != null)
-               {
-                  // Create new LinkBox for Map
-                  ArrayList<Double> points = new ArrayList<Double>(oldBox.getPoints());
-                  LinkBox box = new LinkBox(this, points);
-
-                  // Add Bounding Box to Map
-                  _frameToBoxMap.put(i, box);
-               }
-            }
+            // The new Frames Hold the Bounding Box of the Old Start Frame
+            final double[] points = interpolate(oldValue);
+            _keyFrames.put(oldValue, points);
+            _keyFrames.put(startFrame, points);
          }
-
-         // Iterate over Irrelevant Frames
-         for(Integer frame : irrelevantFrames)
+         else if(startFrame > oldValue)
          {
-            _frameToBoxMap.remove(frame);
+            // Keep the Bounding Box of the new Start Frame, then Remove the Frames before it
+            _keyFrames.put(startFrame, interpolate(startFrame));
+            _keyFrames.headMap(startFrame).clear();
          }
       }
    }
@@ -571,51 +539,198 @@ public class Link
     */
    public void updateEndFrameBoundingGroup(final int oldValue)
    {
-      // Initialize Set of Irrelevant Frames
-      Set<Integer> irrelevantFrames = new HashSet<Integer>();
-
       synchronized (_frameToBoxMap)
       {
-         // Remove irrelevant frame
-         for(Integer frameNum : _frameToBoxMap.keySet())
+         // Store the Edits of the Bounding Boxes Shown
+         releaseBoxes(null);
+
+         // Check if the Link now Ends Later
+         final int endFrame = _endFrame.get();
+         if(endFrame > oldValue)
          {
-            // If less than start or end frames
-            if(frameNum > _endFrame.get() && oldValue > _endFrame.get())
-            {
-               // add to list of irrelevant frames
-               irrelevantFrames.add(frameNum);
-            }
+            // The new Frames Hold the Bounding Box of the Old End Frame
+            final double[] points = interpolate(oldValue);
+            _keyFrames.put(oldValue, points);
+            _keyFrames.put(endFrame, points);
+         }
+         else if(endFrame < oldValue)
+         {
+            // Keep the Bounding Box of the new End Frame, then Remove the Frames after it
+            _keyFrames.put(endFrame, interpolate(endFrame));
+            _keyFrames.tailMap(endFrame, false).clear();
          }
+      }
+   }
 
-         // Iterate over each Frame
-         for(int i = _startFrame.get(); i <= _endFrame.get(); ++i)
+   /**
+    * toRecord - Takes a Snapshot of the Link's Keyframes
+    *            (with the Edits of the Bounding Boxes Shown)
+    *
+    * @return LinkRecord
+    */
+   LinkRecord toRecord()
+   {
+      synchronized (_frameToBoxMap)
+      {
+         // Store the Edits of the Bounding Boxes Shown (they stay Shown)
+         for(Map.Entry<Integer, LinkBox> entry : _frameToBoxMap.entrySet())
          {
-            // Create a New Link Bounding Box
-            LinkBox linkBox = _frameToBoxMap.get(i);
+            storeBox(entry.getKey(), entry.getValue());
+         }
 
-            // Null Check Link Box
-            if(linkBox == null)
-            {
-               // Get LinkBox of Old Start/End Value
-               LinkBox oldBox = _frameToBoxMap.get(oldValue);
-
-               // Null Check Old Box
-               if(oldBox != null)
-               {
-                  // Create new LinkBox for Map
-                  ArrayList<Double> points = new ArrayList<Double>(oldBox.getPoints());
-                  LinkBox box = new LinkBox(this, points);
-
-                  // Add Bounding Box to Map
-                  _frameToBoxMap.put(i, box);
-               }
-            }
+         // Copy the Keyframes (the Coordinates are never Modified, so are Shared)
+         final int[] keyFrames = new int[_keyFrames.size()];
+         final double[][] keyPoints = new double[_keyFrames.size()][];
+         int key = 0;
+         for(Map.Entry<Integer, double[]> entry : _keyFrames.entrySet())
+         {
+            keyFrames[key] = entry.getKey();
+            keyPoints[key] = entry.getValue();
+            key++;
          }
 
-         // Iterate over Irrelevant Frames
-         for(Integer frame : irrelevantFrames)
+         return new LinkRecord(getLinkName(), _fromVideo.getAbsolutePath(), _toVideo.getAbsolutePath(), _toFrame,
+                               _startFrame.get(), _endFrame.get(), _interpolation, keyFrames, keyPoints);
+      }
+   }
+
+   /**
+    * getBox - Gets the Bounding Box of a Frame, Creating it
+    *          from the Keyframes the first time it is Shown
+    *
+    * @param frameNum - The Frame
+    * @return LinkBox - Null if the Link is not in the Frame
+    */
+   private LinkBox getBox(final int frameNum)
+   {
+      // Check Link is in the Frame
+      if(!containsFrame(frameNum))
+      {
+         return null;
+      }
+
+      // Create the Box on its first Showing
+      LinkBox linkBox = _frameToBoxMap.get(frameNum);
+      if(linkBox == null)
+      {
+         linkBox = new LinkBox(this, interpolate(frameNum));
+         linkBox.setIsVisible(_isVisible);
+         _frameToBoxMap.put(frameNum, linkBox);
+      }
+
+      return linkBox;
+   }
+
+   /**
+    * getBoxPoints - Gets the X/Y Coordinates of the Bounding Box at a Frame,
+    *                from its Box if it is Shown (it may hold Edits)
+    *
+    * @param frameNum - The Frame
+    * @return double[] - Not to be Modified
+    */
+   private double[] getBoxPoints(final int frameNum)
+   {
+      // Check for a Box Shown at the Frame
+      final LinkBox linkBox = _frameToBoxMap.get(frameNum);
+      if(linkBox == null)
+      {
+         return interpolate(frameNum);
+      }
+
+      // Copy the Coordinates of the Box
+      final List<Double> vertices = linkBox.getPoints();
+      final double[] points = new double[vertices.size()];
+      for(int i = 0; i < points.length; i++)
+      {
+         points[i] = vertices.get(i);
+      }
+
+      return points;
+   }
+
+   /**
+    * interpolate - Gets the X/Y Coordinates of the Bounding Box at a Frame,
+    *               Interpolated between the Keyframes around it (Frames before
+    *               the first or after the last Keyframe Hold its Bounding Box)
+    *
+    * @param frameNum - The Frame
+    * @return double[] - Not to be Modified
+    */
+   private double[] interpolate(final int frameNum)
+   {
+      // Find the Keyframes at or around the Frame
+      final Map.Entry<Integer, double[]> previous = _keyFrames.floorEntry(frameNum);
+      final Map.Entry<Integer, double[]> next = _keyFrames.ceilingEntry(frameNum);
+
+      // Hold the Box outside the Keyframes
+      if(previous == null)
+      {
+         return next.getValue();
+      }
+      if(next == null || previous.getKey() == frameNum)
+      {
+         return previous.getValue();
+      }
+
+      // Hold the earlier Box if the Vertices do not Match
+      if(previous.getValue().length != next.getValue().length)
+      {
+         return previous.getValue();
+      }
+
+      return _interpolation.interpolate(previous.getValue(), next.getValue(),
+                                        (double) (frameNum - previous.getKey()) / (next.getKey() - previous.getKey()));
+   }
+
+   /**
+    * storeBox - Stores the Edits of a Bounding Box as a Keyframe. The
+    *            Frames beside it are Pinned first, so only the Edited
+    *            Frame Changes (as when every Frame had its own Box)
+    *
+    * @param frameNum - The Frame
+    * @param linkBox - The Bounding Box of the Frame
+    */
+   private void storeBox(final int frameNum, final LinkBox linkBox)
+   {
+      // Check if the Box was Edited
+      final double[] points = getBoxPoints(frameNum);
+      if(Arrays.equals(points, interpolate(frameNum)))
+      {
+         return;
+      }
+
+      // Pin the Frames beside it to their Boxes
+      final double[] before = interpolate(frameNum - 1);
+      final double[] after = interpolate(frameNum + 1);
+      if(frameNum > _startFrame.get())
+      {
+         _keyFrames.putIfAbsent(frameNum - 1, before);
+      }
+      if(frameNum < _endFrame.get())
+      {
+         _keyFrames.putIfAbsent(frameNum + 1, after);
+      }
+
+      // Add the Keyframe
+      _keyFrames.put(frameNum, points);
+   }
+
+   /**
+    * releaseBoxes - Releases the Bounding Boxes Shown, Storing their Edits
+    *
+    * @param keepFrame - Frame whose Box is Kept (null to Release every Box)
+    */
+   private void releaseBoxes(final Integer keepFrame)
+   {
+      // Iterate over the Bounding Boxes Shown
+      final Iterator<Map.Entry<Integer, LinkBox>> boxes = _frameToBoxMap.entrySet().iterator();
+      while(boxes.hasNext())
+      {
+         final Map.Entry<Integer, LinkBox> entry = boxes.next();
+         if(!entry.getKey().equals(keepFrame))
          {
-            _frameToBoxMap.remove(frame);
+            storeBox(entry.getKey(), entry.getValue());
+            boxes.remove();
          }
       }
    }
@@ -628,7 +743,7 @@ public class Link
       synchronized (_frameToBoxMap)
       {
          // Get the Link Box Associated with the Frame
-         LinkBox linkBox = _frameToBoxMap.get(_currentFrame);
+         LinkBox linkBox = getBox(_currentFrame);
 
          // Null Check Link Box
          if(linkBox != null)
@@ -60,49 +60,44 @@ public class LinkBox
 
    /**
     * Constructor
+    *
+    * @param parent - The Link
+    * @param pos - X/Y Coordinates of the Vertices
     */
-   public LinkBox(Link parent)
+   public LinkBox(Link parent, double[] pos)
    {
-      // Initialize Parent Link
-      _parent = parent;
-
-      // Initialize Editable Indicator
-      _isEditable = false;
-
-      // Initialize Polygon for Bounding Box
-      _boundingBox = createBoundingArea();
-
-      // Initialize Bounding Box Layout
-      _layoutX = _boundingBox.getLayoutX();
-      _layoutY = _boundingBox.getLayoutY();
-
-      // Initialize Observable List of Points Vertices
-      _vertices = _boundingBox.getPoints();
-
-      // Initialize Bounding Box Anchors
-      _boxAnchors = createBoxAnchors(_boundingBox, _vertices);
-
-      // Initialize Bounding 
-      _linkGroup = new Group();
-      _linkGroup.getChildren().add(_boundingBox);
-      _linkGroup.getChildren().addAll(_boxAnchors);
-
-      // Initialize Mouse Position
-      _mousePosition = new SimpleObjectProperty<>();
-      _moveVertexList = new ArrayList<Double>();
+      // Initialize the Link Box around its Bounding Box
+      initLinkBox(parent, createBoundingArea(pos));
+   }
 
-      // Initialize Polygon Utility Helper();
-      _polygonUtil = new PolygonUtil();
+   /**
+    * getDefaultPoints - Gets the X/Y Coordinates of the Default
+    *                    Bounding Box in the center of the Primary
+    *                    Video View
+    *
+    * @return double[]
+    */
+   public static double[] getDefaultPoints()
+   {
+      // Initialize Points of Rectangle
+      final Point p1 = new Point(126.0, 94.0);
+      final Point p2 = new Point(226.0, 94.0);
+      final Point p3 = new Point(226.0, 194.0);
+      final Point p4 = new Point(126.0, 194.0);
 
-      // Handle Listener on a Link Drag
-      enableDrag();
+      return new double[] { p1.getX(), p1.getY(),
+                            p2.getX(), p2.getY(),
+                            p3.getX(), p3.getY(),
+                            p4.getX(), p4.getY() };
    }
 
    /**
-    * Constructor
-    * @pos
+    * initLinkBox - Initializes the Link Box around its Bounding Box
+    *
+    * @param parent - The Link
+    * @param boundingBox - The Bounding Box
     */
-   public LinkBox(Link parent, ArrayList<Double> pos)
+   private void initLinkBox(final Link parent, final Polygon boundingBox)
    {
       // Initialize Parent Link
       _parent = parent;
@@ -111,7 +106,7 @@ public class LinkBox
       _isEditable = false;
 
       // Initialize Polygon for Bounding Box
-      _boundingBox = createBoundingArea(pos);
+      _boundingBox = boundingBox;
 
       // Initialize Bounding Box Layout
       _layoutX = _boundingBox.getLayoutX();
@@ -276,42 +271,16 @@ public class LinkBox
    }
 
    /**
-    * createBoundingArea - Creates a Default Bounding Box
-    *                      in the center of the Primary
-    *                      Video View
-    * @return
-    */
-   private Polygon createBoundingArea()
-   {
-      // Initialize Polygon
-      Polygon polygon = new Polygon();
-
-      // Initialize Points of Rectangle
-      final Point p1 = new Point(126.0, 94.0);
-      final Point p2 = new Point(226.0, 94.0);
-      final Point p3 = new Point(226.0, 194.0);
-      final Point p4 = new Point(126.0, 194.0);
-
-      // Add Initial Points to Polygon
-      polygon.getPoints().addAll(p1.getX(), p1.getY(),
-            p2.getX(), p2.getY(),
-            p3.getX(), p3.getY(),
-            p4.getX(), p4.getY());
-
-      return polygon;
-   }
-
-   /**
-    * 
-    * @param pos
-    * @return
+    * createBoundingArea - Creates the Bounding Box at the
+    *                      given Vertices
+    *
+    * @param pos - X/Y Coordinates of the Vertices
+    * @return Polygon
     */
-   private Polygon createBoundingArea(ArrayList<Double> pos) 
+   private Polygon createBoundingArea(double[] pos)
    {
-      Polygon polygon = new Polygon();
-      for (Double p : pos) {
-         polygon.getPoints().add(p);
-      }
+      // Add every Point at once
+      Polygon polygon = new Polygon(pos);
       polygon.setStroke(Color.FORESTGREEN);
       polygon.setStrokeWidth(2);
       polygon.setFill(Color.TRANSPARENT);
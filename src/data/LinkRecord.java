@@ -0,0 +1,355 @@
+package data;
+
+import java.util.Arrays;
+
+import enums.EInterpolationMode;
+
+/**
+ * LinkRecord - Immutable Contents of a Link as Stored in a Hyperlink File:
+ *              its Videos and Frames and the Keyframes of its Bounding Box.
+ *              Only the Frames where the Box stops Moving in a Straight Line
+ *              are Kept (for an Interpolated Link, its Start and End Frame);
+ *              the Frames between them are Recomputed as a Link Shows them.
+ *              Links are Live, Editable Scene Objects, so Records are what
+ *              is Cached and Written; each View gets its own Links built from them
+ */
+public class LinkRecord
+{
+   /** Largest Distance (in Pixels) a Vertex may be off the Interpolated one and not be a Keyframe */
+   private static final double KEYFRAME_TOLERANCE = 1e-6;
+
+   /** Estimated Size of a Record without its Keyframes (Fields, Strings, Array Headers) */
+   private static final long BASE_WEIGHT = 256;
+
+   /** Estimated Size of a Keyframe besides its Coordinates */
+   private static final long KEYFRAME_WEIGHT = 28;
+
+   /** Name of the Link */
+   private final String _name;
+
+   /** Path of the Video the Link is from/points to */
+   private final String _fromVideo;
+   private final String _toVideo;
+
+   /** Frame of the Video the Link points to */
+   private final int _toFrame;
+
+   /** Start/End Frame of the Link */
+   private final int _startFrame;
+   private final int _endFrame;
+
+   /** How the Bounding Box is Recomputed between Keyframes */
+   private final EInterpolationMode _interpolation;
+
+   /** Frames of the Keyframes (Ascending, within the Start/End Frame) */
+   private final int[] _keyFrames;
+
+   /** X/Y Coordinates of the Bounding Box at each Keyframe */
+   private final double[][] _keyPoints;
+
+   /**
+    * Constructor
+    *
+    * @param name - Name of the Link
+    * @param fromVideo - Path of the Video the Link is from
+    * @param toVideo - Path of the Video the Link points to
+    * @param toFrame - Frame of the Video the Link points to
+    * @param startFrame - Start Frame of the Link
+    * @param endFrame - End Frame of the Link
+    * @param interpolation - How the Bounding Box is Recomputed between Keyframes
+    * @param keyFrames - Frames of the Keyframes, Ascending (Owned by the Record from now on)
+    * @param keyPoints - X/Y Coordinates of the Bounding Box at each Keyframe (Owned by the Record from now on)
+    */
+   public LinkRecord(final String name, final String fromVideo, final String toVideo, final int toFrame,
+                     final int startFrame, final int endFrame, final EInterpolationMode interpolation,
+                     final int[] keyFrames, final double[][] keyPoints)
+   {
+      _name = name;
+      _fromVideo = fromVideo;
+      _toVideo = toVideo;
+      _toFrame = toFrame;
+      _startFrame = startFrame;
+      _endFrame = endFrame;
+      _interpolation = interpolation;
+      _keyFrames = keyFrames;
+      _keyPoints = keyPoints;
+   }
+
+   /**
+    * fromFrames - Builds a Record from the Bounding Box of every Frame,
+    *              Keeping only the Keyframes the others are Interpolated from
+    *
+    * @param name - Name of the Link
+    * @param fromVideo - Path of the Video the Link is from
+    * @param toVideo - Path of the Video the Link points to
+    * @param toFrame - Frame of the Video the Link points to
+    * @param startFrame - Start Frame of the Link
+    * @param endFrame - End Frame of the Link
+    * @param boxPoints - X/Y Coordinates of the Bounding Box of each Frame, from the Start
+    *                    Frame on (Missing or Empty Frames are Interpolated from their Neighbours)
+    * @return LinkRecord
+    */
+   public static LinkRecord fromFrames(final String name, final String fromVideo, final String toVideo, final int toFrame,
+                                       final int startFrame, final int endFrame, final double[][] boxPoints)
+   {
+      // Initialize Keyframes
+      int keyCount = 0;
+      int[] keyFrames = new int[2];
+      double[][] keyPoints = new double[2][];
+
+      // Find the first Frame with a Bounding Box
+      int key = nextBox(boxPoints, -1);
+      while(key < boxPoints.length)
+      {
+         // Add the Keyframe
+         if(keyCount == keyFrames.length)
+         {
+            keyFrames = Arrays.copyOf(keyFrames, keyCount * 2);
+            keyPoints = Arrays.copyOf(keyPoints, keyCount * 2);
+         }
+         keyFrames[keyCount] = startFrame + key;
+         keyPoints[keyCount] = boxPoints[key];
+         keyCount++;
+
+         // Check for a following Frame
+         final int next = nextBox(boxPoints, key);
+         if(next == boxPoints.length)
+         {
+            break;
+         }
+
+         // Follow the Line through the Keyframe and the next Frame as far as the Frames stay on it
+         int last = next;
+         if(boxPoints[next].length == boxPoints[key].length)
+         {
+            for(int frame = nextBox(boxPoints, next); frame < boxPoints.length; frame = nextBox(boxPoints, frame))
+            {
+               if(!isOnLine(boxPoints[key], boxPoints[next], next - key, boxPoints[frame], frame - key))
+               {
+                  break;
+               }
+               last = frame;
+            }
+         }
+         key = last;
+      }
+
+      return new LinkRecord(name, fromVideo, toVideo, toFrame, startFrame, endFrame, EInterpolationMode.LINEAR,
+                            Arrays.copyOf(keyFrames, keyCount), Arrays.copyOf(keyPoints, keyCount));
+   }
+
+   /**
+    * fromLink - Takes a Snapshot of a Link (its Keyframes, not every Frame)
+    *
+    * @param link - The Link
+    * @return LinkRecord
+    */
+   public static LinkRecord fromLink(final Link link)
+   {
+      return link.toRecord();
+   }
+
+   /**
+    * toLink - Builds a new Link from the Record (the Link Interpolates
+    *          a Frame between the Keyframes only when it is Shown)
+    *
+    * @return Link
+    */
+   public Link toLink()
+   {
+      return new Link(this);
+   }
+
+   /**
+    * renamed - Gets a Copy of the Record under another Name
+    *
+    * @param name - The new Name of the Link
+    * @return LinkRecord
+    */
+   public LinkRecord renamed(final String name)
+   {
+      return new LinkRecord(name, _fromVideo, _toVideo, _toFrame, _startFrame, _endFrame, _interpolation, _keyFrames, _keyPoints);
+   }
+
+   /**
+    * hasSameContents - Checks if another Record holds the same Link, whatever its Name
+    *
+    * @param other - The other Record
+    * @return boolean
+    */
+   public boolean hasSameContents(final LinkRecord other)
+   {
+      return _fromVideo.equals(other._fromVideo) && _toVideo.equals(other._toVideo) && _toFrame == other._toFrame
+             && _startFrame == other._startFrame && _endFrame == other._endFrame && _interpolation == other._interpolation
+             && Arrays.equals(_keyFrames, other._keyFrames) && Arrays.deepEquals(_keyPoints, other._keyPoints);
+   }
+
+   /**
+    * getWeight - Estimates the Memory the Record holds in Bytes
+    *
+    * @return long
+    */
+   public long getWeight()
+   {
+      long weight = BASE_WEIGHT + 2L * (_name.length() + _fromVideo.length() + _toVideo.length());
+      for(double[] points : _keyPoints)
+      {
+         weight += KEYFRAME_WEIGHT + Double.BYTES * (long) points.length;
+      }
+
+      return weight;
+   }
+
+   /**
+    * getName - Gets the Name of the Link
+    *
+    * @return String
+    */
+   public String getName()
+   {
+      return _name;
+   }
+
+   /**
+    * getFromVideo - Gets the Path of the Video the Link is from
+    *
+    * @return String
+    */
+   public String getFromVideo()
+   {
+      return _fromVideo;
+   }
+
+   /**
+    * getToVideo - Gets the Path of the Video the Link points to
+    *
+    * @return String
+    */
+   public String getToVideo()
+   {
+      return _toVideo;
+   }
+
+   /**
+    * getToFrame - Gets the Frame of the Video the Link points to
+    *
+    * @return int
+    */
+   public int getToFrame()
+   {
+      return _toFrame;
+   }
+
+   /**
+    * getStartFrame - Gets the Start Frame of the Link
+    *
+    * @return int
+    */
+   public int getStartFrame()
+   {
+      return _startFrame;
+   }
+
+   /**
+    * getEndFrame - Gets the End Frame of the Link
+    *
+    * @return int
+    */
+   public int getEndFrame()
+   {
+      return _endFrame;
+   }
+
+   /**
+    * getInterpolation - Gets how the Bounding Box is Recomputed between Keyframes
+    *
+    * @return EInterpolationMode
+    */
+   public EInterpolationMode getInterpolation()
+   {
+      return _interpolation;
+   }
+
+   /**
+    * getKeyFrameCount - Gets the Number of Keyframes
+    *
+    * @return int
+    */
+   public int getKeyFrameCount()
+   {
+      return _keyFrames.length;
+   }
+
+   /**
+    * getKeyFrame - Gets the Frame of a Keyframe
+    *
+    * @param key - The Keyframe (0 to getKeyFrameCount() - 1)
+    * @return int
+    */
+   public int getKeyFrame(final int key)
+   {
+      return _keyFrames[key];
+   }
+
+   /**
+    * getKeyPoints - Gets the X/Y Coordinates of the Bounding Box at a Keyframe
+    *
+    * @param key - The Keyframe (0 to getKeyFrameCount() - 1)
+    * @return double[] - Not to be Modified
+    */
+   public double[] getKeyPoints(final int key)
+   {
+      return _keyPoints[key];
+   }
+
+   /**
+    * nextBox - Finds the next Frame that has a Bounding Box
+    *
+    * @param boxPoints - X/Y Coordinates of the Bounding Box of each Frame
+    * @param after - The Frame to Search after (-1 to Search from the Start)
+    * @return int - boxPoints.length if there is none
+    */
+   private static int nextBox(final double[][] boxPoints, final int after)
+   {
+      int frame = after + 1;
+      while(frame < boxPoints.length && (boxPoints[frame] == null || boxPoints[frame].length == 0))
+      {
+         frame++;
+      }
+
+      return frame;
+   }
+
+   /**
+    * isOnLine - Checks if a Bounding Box is where each Vertex would be if it kept
+    *            Moving at the Speed it Moves from one Bounding Box to another
+    *
+    * @param from - X/Y Coordinates of the first Bounding Box
+    * @param to - X/Y Coordinates of the second Bounding Box
+    * @param toDistance - Frames from the first to the second Bounding Box
+    * @param points - X/Y Coordinates of the Bounding Box being Checked
+    * @param distance - Frames from the first Bounding Box to the one being Checked
+    * @return boolean
+    */
+   private static boolean isOnLine(final double[] from, final double[] to, final int toDistance,
+                                   final double[] points, final int distance)
+   {
+      // Check the Vertices Match
+      if(points.length != from.length)
+      {
+         return false;
+      }
+
+      // Check each Coordinate
+      final double fraction = (double) distance / toDistance;
+      for(int i = 0; i < points.length; i++)
+      {
+         if(Math.abs(from[i] + (to[i] - from[i]) * fraction - points[i]) > KEYFRAME_TOLERANCE)
+         {
+            return false;
+         }
+      }
+
+      return true;
+   }
+}
\ No newline at end of file
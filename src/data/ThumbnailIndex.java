@@ -0,0 +1,301 @@
+package data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * ThumbnailIndex - Describes the Sprite Sheets of Scrub Thumbnails kept beside
+ *                  a Converted Video. Every Interval'th Frame has a Thumbnail;
+ *                  Sheets hold a Grid of them in Frame Order, Row by Row
+ */
+public class ThumbnailIndex
+{
+   /** Suffix of the Folder the Sheets of a Video are kept in */
+   public static final String FOLDER_SUFFIX = ".thumbs";
+
+   /** Name of the Index File inside the Folder */
+   private static final String INDEX_NAME = "index.json";
+
+   /** Version of the Index Format */
+   private static final int VERSION = 1;
+
+   /** Version of the Index Format */
+   @SerializedName("version")
+   private int _version;
+
+   /** Number of Frames in the Video */
+   @SerializedName("frameCount")
+   private int _frameCount;
+
+   /** Number of Frames between Thumbnails */
+   @SerializedName("interval")
+   private int _interval;
+
+   /** Size of a Thumbnail */
+   @SerializedName("thumbWidth")
+   private int _thumbWidth;
+   @SerializedName("thumbHeight")
+   private int _thumbHeight;
+
+   /** Size of the Grid of Thumbnails on a Sheet */
+   @SerializedName("columns")
+   private int _columns;
+   @SerializedName("rows")
+   private int _rows;
+
+   /**
+    * Constructor
+    *
+    * @param frameCount - Number of Frames in the Video
+    * @param interval - Number of Frames between Thumbnails
+    * @param thumbWidth - Width of a Thumbnail
+    * @param thumbHeight - Height of a Thumbnail
+    * @param columns - Number of Thumbnails across a Sheet
+    * @param rows - Number of Thumbnails down a Sheet
+    */
+   public ThumbnailIndex(final int frameCount, final int interval, final int thumbWidth, final int thumbHeight,
+                         final int columns, final int rows)
+   {
+      _version = VERSION;
+      _frameCount = frameCount;
+      _interval = Math.max(1, interval);
+      _thumbWidth = thumbWidth;
+      _thumbHeight = thumbHeight;
+      _columns = columns;
+      _rows = rows;
+   }
+
+   /**
+    * folderFor - Gets the Folder the Sheets of a Video are kept in
+    *             (beside the Video, named after it)
+    *
+    * @param video - The Video File
+    * @return File
+    */
+   public static File folderFor(final File video)
+   {
+      // Strip the Extension of the Video
+      String name = video.getName();
+      final int extension = name.lastIndexOf('.');
+      if(extension > 0)
+      {
+         name = name.substring(0, extension);
+      }
+
+      return new File(video.getAbsoluteFile().getParentFile(), name + FOLDER_SUFFIX);
+   }
+
+   /**
+    * load - Loads the Index of a Folder of Sheets
+    *
+    * @param folder - The Folder of Sheets
+    * @return ThumbnailIndex - Null if the Folder has no readable Index
+    */
+   public static ThumbnailIndex load(final File folder)
+   {
+      // Get Index File
+      final File indexFile = new File(folder, INDEX_NAME);
+
+      // Check for an Index
+      if(indexFile.isFile())
+      {
+         try(Reader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8))
+         {
+            // Read the Index (only the Version this Code Writes)
+            final ThumbnailIndex index = new Gson().fromJson(reader, ThumbnailIndex.class);
+            if(index != null && index._version == VERSION && index._interval > 0 && index._columns > 0 && index._rows > 0)
+            {
+               return index;
+            }
+         }
+         catch (IOException | JsonParseException e)
+         {
+            e.printStackTrace();
+         }
+      }
+
+      return null;
+   }
+
+   /**
+    * save - Writes the Index into a Folder of Sheets (through a
+    *        Temporary File, so Readers never see a Partial Index)
+    *
+    * @param folder - The Folder of Sheets
+    * @throws IOException
+    */
+   public void save(final File folder) throws IOException
+   {
+      // Write a Temporary Copy
+      final File indexFile = new File(folder, INDEX_NAME);
+      final File tempFile = new File(folder, INDEX_NAME + ".tmp");
+      try(Writer writer = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8))
+      {
+         new Gson().toJson(this, writer);
+      }
+
+      // Replace the Index
+      Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+   }
+
+   /**
+    * matches - Checks if another Index describes the same Sheets
+    *
+    * @param other - The other Index
+    * @return boolean
+    */
+   public boolean matches(final ThumbnailIndex other)
+   {
+      return other != null && _frameCount == other._frameCount && _interval == other._interval
+          && _thumbWidth == other._thumbWidth && _thumbHeight == other._thumbHeight
+          && _columns == other._columns && _rows == other._rows;
+   }
+
+   /**
+    * hasThumbnail - Checks if a Frame gets a Thumbnail
+    *
+    * @param frameNum - The Frame Number
+    * @return boolean
+    */
+   public boolean hasThumbnail(final int frameNum)
+   {
+      return frameNum >= 1 && frameNum <= _frameCount && (frameNum - 1) % _interval == 0;
+   }
+
+   /**
+    * getThumbnail - Gets the Thumbnail shown for a Frame (the
+    *                Thumbnail of the Frame, or the last one before it)
+    *
+    * @param frameNum - The Frame Number
+    * @return int - Position of the Thumbnail among all Thumbnails
+    */
+   public int getThumbnail(final int frameNum)
+   {
+      final int frame = Math.max(1, Math.min(_frameCount, frameNum));
+      return (frame - 1) / _interval;
+   }
+
+   /**
+    * getThumbnailCount - Gets the Number of Thumbnails of the Video
+    *
+    * @return int
+    */
+   public int getThumbnailCount()
+   {
+      return (_frameCount + _interval - 1) / _interval;
+   }
+
+   /**
+    * getThumbnailsPerSheet - Gets the Number of Thumbnails a Sheet holds
+    *
+    * @return int
+    */
+   public int getThumbnailsPerSheet()
+   {
+      return _columns * _rows;
+   }
+
+   /**
+    * getSheet - Gets the Sheet a Thumbnail is on
+    *
+    * @param thumbnail - Position of the Thumbnail among all Thumbnails
+    * @return int
+    */
+   public int getSheet(final int thumbnail)
+   {
+      return thumbnail / getThumbnailsPerSheet();
+   }
+
+   /**
+    * getSheetCount - Gets the Number of Sheets of the Video
+    *
+    * @return int
+    */
+   public int getSheetCount()
+   {
+      return (getThumbnailCount() + getThumbnailsPerSheet() - 1) / getThumbnailsPerSheet();
+   }
+
+   /**
+    * getX - Gets the Left Edge of a Thumbnail on its Sheet
+    *
+    * @param thumbnail - Position of the Thumbnail among all Thumbnails
+    * @return int
+    */
+   public int getX(final int thumbnail)
+   {
+      return (thumbnail % getThumbnailsPerSheet()) % _columns * _thumbWidth;
+   }
+
+   /**
+    * getY - Gets the Top Edge of a Thumbnail on its Sheet
+    *
+    * @param thumbnail - Position of the Thumbnail among all Thumbnails
+    * @return int
+    */
+   public int getY(final int thumbnail)
+   {
+      return (thumbnail % getThumbnailsPerSheet()) / _columns * _thumbHeight;
+   }
+
+   /**
+    * sheetFile - Gets the File of a Sheet
+    *
+    * @param folder - The Folder of Sheets
+    * @param sheet - The Sheet
+    * @return File
+    */
+   public static File sheetFile(final File folder, final int sheet)
+   {
+      return new File(folder, String.format("sheet%03d.png", sheet));
+   }
+
+   /**
+    * getThumbWidth - Gets the Width of a Thumbnail
+    *
+    * @return int
+    */
+   public int getThumbWidth()
+   {
+      return _thumbWidth;
+   }
+
+   /**
+    * getThumbHeight - Gets the Height of a Thumbnail
+    *
+    * @return int
+    */
+   public int getThumbHeight()
+   {
+      return _thumbHeight;
+   }
+
+   /**
+    * getColumns - Gets the Number of Thumbnails across a Sheet
+    *
+    * @return int
+    */
+   public int getColumns()
+   {
+      return _columns;
+   }
+
+   /**
+    * getRows - Gets the Number of Thumbnails down a Sheet
+    *
+    * @return int
+    */
+   public int getRows()
+   {
+      return _rows;
+   }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package enums;
+
+/**
+ * EConversionMode - Enumeration for how the MP4 Converter
+ *                   hands Frames to the Video Encoder
+ */
+public enum EConversionMode
+{
+   IMAGE_SEQUENCE,  // Write an Image per Frame and have ffmpeg read them back
+   RAW_PIPE,        // Stream Raw Pixels straight into ffmpeg's stdin
+   SEGMENTED_PIPE,  // Stream Raw Pixels into several ffmpeg Processes and Join their Segments
+   MJPEG_AVI        // Write a Motion-JPEG AVI in Process (no ffmpeg needed)
+}
\ No newline at end of file
@@ -14,6 +14,7 @@ public enum EFontAwesome
    PLAY("\uf04b"),         // Regular
    PLAY_CIRCLE("\uf144"),  // Regular
    SAVE("\uf0c7"),         // Regular
+   SPINNER("\uf110"),      // Regular
    STOP("\uf04d"),         // Regular
    STOP_CIRCLE("\uf28d"),  // Regular
    TRASH("\uf1f8");        // Regular
@@ -0,0 +1,50 @@
+package enums;
+
+/**
+ * EIntermediateCodec - Enumeration for the Image Formats Frames
+ *                      can be Written in before ffmpeg Encodes them
+ */
+public enum EIntermediateCodec
+{
+   JPEG("jpg", "jpeg"),   // Lossy, smallest Files
+   PNG("png", "png"),     // Lossless, Deflate Compressed
+   PPM("ppm", null);      // Lossless, Raw Pixels behind a short Header (no ImageIO Writer)
+
+   /** File Extension of the Images */
+   private String _extension;
+
+   /** ImageIO Format Name of the Writer (null when Written directly) */
+   private String _formatName;
+
+   /**
+    * Private Constructor
+    *
+    * @param extension - File Extension of the Images
+    * @param formatName - ImageIO Format Name of the Writer
+    */
+   private EIntermediateCodec(String extension, String formatName)
+   {
+      _extension = extension;
+      _formatName = formatName;
+   }
+
+   /**
+    * getExtension - Gets the File Extension of the Images
+    *
+    * @return String
+    */
+   public String getExtension()
+   {
+      return _extension;
+   }
+
+   /**
+    * getFormatName - Gets the ImageIO Format Name of the Writer
+    *
+    * @return String - Null when the Images are Written directly
+    */
+   public String getFormatName()
+   {
+      return _formatName;
+   }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package enums;
+
+/**
+ * EInterpolationMode - Enumeration for how the Bounding Box of a Link
+ *                      is Recomputed between two of its Keyframes
+ */
+public enum EInterpolationMode
+{
+   LINEAR("linear");    // Each Vertex Moves in a Straight Line at a Constant Speed (as Link.performLinearInterpolation)
+
+   /** Name of the Mode in a Hyperlink File */
+   private String _fileName;
+
+   /**
+    * Private Constructor
+    *
+    * @param fileName - Name of the Mode in a Hyperlink File
+    */
+   private EInterpolationMode(String fileName)
+   {
+      _fileName = fileName;
+   }
+
+   /**
+    * getFileName - Gets the Name of the Mode in a Hyperlink File
+    *
+    * @return String
+    */
+   public String getFileName()
+   {
+      return _fileName;
+   }
+
+   /**
+    * fromFileName - Gets the Mode of a Name in a Hyperlink File
+    *
+    * @param fileName - Name of the Mode in a Hyperlink File
+    * @return EInterpolationMode - null if the Mode is Unknown
+    */
+   public static EInterpolationMode fromFileName(final String fileName)
+   {
+      for(EInterpolationMode mode : values())
+      {
+         if(mode._fileName.equals(fileName))
+         {
+            return mode;
+         }
+      }
+
+      return null;
+   }
+
+   /**
+    * interpolate - Computes the Bounding Box between two Keyframes
+    *
+    * @param from - X/Y Coordinates at the Earlier Keyframe
+    * @param to - X/Y Coordinates at the Later Keyframe (as many as from)
+    * @param fraction - How far the Frame is from the Earlier to the Later Keyframe (0 to 1)
+    * @return double[]
+    */
+   public double[] interpolate(final double[] from, final double[] to, final double fraction)
+   {
+      final double[] points = new double[from.length];
+      for(int i = 0; i < points.length; i++)
+      {
+         points[i] = from[i] + (to[i] - from[i]) * fraction;
+      }
+
+      return points;
+   }
+}
\ No newline at end of file
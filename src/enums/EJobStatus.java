@@ -0,0 +1,46 @@
+package enums;
+
+/**
+ * EJobStatus - Enumeration for the Status of a
+ *              Conversion Job in the MP4 Converter Queue
+ */
+public enum EJobStatus
+{
+   QUEUED("Queued"),
+   CONVERTING("Converting"),
+   DONE("Done"),
+   FAILED("Failed");
+
+   /** Text Displayed for the Status */
+   private String _text;
+
+   /**
+    * Private Constructor
+    *
+    * @param text - Text Displayed for the Status
+    */
+   private EJobStatus(String text)
+   {
+      _text = text;
+   }
+
+   /**
+    * getText - Gets the Text Displayed for the Status
+    *
+    * @return String
+    */
+   public String getText()
+   {
+      return _text;
+   }
+
+   /**
+    * isFinished - Checks if a Job with the Status has Stopped
+    *
+    * @return boolean
+    */
+   public boolean isFinished()
+   {
+      return this == DONE || this == FAILED;
+   }
+}
\ No newline at end of file
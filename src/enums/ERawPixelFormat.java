@@ -0,0 +1,55 @@
+package enums;
+
+import data.FrameGeometry;
+
+/**
+ * ERawPixelFormat - Enumeration for the Pixel Formats Frames
+ *                   can be Streamed to ffmpeg's rawvideo Input in
+ */
+public enum ERawPixelFormat
+{
+   RGB24("rgb24"),        // Interleaved R, G, B (3 Bytes per Pixel, ffmpeg Converts the Color)
+   YUV420P("yuv420p");    // Planar Y, then U and V at Quarter Size (1.5 Bytes per Pixel, Converted here)
+
+   /** ffmpeg Name of the Pixel Format */
+   private String _ffmpegName;
+
+   /**
+    * Private Constructor
+    *
+    * @param ffmpegName - ffmpeg Name of the Pixel Format
+    */
+   private ERawPixelFormat(String ffmpegName)
+   {
+      _ffmpegName = ffmpegName;
+   }
+
+   /**
+    * getFfmpegName - Gets the ffmpeg Name of the Pixel Format (for -pix_fmt)
+    *
+    * @return String
+    */
+   public String getFfmpegName()
+   {
+      return _ffmpegName;
+   }
+
+   /**
+    * getFrameBytes - Gets the Size of a Frame in this Pixel Format
+    *
+    * @param geometry - Geometry of the Frame
+    * @return int
+    */
+   public int getFrameBytes(final FrameGeometry geometry)
+   {
+      // Chroma Planes cover Odd Edges with a Half Sample
+      if(this == YUV420P)
+      {
+         final int chromaWidth = (geometry.getWidth() + 1) / 2;
+         final int chromaHeight = (geometry.getHeight() + 1) / 2;
+         return geometry.getPixelCount() + 2 * chromaWidth * chromaHeight;
+      }
+
+      return geometry.getPixelCount() * 3;
+   }
+}
\ No newline at end of file
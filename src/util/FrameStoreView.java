@@ -0,0 +1,145 @@
+package util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import data.FrameGeometry;
+import data.FrameStore;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+/**
+ * FrameStoreView - Shows the Exact Frame Selected on a Slider from the Frame
+ *                  Store of a Video, over the Video's Media View. Seeking the
+ *                  Media Player lands on the nearest Keyframe, which is too
+ *                  Coarse for Editing; Videos without a Frame Store (or once
+ *                  Playing) are left to the Media View
+ */
+public class FrameStoreView extends ImageView
+{
+   /** Size the Frames are Shown at (the Size of the Media View) */
+   private static final double FIT_WIDTH = 352.0;
+   private static final double FIT_HEIGHT = 288.0;
+
+   /** Frame Store of the Current Video (null without one) */
+   private FrameStore _store;
+
+   /** Image the Frames are Written into */
+   private WritableImage _image;
+
+   /** rgb24 Pixels of a Frame, Copied out of the Frame Store */
+   private byte[] _pixels;
+
+   /**
+    * Constructor
+    */
+   public FrameStoreView()
+   {
+      // Fit the Media View, and let the Mouse through to the Video Pane
+      setFitWidth(FIT_WIDTH);
+      setFitHeight(FIT_HEIGHT);
+      setPreserveRatio(true);
+      setMouseTransparent(true);
+      setVisible(false);
+   }
+
+   /**
+    * setVideo - Sets the Video whose Frames are Shown, Opening its Frame Store
+    *
+    * @param video - The Video File (null for none)
+    */
+   public void setVideo(final File video)
+   {
+      // Close the Frame Store of the previous Video
+      close();
+
+      // Open the Frame Store (if the Video has one)
+      if(video != null)
+      {
+         final File storeFile = FrameStore.fileFor(video);
+         if(storeFile.isFile())
+         {
+            try
+            {
+               _store = new FrameStore(storeFile);
+
+               // Size the Image to the Frames
+               final FrameGeometry geometry = _store.getGeometry();
+               _image = new WritableImage(geometry.getWidth(), geometry.getHeight());
+               _pixels = new byte[geometry.getFrameBytes()];
+               setImage(_image);
+            }
+            catch (IOException e)
+            {
+               e.printStackTrace();
+               close();
+            }
+         }
+      }
+   }
+
+   /**
+    * showFrame - Shows a Frame from the Frame Store
+    *
+    * @param frameNum - The Frame Number
+    * @return boolean - False if the Frame could not be Shown (the Media View is used instead)
+    */
+   public boolean showFrame(final int frameNum)
+   {
+      // Check for a Frame Store holding the Frame (the Slider can run past the last Frame)
+      if(_store == null || frameNum < 1 || frameNum > _store.getFrameCount())
+      {
+         setVisible(false);
+
+         return false;
+      }
+
+      try
+      {
+         // Copy the Frame into the Image
+         final FrameGeometry geometry = _store.getGeometry();
+         final ByteBuffer frame = _store.getFrame(frameNum);
+         frame.get(_pixels);
+         _image.getPixelWriter().setPixels(0, 0, geometry.getWidth(), geometry.getHeight(),
+                                           PixelFormat.getByteRgbInstance(), _pixels, 0, geometry.getWidth() * 3);
+         setVisible(true);
+
+         return true;
+      }
+      catch (IOException e)
+      {
+         e.printStackTrace();
+         setVisible(false);
+
+         return false;
+      }
+   }
+
+   /**
+    * close - Closes the Frame Store of the Current Video
+    */
+   public void close()
+   {
+      // Hide the Frame
+      setVisible(false);
+      setImage(null);
+      _image = null;
+      _pixels = null;
+
+      // Close the Frame Store
+      if(_store != null)
+      {
+         try
+         {
+            _store.close();
+         }
+         catch (IOException e)
+         {
+            e.printStackTrace();
+         }
+         _store = null;
+      }
+   }
+}
\ No newline at end of file
@@ -0,0 +1,242 @@
+package util;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import data.ThumbnailIndex;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.Slider;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.VBox;
+import javafx.stage.Popup;
+
+/**
+ * SliderThumbnailPreview - Shows the Scrub Thumbnail of the Frame under the
+ *                          Mouse while Hovering over or Dragging a Frame Slider.
+ *                          The Thumbnail Index and Sheets written during the
+ *                          Conversion are only Loaded once they are needed
+ */
+public class SliderThumbnailPreview
+{
+   /** Gap between the Preview and the Slider */
+   private static final double PREVIEW_GAP = 6.0;
+
+   /** Maximum Number of Sheets kept in Memory */
+   private static final int MAX_CACHED_SHEETS = 8;
+
+   /** The Slider */
+   private final Slider _slider;
+
+   /** Popup holding the Preview */
+   private final Popup _popup;
+
+   /** View of the Thumbnail on its Sheet */
+   private final ImageView _thumbnailView;
+
+   /** Frame Number of the Thumbnail */
+   private final Label _frameLabel;
+
+   /** Least Recently Used Sheets, by Sheet Number */
+   private final Map<Integer, Image> _sheets;
+
+   /** Folder of Sheets of the Current Video (null without a Video) */
+   private File _folder;
+
+   /** Index of the Sheets (Loaded on the first Hover) */
+   private ThumbnailIndex _index;
+
+   /** Whether Loading the Index has been tried */
+   private boolean _indexLoaded;
+
+   /**
+    * Constructor
+    *
+    * @param slider - The Frame Slider to Preview
+    */
+   public SliderThumbnailPreview(final Slider slider)
+   {
+      // Initialize the Slider
+      _slider = slider;
+
+      // Initialize the Preview
+      _thumbnailView = new ImageView();
+      _frameLabel = new Label();
+      _frameLabel.setStyle("-fx-text-fill: white;");
+      final VBox content = new VBox(2.0, _thumbnailView, _frameLabel);
+      content.setStyle("-fx-background-color: black; -fx-padding: 2;");
+      _popup = new Popup();
+      _popup.getContent().add(content);
+
+      // Initialize the Sheet Cache (Evicting the Least Recently Used Sheet)
+      _sheets = new LinkedHashMap<Integer, Image>(16, 0.75f, true)
+      {
+         private static final long serialVersionUID = 1L;
+
+         @Override
+         protected boolean removeEldestEntry(final Map.Entry<Integer, Image> eldest)
+         {
+            return size() > MAX_CACHED_SHEETS;
+         }
+      };
+
+      // Show the Preview while Hovering or Dragging
+      _slider.addEventHandler(MouseEvent.MOUSE_MOVED, this::showPreview);
+      _slider.addEventHandler(MouseEvent.MOUSE_DRAGGED, this::showPreview);
+
+      // Hide the Preview once the Mouse Leaves
+      _slider.addEventHandler(MouseEvent.MOUSE_EXITED, event ->
+      {
+         // Keep Showing while Dragging outside the Slider
+         if(!event.isPrimaryButtonDown())
+         {
+            _popup.hide();
+         }
+      });
+      _slider.addEventHandler(MouseEvent.MOUSE_RELEASED, event ->
+      {
+         if(!_slider.isHover())
+         {
+            _popup.hide();
+         }
+      });
+   }
+
+   /**
+    * setVideo - Sets the Video whose Thumbnails are Previewed
+    *
+    * @param video - The Video File (null for none)
+    */
+   public void setVideo(final File video)
+   {
+      // Forget the Thumbnails of the previous Video
+      _popup.hide();
+      _sheets.clear();
+      _index = null;
+      _indexLoaded = false;
+
+      // Get the Folder of Sheets (Loaded on the first Hover)
+      _folder = (video != null) ? ThumbnailIndex.folderFor(video) : null;
+   }
+
+   /**
+    * showPreview - Shows the Thumbnail of the Frame under the Mouse
+    *
+    * @param event - The Mouse Event
+    */
+   private void showPreview(final MouseEvent event)
+   {
+      // Check for a Video
+      if(_folder == null || _slider.isDisabled() || _slider.getScene() == null)
+      {
+         return;
+      }
+
+      // Load the Index on first use
+      if(!_indexLoaded)
+      {
+         _index = ThumbnailIndex.load(_folder);
+         _indexLoaded = true;
+      }
+
+      // Check that the Video has Thumbnails
+      if(_index == null)
+      {
+         return;
+      }
+
+      // Get the Frame under the Mouse
+      final int frameNum = frameAt(event.getX());
+
+      // Get the Sheet of the Thumbnail
+      final int thumbnail = _index.getThumbnail(frameNum);
+      final Image sheet = getSheet(_index.getSheet(thumbnail));
+      if(sheet == null)
+      {
+         _popup.hide();
+         return;
+      }
+
+      // Show the Thumbnail
+      _thumbnailView.setImage(sheet);
+      _thumbnailView.setViewport(new Rectangle2D(_index.getX(thumbnail), _index.getY(thumbnail),
+                                                 _index.getThumbWidth(), _index.getThumbHeight()));
+      _frameLabel.setText("Frame " + frameNum);
+
+      // Place the Preview above the Mouse
+      final Point2D anchor = _slider.localToScreen(event.getX(), 0.0);
+      final double x = anchor.getX() - _index.getThumbWidth() / 2.0;
+      final double y = anchor.getY() - _index.getThumbHeight() - _frameLabel.getHeight() - PREVIEW_GAP * 2;
+      if(_popup.isShowing())
+      {
+         _popup.setX(x);
+         _popup.setY(y);
+      }
+      else
+      {
+         _popup.show(_slider, x, y);
+      }
+   }
+
+   /**
+    * frameAt - Gets the Frame the Slider would Select at a Position
+    *
+    * @param x - Position on the Slider
+    * @return int
+    */
+   private int frameAt(final double x)
+   {
+      // Measure along the Track (the Slider is wider than its Track)
+      double start = 0.0;
+      double length = _slider.getWidth();
+      final Node track = _slider.lookup(".track");
+      if(track != null)
+      {
+         final Bounds bounds = track.getBoundsInParent();
+         start = bounds.getMinX();
+         length = bounds.getWidth();
+      }
+
+      // Get the Fraction of the Track
+      final double fraction = (length > 0) ? Math.max(0.0, Math.min(1.0, (x - start) / length)) : 0.0;
+
+      return (int) Math.round(_slider.getMin() + fraction * (_slider.getMax() - _slider.getMin()));
+   }
+
+   /**
+    * getSheet - Gets a Sheet, Loading it the first time it is needed
+    *
+    * @param sheetNum - The Sheet
+    * @return Image - Null if the Sheet is Missing or Unreadable
+    */
+   private Image getSheet(final int sheetNum)
+   {
+      // Check the Cache
+      Image sheet = _sheets.get(sheetNum);
+      if(sheet == null)
+      {
+         // Check that the Sheet was Written
+         final File sheetFile = ThumbnailIndex.sheetFile(_folder, sheetNum);
+         if(!sheetFile.isFile())
+         {
+            return null;
+         }
+
+         // Load the Sheet (a small PNG, so on this Thread)
+         sheet = new Image(sheetFile.toURI().toString());
+         if(sheet.isError())
+         {
+            return null;
+         }
+         _sheets.put(sheetNum, sheet);
+      }
+
+      return sheet;
+   }
+}
\ No newline at end of file